@@ -0,0 +1,51 @@
+// Teste de carga dos endpoints de pedidos com k6 (https://k6.io).
+// Compara o modo padrão (threads de plataforma do Tomcat) com o modo de threads virtuais (perfil Maven java21):
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=200 carga/pedidos.js
+// Cada execução cria o próprio cliente e produto, então pode rodar contra um banco já populado.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '200');
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    scenarios: {
+        pedidos: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: __ENV.DURACAO || '2m',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const sufixo = Date.now();
+    const cliente = http.post(`${BASE_URL}/clientes`, JSON.stringify({
+        nome: `Carga ${sufixo}`,
+        email: `carga.${sufixo}@email.com`,
+        vip: false,
+    }), JSON_HEADERS).json();
+    const produto = http.post(`${BASE_URL}/produtos`, JSON.stringify({
+        nome: `Produto carga ${sufixo}`,
+        preco: 10.0,
+        estoque: 100000000,
+    }), JSON_HEADERS).json();
+    return { clienteId: cliente.id, produtoId: produto.id };
+}
+
+export default function (dados) {
+    const criado = http.post(`${BASE_URL}/pedidos`, JSON.stringify({
+        cliente: { id: dados.clienteId },
+        itens: [{ produtoId: dados.produtoId, quantidade: 1 }],
+    }), Object.assign({ tags: { name: 'POST /pedidos' } }, JSON_HEADERS));
+    check(criado, { 'pedido criado': (r) => r.status === 201 });
+
+    const pagina = http.get(`${BASE_URL}/pedidos?clienteId=${dados.clienteId}&limite=20`,
+        { tags: { name: 'GET /pedidos' } });
+    check(pagina, { 'pedidos listados': (r) => r.status === 200 });
+}
@@ -0,0 +1,20 @@
+package com.klok.desafio.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//Compilado só no perfil Maven java21. Com threads virtuais ligadas, publica via JFR jvm.threads.virtual.pinned
+//(tempo em que uma thread virtual bloqueou presa à portadora, ex.: dentro de synchronized) e
+//jvm.threads.virtual.submit.failed em /actuator/prometheus
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    @Bean(destroyMethod = "close")
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
@@ -0,0 +1,43 @@
+package com.klok.desafio.benchmarks;
+
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.services.pedido.utils.CalculadoraPedidoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculadoraPedidoBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int tamanho;
+
+    private final CalculadoraPedidoService calculadora = Pedidos.calculadora();
+
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() {
+        pedido = Pedidos.comItens(tamanho);
+        calculadora.calcularValorTotalPedido(pedido);
+    }
+
+    @Benchmark
+    public BigDecimal calcularValorTotalPedido() {
+        calculadora.calcularValorTotalPedido(pedido);
+        return pedido.getTotal();
+    }
+
+    //o total já foi calculado no setup; aqui só o desconto é medido
+    @Benchmark
+    public BigDecimal calcularValorTotalComDesconto() {
+        calculadora.calcularValorTotalComDesconto(pedido);
+        return pedido.getTotalComDesconto();
+    }
+}
@@ -0,0 +1,42 @@
+package com.klok.desafio.benchmarks;
+
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.repositories.ProdutoRepository;
+import com.klok.desafio.services.pedido.utils.EstoqueService;
+import com.klok.desafio.services.pedido.utils.ReservaEstoque;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+//Mede o trabalho da aplicação na reserva (agrupamento por produto, ordenação e montagem da reserva). O UPDATE no
+//banco é substituído por um repositório que sempre confirma o débito, então o custo de I/O fica de fora
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EstoqueBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int tamanho;
+
+    private EstoqueService estoqueService;
+
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() {
+        ProdutoRepository repositorio = (ProdutoRepository) Proxy.newProxyInstance(
+                ProdutoRepository.class.getClassLoader(), new Class<?>[]{ProdutoRepository.class},
+                (proxy, metodo, argumentos) -> metodo.getName().equals("debitarEstoque") ? 1 : 0);
+        estoqueService = Pedidos.injetar(new EstoqueService(), "produtoRepository", repositorio);
+        pedido = Pedidos.comItens(tamanho);
+    }
+
+    @Benchmark
+    public ReservaEstoque reservarEstoque() {
+        return estoqueService.reservarEstoque(pedido);
+    }
+}
@@ -0,0 +1,40 @@
+package com.klok.desafio.benchmarks;
+
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.services.item.utils.ItemValidator;
+import com.klok.desafio.services.pedido.utils.CalculadoraPedidoService;
+import com.klok.desafio.services.pedido.utils.PedidoValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoValidatorBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int tamanho;
+
+    private PedidoValidator validator;
+
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() {
+        validator = Pedidos.injetar(new PedidoValidator(), "itemValidator", new ItemValidator());
+        pedido = Pedidos.comItens(tamanho);
+        CalculadoraPedidoService calculadora = Pedidos.calculadora();
+        calculadora.calcularValorTotalPedido(pedido);
+        calculadora.calcularValorTotalComDesconto(pedido);
+    }
+
+    @Benchmark
+    public Pedido validarPedido() {
+        validator.validarPedido(pedido);
+        return pedido;
+    }
+}
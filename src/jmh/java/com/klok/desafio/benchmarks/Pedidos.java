@@ -0,0 +1,53 @@
+package com.klok.desafio.benchmarks;
+
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.services.pedido.utils.CalculadoraPedidoService;
+import com.klok.desafio.services.promocao.MotorPromocoes;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//Montagem dos pedidos usados pelos benchmarks, sem Spring e sem banco
+final class Pedidos {
+
+    private Pedidos() {}
+
+    //um produto distinto por item, com preços variados para o cálculo não cair sempre no mesmo valor
+    static Pedido comItens(int tamanho) {
+        Cliente cliente = new Cliente("Cliente", "cliente@email.com");
+        cliente.setId(1L);
+        cliente.setVip(true);
+
+        Pedido pedido = new Pedido(BigDecimal.ZERO, BigDecimal.ZERO, false, LocalDate.now().plusDays(3), cliente);
+        for (int i = 0; i < tamanho; i++) {
+            Produto produto = new Produto("Produto " + i, BigDecimal.valueOf(1000 + i, 2), 1_000_000);
+            produto.setId((long) i + 1);
+            Item item = new Item(produto, 1 + i % 5, pedido);
+            pedido.getItens().add(item);
+        }
+        return pedido;
+    }
+
+    //calculadora com o motor de promoções só com o desconto VIP padrão (10%)
+    static CalculadoraPedidoService calculadora() {
+        MotorPromocoes motor = injetar(new MotorPromocoes(), "descontoVip", BigDecimal.TEN);
+        motor.iniciar();
+        return injetar(new CalculadoraPedidoService(), "motorPromocoes", motor);
+    }
+
+    //os serviços usam @Autowired em campo; fora do Spring a dependência é colocada por reflexão
+    static <T> T injetar(T alvo, String campo, Object valor) {
+        try {
+            Field field = alvo.getClass().getDeclaredField(campo);
+            field.setAccessible(true);
+            field.set(alvo, valor);
+            return alvo;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível injetar " + campo + " em " + alvo.getClass(), e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.klok.desafio.benchmarks;
+
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.repositories.ProdutoRepository;
+import com.klok.desafio.services.cliente.ClienteService;
+import com.klok.desafio.services.item.utils.ItemValidator;
+import com.klok.desafio.services.notificacao.NotificacaoOutboxService;
+import com.klok.desafio.services.pedido.etapas.*;
+import com.klok.desafio.services.pedido.utils.EstoqueService;
+import com.klok.desafio.services.pedido.utils.PedidoValidator;
+import com.klok.desafio.services.pedido.utils.ProcessarPedidoService;
+import com.klok.desafio.services.produto.ProdutoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Mede o processamento completo de um pedido pelas etapas (validação, cliente, produtos, cálculo, estoque e e-mail).
+//Cliente, catálogo, UPDATE de estoque e outbox são substituídos por implementações em memória, então o custo de
+//I/O fica de fora
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessarPedidoBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int tamanho;
+
+    private ProcessarPedidoService processarPedidoService;
+
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() {
+        pedido = Pedidos.comItens(tamanho);
+        Cliente cliente = pedido.getCliente();
+        Map<Long, Produto> catalogo = new HashMap<>();
+        for (Item item : pedido.getItens()) {
+            catalogo.put(item.getProdutoId(), item.getProduto());
+        }
+
+        ItemValidator itemValidator = new ItemValidator();
+        PedidoValidator pedidoValidator = Pedidos.injetar(new PedidoValidator(), "itemValidator", itemValidator);
+        EstoqueService estoqueService = Pedidos.injetar(new EstoqueService(), "produtoRepository",
+                emMemoria(ProdutoRepository.class, "debitarEstoque", 1));
+
+        ValidacaoEtapa validacao = Pedidos.injetar(new ValidacaoEtapa(), "pedidoValidator", pedidoValidator);
+        Pedidos.injetar(validacao, "itemValidator", itemValidator);
+        ClienteEtapa clienteEtapa = Pedidos.injetar(new ClienteEtapa(), "clienteService",
+                emMemoria(ClienteService.class, "buscarPorId", cliente));
+        ProdutosEtapa produtos = Pedidos.injetar(new ProdutosEtapa(), "produtoService",
+                emMemoria(ProdutoService.class, "buscarPorIds", catalogo));
+        Pedidos.injetar(produtos, "itemValidator", itemValidator);
+        CalculoEtapa calculo = Pedidos.injetar(new CalculoEtapa(), "calculadoraPedidoService", Pedidos.calculadora());
+        Pedidos.injetar(calculo, "pedidoValidator", pedidoValidator);
+        EstoqueEtapa estoque = Pedidos.injetar(new EstoqueEtapa(), "estoqueService", estoqueService);
+        NotificacaoEtapa notificacao = Pedidos.injetar(new NotificacaoEtapa(), "notificacaoOutboxService",
+                emMemoria(NotificacaoOutboxService.class, "registrar", null));
+
+        processarPedidoService = Pedidos.injetar(new ProcessarPedidoService(), "etapas",
+                List.<EtapaPedido>of(validacao, clienteEtapa, produtos, calculo, estoque, notificacao));
+        Pedidos.injetar(processarPedidoService, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Pedido processarPedido() {
+        processarPedidoService.processarPedido(pedido);
+        return pedido;
+    }
+
+    //implementação de uma interface que responde só a um método; os demais retornam null
+    @SuppressWarnings("unchecked")
+    private static <T> T emMemoria(Class<T> tipo, String metodo, Object retorno) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, chamado, argumentos) -> chamado.getName().equals(metodo) ? retorno : null);
+    }
+}
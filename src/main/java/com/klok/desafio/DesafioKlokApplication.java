@@ -2,8 +2,10 @@ package com.klok.desafio;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DesafioKlokApplication {
 
 	public static void main(String[] args) {
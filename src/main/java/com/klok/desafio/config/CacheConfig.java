@@ -0,0 +1,17 @@
+package com.klok.desafio.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+//Os caches são Caffeine, limitados por tamanho e por tempo; nomes e spec ficam em application.properties
+//(spring.cache.*). O recordStats da spec publica acertos e faltas em /actuator/metrics/cache.gets.
+//O cache fica por fora da transação: um acerto não abre transação nem pega conexão, e o @CacheEvict só roda depois
+//do commit
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String CACHE_CLIENTES = "clientes";
+    public static final String CACHE_IDEMPOTENCIA = "idempotencia";
+}
@@ -0,0 +1,66 @@
+package com.klok.desafio.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+//GET condicional dos recursos por ID: a ETag é a versão (@Version) da entidade, lida antes do recurso para que um
+//If-None-Match que ainda vale seja respondido com 304 sem carregar nem serializar nada
+@Component
+public class CacheHttp {
+
+    //0 obriga o cliente a revalidar a cada uso; acima disso ele reaproveita a cópia sem perguntar por esse tempo
+    @Value("${http.cache.max-age:0s}")
+    private Duration maxAge;
+
+    public boolean naoModificado(String ifNoneMatch, String versao) {
+        return ifNoneMatch != null && corresponde(ifNoneMatch, etag(versao));
+    }
+
+    public <T> ResponseEntity<T> respostaNaoModificada(String versao) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag(versao))
+                .cacheControl(cacheControl())
+                .build();
+    }
+
+    public <T> ResponseEntity<T> resposta(String versao, T corpo) {
+        return ResponseEntity.ok()
+                .eTag(etag(versao))
+                .cacheControl(cacheControl())
+                .body(corpo);
+    }
+
+    //privado: os recursos são do cliente da API e não devem ficar em caches compartilhados
+    CacheControl cacheControl() {
+        if (maxAge.isZero() || maxAge.isNegative()) {
+            return CacheControl.noCache().cachePrivate();
+        }
+        return CacheControl.maxAge(maxAge).cachePrivate().mustRevalidate();
+    }
+
+    static String etag(String versao) {
+        return "\"" + versao + "\"";
+    }
+
+    //If-None-Match usa a comparação fraca: W/"1" corresponde a "1"; "*" corresponde a qualquer versão
+    static boolean corresponde(String ifNoneMatch, String etag) {
+        for (String candidata : ifNoneMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.equals("*")) {
+                return true;
+            }
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.klok.desafio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+//Só entra em ação com spring.datasource.replica.jdbc-url configurada; sem ela a aplicação usa o DataSource único
+//do Spring Boot. Transações somente leitura (@Transactional(readOnly = true)) vão para a réplica e o resto para
+//a primária. O proxy lazy adia a escolha da conexão até o primeiro comando SQL, quando a transação já marcou a
+//conexão como read-only. Os dois pools publicam hikaricp.* com as tags pool=primaria e pool=replica
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "jdbc-url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(@Qualifier("replicaDataSource") DataSource replica,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${replica.atraso-maximo:5s}") Duration atrasoMaximo,
+                                         @Value("${replica.consulta-atraso:" + MonitorReplica.CONSULTA_ATRASO_POSTGRES + "}")
+                                         String consultaAtraso) {
+        return new MonitorReplica(replica, meterRegistry, atrasoMaximo, consultaAtraso);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primariaDataSource") DataSource primaria,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 MonitorReplica monitorReplica, MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy roteador = new LazyConnectionDataSourceProxy(primaria);
+        roteador.setReadOnlyDataSource(new ReplicaDataSource(replica, primaria, monitorReplica, meterRegistry));
+        return roteador;
+    }
+}
@@ -0,0 +1,46 @@
+package com.klok.desafio.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+//Taxa de acerto de cada região do cache de segundo nível (acertos / consultas ao cache desde a subida), como
+//hibernate.cache.segundo.nivel.taxa.acerto{regiao}. Os contadores de acertos, faltas e inclusões por região já
+//saem do hibernate-micrometer como hibernate.second.level.cache.requests e hibernate.second.level.cache.puts
+@Component
+@ConditionalOnProperty(name = "persistencia.cache.ativo", havingValue = "true")
+public class MetricasCacheSegundoNivel {
+
+    static final String METRICA_TAXA_ACERTO = "hibernate.cache.segundo.nivel.taxa.acerto";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registrar() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String regiao : estatisticas.getSecondLevelCacheRegionNames()) {
+            Gauge.builder(METRICA_TAXA_ACERTO, estatisticas, e -> taxaAcerto(e.getCacheRegionStatistics(regiao)))
+                    .tag("regiao", regiao)
+                    .register(meterRegistry);
+        }
+    }
+
+    static double taxaAcerto(CacheRegionStatistics regiao) {
+        if (regiao == null) {
+            return 0;
+        }
+        long consultas = regiao.getHitCount() + regiao.getMissCount();
+        return consultas == 0 ? 0 : (double) regiao.getHitCount() / consultas;
+    }
+}
@@ -0,0 +1,81 @@
+package com.klok.desafio.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+//Acompanha o atraso de replicação da réplica: acima de replica.atraso-maximo, ou com a réplica fora do ar, as
+//leituras voltam para a primária até a próxima verificação que encontrar a réplica em dia
+public class MonitorReplica {
+
+    //sem WAL pendente de aplicar a réplica está em dia, mesmo que a última transação replicada seja antiga
+    //(primária ociosa); caso contrário, o atraso é o tempo desde a última transação aplicada
+    public static final String CONSULTA_ATRASO_POSTGRES = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private final DataSource replica;
+    private final Duration atrasoMaximo;
+    private final String consultaAtraso;
+
+    private volatile boolean disponivel = true;
+    private volatile double atrasoSegundos;
+
+    public MonitorReplica(DataSource replica, MeterRegistry meterRegistry, Duration atrasoMaximo,
+                          String consultaAtraso) {
+        this.replica = replica;
+        this.atrasoMaximo = atrasoMaximo;
+        this.consultaAtraso = consultaAtraso;
+        Gauge.builder("datasource.replica.atraso", this, monitor -> monitor.atrasoSegundos)
+                .description("Atraso de replicação medido na última verificação")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.disponivel", this, monitor -> monitor.disponivel ? 1 : 0)
+                .description("1 quando as leituras estão indo para a réplica, 0 quando voltaram para a primária")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${replica.verificacao-ms:5000}")
+    public void verificar() {
+        try (Connection conexao = replica.getConnection();
+             Statement comando = conexao.createStatement();
+             ResultSet resultado = comando.executeQuery(consultaAtraso)) {
+            resultado.next();
+            atrasoSegundos = resultado.getDouble(1);
+            atualizar(atrasoSegundos * 1000 <= atrasoMaximo.toMillis(), "atraso de " + atrasoSegundos + "s");
+        } catch (SQLException e) {
+            atualizar(false, e.getMessage());
+        }
+    }
+
+    //falha ao pegar conexão da réplica fora da verificação: tira a réplica de uso até a próxima verificação
+    public void registrarFalha(SQLException e) {
+        atualizar(false, e.getMessage());
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    private void atualizar(boolean disponivelAgora, String motivo) {
+        if (disponivel != disponivelAgora) {
+            if (disponivelAgora) {
+                log.info("Réplica de volta em uso ({})", motivo);
+            } else {
+                log.warn("Leituras desviadas para a primária: {}", motivo);
+            }
+        }
+        disponivel = disponivelAgora;
+    }
+}
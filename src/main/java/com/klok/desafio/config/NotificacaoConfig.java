@@ -0,0 +1,54 @@
+package com.klok.desafio.config;
+
+import com.klok.desafio.services.notificacao.PoolConexoesSmtp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.mail.Session;
+import java.time.Duration;
+import java.util.Properties;
+
+@Configuration
+public class NotificacaoConfig {
+
+    @Value("${email.usuario}")
+    private String usuario;
+
+    @Value("${email.senha}")
+    private String senha;
+
+    @Value("${email.smtp.host:smtp.gmail.com}")
+    private String host;
+
+    @Value("${email.smtp.porta:587}")
+    private int porta;
+
+    @Value("${email.smtp.timeout:10s}")
+    private Duration timeout;
+
+    @Value("${email.smtp.pool.tamanho-maximo:8}")
+    private int tamanhoMaximo;
+
+    @Value("${email.smtp.pool.tempo-espera:30s}")
+    private Duration tempoEspera;
+
+    @Value("${email.smtp.pool.tempo-ocioso-maximo:60s}")
+    private Duration tempoOciosoMaximo;
+
+    @Bean(destroyMethod = "close")
+    public PoolConexoesSmtp poolConexoesSmtp() {
+        Properties propriedades = new Properties();
+        propriedades.put("mail.smtp.auth", "true");
+        propriedades.put("mail.smtp.starttls.enable", "true");
+        propriedades.put("mail.smtp.starttls.required", "true");
+        propriedades.put("mail.smtp.connectiontimeout", String.valueOf(timeout.toMillis()));
+        propriedades.put("mail.smtp.timeout", String.valueOf(timeout.toMillis()));
+        propriedades.put("mail.smtp.writetimeout", String.valueOf(timeout.toMillis()));
+
+        //a Session é thread-safe e compartilhada; cada envio cria a sua própria MimeMessage
+        Session session = Session.getInstance(propriedades);
+        return new PoolConexoesSmtp(session, host, porta, usuario, senha, tamanhoMaximo, tempoEspera,
+                tempoOciosoMaximo);
+    }
+}
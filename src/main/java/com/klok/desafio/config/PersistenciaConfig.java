@@ -0,0 +1,87 @@
+package com.klok.desafio.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(PersistenciaProperties.class)
+public class PersistenciaConfig {
+
+    //vale para todo pool do Hikari da aplicação (o único do Spring Boot ou primária e réplica do DataSourceConfig),
+    //depois do bind de spring.datasource.*: persistencia.pool.* tem a palavra final. As propriedades são buscadas só
+    //quando o primeiro pool aparece, depois que o bind de @ConfigurationProperties já está registrado
+    @Bean
+    public static BeanPostProcessor ajustarPoolsHikari(ObjectProvider<PersistenciaProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nome) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    ajustarPool(dataSource, properties.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer ajustarHibernate(PersistenciaProperties properties) {
+        PersistenciaProperties.Hibernate hibernate = properties.getHibernate();
+        return propriedades -> {
+            propriedades.put(AvailableSettings.STATEMENT_BATCH_SIZE, hibernate.getTamanhoBatch());
+            propriedades.put(AvailableSettings.ORDER_INSERTS, hibernate.isOrdenarInserts());
+            propriedades.put(AvailableSettings.ORDER_UPDATES, hibernate.isOrdenarUpdates());
+            propriedades.put(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, hibernate.getTamanhoFetchEmLote());
+            propriedades.put(AvailableSettings.SHOW_SQL, hibernate.isLogSql());
+            propriedades.put(AvailableSettings.FORMAT_SQL, hibernate.isLogSql());
+            ajustarCache(propriedades, properties.getCache());
+        };
+    }
+
+    //região sem configuração no arquivo é erro ao subir (missing_cache_strategy=fail), e não um cache sem limite
+    //criado em silêncio
+    static void ajustarCache(Map<String, Object> propriedades, PersistenciaProperties.Cache cache) {
+        propriedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cache.isAtivo());
+        propriedades.put(AvailableSettings.USE_QUERY_CACHE, cache.isAtivo() && cache.isConsultas());
+        if (cache.isAtivo()) {
+            propriedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propriedades.put(ConfigSettings.PROVIDER, CaffeineCachingProvider.class.getName());
+            propriedades.put(ConfigSettings.CONFIG_URI, cache.getConfiguracao());
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        }
+    }
+
+    static void ajustarPool(HikariDataSource dataSource, PersistenciaProperties properties) {
+        PersistenciaProperties.Pool pool = properties.getPool();
+        dataSource.setMaximumPoolSize(pool.getTamanhoMaximo());
+        dataSource.setMinimumIdle(pool.getMinimoOcioso() != null ? pool.getMinimoOcioso() : pool.getTamanhoMaximo());
+        //o pool da réplica é o único somente leitura (DataSourceConfig)
+        Duration tempoEspera = dataSource.isReadOnly() ? pool.getTempoEsperaConexaoReplica()
+                : pool.getTempoEsperaConexao();
+        dataSource.setConnectionTimeout(tempoEspera.toMillis());
+        dataSource.setIdleTimeout(pool.getTempoOcioso().toMillis());
+        dataSource.setMaxLifetime(pool.getTempoVidaMaximo().toMillis());
+        dataSource.setKeepaliveTime(pool.getKeepalive().toMillis());
+        dataSource.setLeakDetectionThreshold(pool.getDeteccaoVazamento().toMillis());
+
+        if (dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith("jdbc:postgresql:")) {
+            PersistenciaProperties.Driver driver = properties.getDriver();
+            dataSource.addDataSourceProperty("prepareThreshold", driver.getPrepareThreshold());
+            dataSource.addDataSourceProperty("preparedStatementCacheQueries",
+                    driver.getPreparedStatementCacheQueries());
+            dataSource.addDataSourceProperty("preparedStatementCacheSizeMiB",
+                    driver.getPreparedStatementCacheMib());
+            dataSource.addDataSourceProperty("reWriteBatchedInserts", driver.isReWriteBatchedInserts());
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.klok.desafio.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+//Ajustes de persistência (persistencia.* em application*.properties): pool do Hikari, driver do PostgreSQL e
+//Hibernate. Aplicados pelo PersistenciaConfig e listados no log ao subir a aplicação (RelatorioPersistencia)
+@ConfigurationProperties(prefix = "persistencia")
+public class PersistenciaProperties {
+
+    private final Pool pool = new Pool();
+    private final Driver driver = new Driver();
+    private final Hibernate hibernate = new Hibernate();
+    private final Cache cache = new Cache();
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Driver getDriver() {
+        return driver;
+    }
+
+    public Hibernate getHibernate() {
+        return hibernate;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class Pool {
+
+        //pool fixo (mínimo ocioso = máximo): sem criar conexões no meio de um pico
+        private int tamanhoMaximo = 10;
+        private Integer minimoOcioso;
+        //espera curta por conexão: com o pool esgotado é melhor falhar rápido do que enfileirar requisições
+        private Duration tempoEsperaConexao = Duration.ofSeconds(5);
+        //a réplica fora do ar precisa falhar logo para a leitura cair na primária (ReplicaDataSource)
+        private Duration tempoEsperaConexaoReplica = Duration.ofSeconds(2);
+        private Duration tempoOcioso = Duration.ofMinutes(10);
+        //abaixo do timeout de conexões ociosas do banco/proxy, para o Hikari renovar antes de o servidor cortar
+        private Duration tempoVidaMaximo = Duration.ofMinutes(30);
+        private Duration keepalive = Duration.ofMinutes(2);
+        //0 desliga; com valor, registra no log a pilha de quem segurou uma conexão por mais tempo que isso
+        private Duration deteccaoVazamento = Duration.ZERO;
+
+        public int getTamanhoMaximo() {
+            return tamanhoMaximo;
+        }
+
+        public void setTamanhoMaximo(int tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+
+        public Integer getMinimoOcioso() {
+            return minimoOcioso;
+        }
+
+        public void setMinimoOcioso(Integer minimoOcioso) {
+            this.minimoOcioso = minimoOcioso;
+        }
+
+        public Duration getTempoEsperaConexao() {
+            return tempoEsperaConexao;
+        }
+
+        public void setTempoEsperaConexao(Duration tempoEsperaConexao) {
+            this.tempoEsperaConexao = tempoEsperaConexao;
+        }
+
+        public Duration getTempoEsperaConexaoReplica() {
+            return tempoEsperaConexaoReplica;
+        }
+
+        public void setTempoEsperaConexaoReplica(Duration tempoEsperaConexaoReplica) {
+            this.tempoEsperaConexaoReplica = tempoEsperaConexaoReplica;
+        }
+
+        public Duration getTempoOcioso() {
+            return tempoOcioso;
+        }
+
+        public void setTempoOcioso(Duration tempoOcioso) {
+            this.tempoOcioso = tempoOcioso;
+        }
+
+        public Duration getTempoVidaMaximo() {
+            return tempoVidaMaximo;
+        }
+
+        public void setTempoVidaMaximo(Duration tempoVidaMaximo) {
+            this.tempoVidaMaximo = tempoVidaMaximo;
+        }
+
+        public Duration getKeepalive() {
+            return keepalive;
+        }
+
+        public void setKeepalive(Duration keepalive) {
+            this.keepalive = keepalive;
+        }
+
+        public Duration getDeteccaoVazamento() {
+            return deteccaoVazamento;
+        }
+
+        public void setDeteccaoVazamento(Duration deteccaoVazamento) {
+            this.deteccaoVazamento = deteccaoVazamento;
+        }
+    }
+
+    //propriedades do pgjdbc, aplicadas só a pools com URL jdbc:postgresql:
+    public static class Driver {
+
+        //execuções do mesmo PreparedStatement antes de o driver passar a usar um statement preparado no servidor
+        private int prepareThreshold = 5;
+        private int preparedStatementCacheQueries = 256;
+        private int preparedStatementCacheMib = 5;
+        //reescreve o batch de INSERTs em INSERTs com várias linhas: menos idas e voltas ao banco por batch
+        private boolean reWriteBatchedInserts = true;
+
+        public int getPrepareThreshold() {
+            return prepareThreshold;
+        }
+
+        public void setPrepareThreshold(int prepareThreshold) {
+            this.prepareThreshold = prepareThreshold;
+        }
+
+        public int getPreparedStatementCacheQueries() {
+            return preparedStatementCacheQueries;
+        }
+
+        public void setPreparedStatementCacheQueries(int preparedStatementCacheQueries) {
+            this.preparedStatementCacheQueries = preparedStatementCacheQueries;
+        }
+
+        public int getPreparedStatementCacheMib() {
+            return preparedStatementCacheMib;
+        }
+
+        public void setPreparedStatementCacheMib(int preparedStatementCacheMib) {
+            this.preparedStatementCacheMib = preparedStatementCacheMib;
+        }
+
+        public boolean isReWriteBatchedInserts() {
+            return reWriteBatchedInserts;
+        }
+
+        public void setReWriteBatchedInserts(boolean reWriteBatchedInserts) {
+            this.reWriteBatchedInserts = reWriteBatchedInserts;
+        }
+    }
+
+    public static class Hibernate {
+
+        //múltiplo do allocationSize (50) das sequences: um batch cheio usa IDs de um único bloco
+        private int tamanhoBatch = 50;
+        private boolean ordenarInserts = true;
+        private boolean ordenarUpdates = true;
+        //associações LAZY carregadas em lote quando acessadas (evita N+1)
+        private int tamanhoFetchEmLote = 100;
+        private boolean logSql = false;
+
+        public int getTamanhoBatch() {
+            return tamanhoBatch;
+        }
+
+        public void setTamanhoBatch(int tamanhoBatch) {
+            this.tamanhoBatch = tamanhoBatch;
+        }
+
+        public boolean isOrdenarInserts() {
+            return ordenarInserts;
+        }
+
+        public void setOrdenarInserts(boolean ordenarInserts) {
+            this.ordenarInserts = ordenarInserts;
+        }
+
+        public boolean isOrdenarUpdates() {
+            return ordenarUpdates;
+        }
+
+        public void setOrdenarUpdates(boolean ordenarUpdates) {
+            this.ordenarUpdates = ordenarUpdates;
+        }
+
+        public int getTamanhoFetchEmLote() {
+            return tamanhoFetchEmLote;
+        }
+
+        public void setTamanhoFetchEmLote(int tamanhoFetchEmLote) {
+            this.tamanhoFetchEmLote = tamanhoFetchEmLote;
+        }
+
+        public boolean isLogSql() {
+            return logSql;
+        }
+
+        public void setLogSql(boolean logSql) {
+            this.logSql = logSql;
+        }
+    }
+
+    //cache de segundo nível do Hibernate para Cliente, Pedido e Item, em memória em cada instância (Caffeine via
+    //JCache). Desligado por padrão; regiões, tamanhos e expiração ficam em cache-segundo-nivel.conf
+    public static class Cache {
+
+        private boolean ativo = false;
+        //cache de resultados de consultas marcadas como cacheáveis; só vale com o cache de segundo nível ativo
+        private boolean consultas = false;
+        private String configuracao = "cache-segundo-nivel.conf";
+
+        public boolean isAtivo() {
+            return ativo;
+        }
+
+        public void setAtivo(boolean ativo) {
+            this.ativo = ativo;
+        }
+
+        public boolean isConsultas() {
+            return consultas;
+        }
+
+        public void setConsultas(boolean consultas) {
+            this.consultas = consultas;
+        }
+
+        public String getConfiguracao() {
+            return configuracao;
+        }
+
+        public void setConfiguracao(String configuracao) {
+            this.configuracao = configuracao;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.klok.desafio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Lista no log, ao subir a aplicação, os ajustes de persistência em vigor: o que foi lido dos pools e do Hibernate
+//depois de aplicados todos os perfis, e não o que está nos arquivos de propriedades
+@Component
+public class RelatorioPersistencia {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatorioPersistencia.class);
+
+    private static final List<String> PROPRIEDADES_DRIVER = List.of("prepareThreshold",
+            "preparedStatementCacheQueries", "preparedStatementCacheSizeMiB", "reWriteBatchedInserts");
+    private static final List<String> PROPRIEDADES_HIBERNATE = List.of(AvailableSettings.STATEMENT_BATCH_SIZE,
+            AvailableSettings.ORDER_INSERTS, AvailableSettings.ORDER_UPDATES,
+            AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, AvailableSettings.SHOW_SQL, AvailableSettings.FORMAT_SQL,
+            AvailableSettings.HBM2DDL_AUTO, AvailableSettings.USE_SECOND_LEVEL_CACHE,
+            AvailableSettings.USE_QUERY_CACHE);
+
+    //os pools podem estar atrás de proxies (roteamento para a réplica): cada DataSource é desembrulhado até o Hikari
+    @Autowired
+    private List<DataSource> dataSources;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registrar() {
+        Set<HikariDataSource> pools = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DataSource dataSource : dataSources) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    pools.add(dataSource.unwrap(HikariDataSource.class));
+                }
+            } catch (SQLException e) {
+                log.warn("Não foi possível identificar o pool de {}", dataSource, e);
+            }
+        }
+        for (HikariDataSource pool : pools) {
+            log.info("Pool {}: {}", pool.getPoolName(), descreverPool(pool));
+        }
+        log.info("Hibernate: {}", descreverHibernate(entityManagerFactory.getProperties()));
+    }
+
+    static String descreverPool(HikariDataSource pool) {
+        StringBuilder descricao = new StringBuilder()
+                .append("url=").append(pool.getJdbcUrl())
+                .append(", somenteLeitura=").append(pool.isReadOnly())
+                .append(", tamanhoMaximo=").append(pool.getMaximumPoolSize())
+                .append(", minimoOcioso=").append(pool.getMinimumIdle())
+                .append(", tempoEsperaConexao=").append(pool.getConnectionTimeout()).append("ms")
+                .append(", tempoOcioso=").append(pool.getIdleTimeout()).append("ms")
+                .append(", tempoVidaMaximo=").append(pool.getMaxLifetime()).append("ms")
+                .append(", keepalive=").append(pool.getKeepaliveTime()).append("ms")
+                .append(", deteccaoVazamento=").append(pool.getLeakDetectionThreshold()).append("ms");
+        for (String propriedade : PROPRIEDADES_DRIVER) {
+            Object valor = pool.getDataSourceProperties().get(propriedade);
+            if (valor != null) {
+                descricao.append(", ").append(propriedade).append('=').append(valor);
+            }
+        }
+        return descricao.toString();
+    }
+
+    static String descreverHibernate(Map<String, Object> propriedades) {
+        StringBuilder descricao = new StringBuilder();
+        for (String propriedade : PROPRIEDADES_HIBERNATE) {
+            if (!descricao.isEmpty()) {
+                descricao.append(", ");
+            }
+            descricao.append(propriedade).append('=').append(propriedades.getOrDefault(propriedade, "padrão"));
+        }
+        return descricao.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.klok.desafio.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+//Destino das conexões somente leitura: a réplica enquanto o MonitorReplica a considera em dia, senão a primária.
+//datasource.roteamento conta as conexões de leitura entregues por destino
+public class ReplicaDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+    private final DataSource primaria;
+    private final MonitorReplica monitor;
+    private final Counter leiturasReplica;
+    private final Counter leiturasPrimaria;
+
+    public ReplicaDataSource(DataSource replica, DataSource primaria, MonitorReplica monitor,
+                             MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.primaria = primaria;
+        this.monitor = monitor;
+        this.leiturasReplica = contador(meterRegistry, "replica");
+        this.leiturasPrimaria = contador(meterRegistry, "primaria");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conectar(DataSource::getConnection);
+    }
+
+    //mesmo roteamento, com as credenciais repassadas ao pool escolhido
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conectar(destino -> destino.getConnection(username, password));
+    }
+
+    private Connection conectar(Conexao conexao) throws SQLException {
+        if (monitor.isDisponivel()) {
+            try {
+                Connection conectada = conexao.abrir(replica);
+                leiturasReplica.increment();
+                return conectada;
+            } catch (SQLException e) {
+                monitor.registrarFalha(e);
+            }
+        }
+        leiturasPrimaria.increment();
+        return conexao.abrir(primaria);
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String destino) {
+        return Counter.builder("datasource.roteamento")
+                .description("Conexões de transações somente leitura por destino")
+                .tag("destino", destino)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface Conexao {
+        Connection abrir(DataSource destino) throws SQLException;
+    }
+}
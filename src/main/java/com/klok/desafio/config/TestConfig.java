@@ -44,8 +44,8 @@ public class TestConfig implements CommandLineRunner {
         Cliente cliente = clienteService.buscarPorId(Long.valueOf(1));
 
         // Criação de itens
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50.00), 2, 100, null);
-        Item item2 = new Item("Produto B", BigDecimal.valueOf(30.00), 1, 50, null);
+        Item item1 = new Item(produtoService.buscarPorId(1L), 2, null);
+        Item item2 = new Item(produtoService.buscarPorId(2L), 1, null);
 
 
         // Criação de um pedido
@@ -1,20 +1,27 @@
 package com.klok.desafio.controllers;
 
+import com.klok.desafio.config.CacheHttp;
+import com.klok.desafio.dto.FiltroPedido;
+import com.klok.desafio.dto.Pagina;
 import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.ResumoCliente;
 import com.klok.desafio.exceptions.StandardError;
 import com.klok.desafio.services.cliente.ClienteService;
+import com.klok.desafio.services.cliente.ResumoClienteService;
+import com.klok.desafio.services.pedido.PedidoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping(value="/clientes")
@@ -23,35 +30,97 @@ public class ClienteController {
     @Autowired
     private ClienteService clienteService;
 
-    @Operation(summary = "Listar todos os clientes",
-            description = "Retorna uma lista com todos os clientes cadastrados.")
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ResumoClienteService resumoClienteService;
+
+    @Autowired
+    private CacheHttp cacheHttp;
+
+    @Operation(summary = "Listar clientes",
+            description = "Retorna uma página de clientes ordenados por ID, opcionalmente filtrados por VIP. " +
+                    "Para buscar a próxima página, envie o proximoCursor retornado no parâmetro cursor.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso",
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Cliente.class))),
+                            schema = @Schema(implementation = Pagina.class))),
             @ApiResponse(responseCode = "400", description = "Nenhum cliente encontrado.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
     @GetMapping()
-    public ResponseEntity<List<Cliente>> listarClientes() {
-        return ResponseEntity.ok(clienteService.listarClientes());
+    public ResponseEntity<Pagina<Cliente>> listarClientes(@RequestParam(required = false) Boolean vip,
+                                                          @RequestParam(required = false) Long cursor,
+                                                          @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(clienteService.listarClientes(vip, cursor, limite));
     }
 
     @Operation(summary = "Buscar cliente por ID",
-            description = "Busca e retorna um cliente específico com base no ID informado.")
+            description = "Busca e retorna um cliente específico com base no ID informado. A resposta traz uma " +
+                    "ETag com a versão do cliente; envie-a em If-None-Match para receber 304 enquanto o cliente " +
+                    "não mudar.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cliente encontrado com sucesso",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Cliente.class))),
+            @ApiResponse(responseCode = "304", description = "O cliente não mudou desde a versão enviada em If-None-Match.",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado para o ID informado.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Cliente> buscarPorId(@PathVariable Long id) throws Exception {
+    public ResponseEntity<Cliente> buscarPorId(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        //o cliente vem do cache de clientes, então a versão já está em memória e o 304 não vai ao banco
+        Cliente cliente = clienteService.buscarPorId(id);
+        String versao = String.valueOf(cliente.getVersao());
+        if (cacheHttp.naoModificado(ifNoneMatch, versao)) {
+            return cacheHttp.respostaNaoModificada(versao);
+        }
+        return cacheHttp.resposta(versao, cliente);
+    }
+
+    @Operation(summary = "Listar pedidos de um cliente",
+            description = "Retorna uma página dos pedidos do cliente ordenados por ID. Para buscar a próxima " +
+                    "página, envie o proximoCursor retornado no parâmetro cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Pagina.class))),
+            @ApiResponse(responseCode = "404", description = "Cliente não encontrado para o ID informado.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "400", description = "Nenhum pedido encontrado.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping("/{id}/pedidos")
+    public ResponseEntity<Pagina<Pedido>> listarPedidos(@PathVariable Long id,
+                                                        @RequestParam(required = false) Long cursor,
+                                                        @RequestParam(required = false) Integer limite) {
+        clienteService.buscarPorId(id);
+        FiltroPedido filtro = new FiltroPedido(id, null, null, null);
+        return ResponseEntity.ok(pedidoService.listarPedidos(filtro, cursor, limite));
+    }
 
-        return ResponseEntity.ok().body(clienteService.buscarPorId(id));
+    @Operation(summary = "Resumo dos pedidos de um cliente",
+            description = "Retorna a quantidade de pedidos, a soma dos totais (com e sem desconto) e a data de " +
+                    "entrega mais recente do cliente, mantidos a cada pedido gravado, alterado ou excluído.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumo encontrado com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResumoCliente.class))),
+            @ApiResponse(responseCode = "404", description = "Cliente não encontrado para o ID informado.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping("/{id}/resumo")
+    public ResponseEntity<ResumoCliente> buscarResumo(@PathVariable Long id) {
+        return ResponseEntity.ok(resumoClienteService.buscarPorCliente(id));
     }
 
 
@@ -100,6 +169,9 @@ public class ClienteController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "400", description = "Erro de validação ao atualizar o cliente.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "409", description = "O cliente foi alterado por outra requisição durante a atualização.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
@@ -1,5 +1,7 @@
 package com.klok.desafio.controllers;
 
+import com.klok.desafio.config.CacheHttp;
+import com.klok.desafio.dto.Pagina;
 import com.klok.desafio.entities.Item;
 import com.klok.desafio.exceptions.StandardError;
 import com.klok.desafio.services.item.ItemService;
@@ -9,12 +11,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping(value = "/itens")
@@ -23,34 +25,53 @@ public class ItemController {
     @Autowired
     private ItemService itemService;
 
-    @Operation(summary = "Listar todos os itens",
-            description = "Retorna uma lista contendo todos os itens cadastrados no sistema.")
+    @Autowired
+    private CacheHttp cacheHttp;
+
+    @Operation(summary = "Listar itens",
+            description = "Retorna uma página de itens ordenados por ID, opcionalmente filtrados por pedido. " +
+                    "Para buscar a próxima página, envie o proximoCursor retornado no parâmetro cursor.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso",
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Item.class))),
+                            schema = @Schema(implementation = Pagina.class))),
             @ApiResponse(responseCode = "400", description = "Nenhum item encontrado.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
     @GetMapping
-    public ResponseEntity<List<Item>> listarItems() {
-        return ResponseEntity.ok(itemService.listarItens());
+    public ResponseEntity<Pagina<Item>> listarItems(@RequestParam(required = false) Long pedidoId,
+                                                    @RequestParam(required = false) Long cursor,
+                                                    @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(itemService.listarItens(pedidoId, cursor, limite));
     }
 
     @Operation(summary = "Buscar item por ID",
-            description = "Busca e retorna um item específico com base no ID informado.")
+            description = "Busca e retorna um item específico com base no ID informado. A resposta traz uma " +
+                    "ETag com a versão do item; envie-a em If-None-Match para receber 304 enquanto o item não " +
+                    "mudar.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Item encontrado com sucesso",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Item.class))),
+            @ApiResponse(responseCode = "304", description = "O item não mudou desde a versão enviada em If-None-Match.",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Item não encontrado para o ID informado.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Item> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok().body(itemService.buscarItemPorId(id));
+    public ResponseEntity<Item> buscarPorId(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                            String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String versao = String.valueOf(itemService.buscarVersao(id));
+            if (cacheHttp.naoModificado(ifNoneMatch, versao)) {
+                return cacheHttp.respostaNaoModificada(versao);
+            }
+        }
+        Item item = itemService.buscarItemPorId(id);
+        return cacheHttp.resposta(String.valueOf(item.getVersao()), item);
     }
 
     @Operation(summary = "Salvar um novo item",
@@ -72,9 +93,13 @@ public class ItemController {
     }
 
     @Operation(summary = "Excluir item por ID",
-            description = "Exclui um item do sistema, garantindo que ele seja removido de pedidos associados.")
+            description = "Exclui um item do sistema, garantindo que ele seja removido de pedidos associados. O " +
+                    "estoque do item volta ao produto e os totais do pedido são recalculados com os itens restantes.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Item excluído com sucesso"),
+            @ApiResponse(responseCode = "400", description = "O item é o último do pedido.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "404", description = "Item não encontrado para o ID informado.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
@@ -84,20 +109,4 @@ public class ItemController {
         itemService.excluirItem(id);
         return ResponseEntity.noContent().build();
     }
-
-    @Operation(summary = "Atualizar item por ID",
-            description = "Atualiza um item específico no sistema com base no ID informado e nos dados enviados.")
-    @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Item atualizado com sucesso",
-                    content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Item.class))),
-            @ApiResponse(responseCode = "404", description = "Item não encontrado para o ID informado.",
-                    content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = StandardError.class)))
-    })
-    @PutMapping("/{id}")
-    public ResponseEntity<Item> atualizar(@PathVariable Long id, @RequestBody Item item) {
-        item = itemService.atualizarItem(id, item);
-        return ResponseEntity.ok().body(item);
-    }
 }
\ No newline at end of file
@@ -1,17 +1,30 @@
 package com.klok.desafio.controllers;
 
+import com.klok.desafio.config.CacheHttp;
+import com.klok.desafio.dto.FiltroPedido;
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.dto.RespostaIdempotente;
+import com.klok.desafio.dto.ResultadoPedidoLote;
+import com.klok.desafio.dto.VersaoPedido;
 import com.klok.desafio.entities.Pedido;
 import com.klok.desafio.exceptions.StandardError;
 import com.klok.desafio.services.pedido.PedidoService;
+import com.klok.desafio.services.pedido.exportacao.FormatoExportacao;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
 import java.net.URI;
 import java.util.List;
@@ -20,55 +33,153 @@ import java.util.List;
 @RequestMapping(value = "/pedidos")
 public class PedidoController {
 
+    static final String CABECALHO_IDEMPOTENCIA = "Idempotency-Key";
+    static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
     @Autowired
     private PedidoService pedidoService;
 
-    @Operation(summary = "Listar todos os pedidos",
-            description = "Retorna uma lista contendo todos os pedidos cadastrados no sistema.")
+    @Autowired
+    private CacheHttp cacheHttp;
+
+    @Operation(summary = "Listar pedidos",
+            description = "Retorna uma página de pedidos ordenados por ID, com filtros opcionais. " +
+                    "Para buscar a próxima página, envie o proximoCursor retornado no parâmetro cursor.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso",
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Pedido.class))),
+                            schema = @Schema(implementation = Pagina.class))),
             @ApiResponse(responseCode = "400", description = "Nenhum pedido encontrado.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
     @GetMapping()
-    public ResponseEntity<List<Pedido>> listarPedidos() {
-        return ResponseEntity.ok(pedidoService.listarPedidos());
+    public ResponseEntity<Pagina<Pedido>> listarPedidos(@ParameterObject FiltroPedido filtro,
+                                                        @RequestParam(required = false) Long cursor,
+                                                        @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(pedidoService.listarPedidos(filtro, cursor, limite));
+    }
+
+    @Operation(summary = "Transmitir pedidos",
+            description = "Transmite todos os pedidos que atendem aos filtros, ordenados por ID, um por linha " +
+                    "(application/x-ndjson) ou como eventos (text/event-stream). Os pedidos são lidos em blocos " +
+                    "conforme o cliente consome a resposta; envie o ID do último pedido recebido no parâmetro " +
+                    "cursor para retomar uma transmissão interrompida.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transmissão iniciada com sucesso",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = Pedido.class)),
+                            @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = Pedido.class))})
+    })
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Pedido> transmitirPedidos(@ParameterObject FiltroPedido filtro,
+                                          @RequestParam(required = false) Long cursor) {
+        return pedidoService.transmitirPedidos(filtro, cursor);
+    }
+
+    @Operation(summary = "Exportar pedidos",
+            description = "Exporta todos os pedidos que atendem aos filtros, ordenados por ID, como arquivo NDJSON " +
+                    "(um pedido por linha, com os itens) ou CSV (um item por linha, com os dados do pedido). Os " +
+                    "pedidos são lidos do banco por cursor e escritos à medida que chegam, sem carregar a lista " +
+                    "inteira em memória.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                            @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Formato de exportação inválido.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportarPedidos(@ParameterObject FiltroPedido filtro,
+                                                                 @RequestParam(defaultValue = "ndjson") String formato) {
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        StreamingResponseBody corpo = saida -> pedidoService.exportarPedidos(filtro, formatoExportacao, saida);
+        return ResponseEntity.ok()
+                .contentType(formatoExportacao.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"pedidos." + formatoExportacao.getExtensao() + "\"")
+                .body(corpo);
     }
 
     @Operation(summary = "Buscar pedido por ID",
-            description = "Busca e retorna um pedido específico com base no ID informado.")
+            description = "Busca e retorna um pedido específico com base no ID informado. A resposta traz uma " +
+                    "ETag com a versão do pedido (que muda também quando o cliente ou um item dele muda); envie-a " +
+                    "em If-None-Match para receber 304 enquanto o pedido não mudar.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pedido encontrado com sucesso",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Pedido.class))),
+            @ApiResponse(responseCode = "304", description = "O pedido não mudou desde a versão enviada em If-None-Match.",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Pedido não encontrado para o ID informado.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Pedido> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok().body(pedidoService.buscarPorId(id));
+    public ResponseEntity<Pedido> buscarPorId(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String versao = pedidoService.buscarVersao(id).getValor();
+            if (cacheHttp.naoModificado(ifNoneMatch, versao)) {
+                return cacheHttp.respostaNaoModificada(versao);
+            }
+        }
+        Pedido pedido = pedidoService.buscarPorId(id);
+        return cacheHttp.resposta(VersaoPedido.de(pedido).getValor(), pedido);
     }
 
     @Operation(summary = "Cadastrar um novo pedido",
-            description = "Adiciona um novo pedido ao sistema.")
+            description = "Adiciona um novo pedido ao sistema. Com o cabeçalho Idempotency-Key, repetições da " +
+                    "mesma requisição (mesma chave e mesmo corpo) devolvem a resposta da primeira, sem criar outro " +
+                    "pedido nem baixar o estoque de novo; a resposta repetida vem com Idempotent-Replayed: true.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Pedido cadastrado com sucesso",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Pedido.class))),
-            @ApiResponse(responseCode = "400", description = "Erro ao cadastrar pedido (valores incorretos ou malformados).",
+            @ApiResponse(responseCode = "400", description = "Erro ao cadastrar pedido (valores incorretos ou malformados, " +
+                    "ou Idempotency-Key já usada com outro corpo).",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
     @PostMapping
-    public ResponseEntity<Pedido> salvar(@RequestBody Pedido pedido) {
-        pedido = pedidoService.salvarPedido(pedido);
-        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-                .buildAndExpand(pedido.getId()).toUri();
-        return ResponseEntity.created(uri).body(pedido);
+    public ResponseEntity<?> salvar(@Parameter(description = "Chave única da operação, gerada pelo cliente e " +
+                                            "reenviada nas novas tentativas (até 100 caracteres)")
+                                    @RequestHeader(value = CABECALHO_IDEMPOTENCIA, required = false)
+                                    String chaveIdempotencia,
+                                    @RequestBody Pedido pedido) {
+        if (chaveIdempotencia == null) {
+            pedido = pedidoService.salvarPedido(pedido);
+            return ResponseEntity.created(uriDoPedido(pedido.getId())).body(pedido);
+        }
+        //o corpo gravado já é o JSON do pedido: vai para a resposta como está
+        RespostaIdempotente resposta = pedidoService.salvarPedido(pedido, chaveIdempotencia);
+        return ResponseEntity.created(uriDoPedido(resposta.getRecursoId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(CABECALHO_REPETIDA, String.valueOf(resposta.isRepetida()))
+                .body(resposta.getCorpo());
+    }
+
+    private URI uriDoPedido(Long id) {
+        return ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(id).toUri();
+    }
+
+    @Operation(summary = "Cadastrar pedidos em lote",
+            description = "Valida, calcula e salva vários pedidos em uma única requisição, em blocos transacionais. " +
+                    "Retorna o resultado de cada pedido na mesma ordem em que foi enviado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; verifique o resultado de cada pedido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResultadoPedidoLote.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo permitido.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<List<ResultadoPedidoLote>> salvarEmLote(@RequestBody List<Pedido> pedidos) {
+        return ResponseEntity.ok(pedidoService.salvarPedidosEmLote(pedidos));
     }
 
     @Operation(summary = "Excluir pedido por ID",
@@ -98,6 +209,9 @@ public class PedidoController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "400", description = "Erro de validação ao atualizar o pedido.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "409", description = "O pedido foi alterado por outra requisição durante a atualização.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class)))
     })
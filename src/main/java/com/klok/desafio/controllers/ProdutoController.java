@@ -0,0 +1,112 @@
+package com.klok.desafio.controllers;
+
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.exceptions.StandardError;
+import com.klok.desafio.services.produto.ProdutoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping(value = "/produtos")
+public class ProdutoController {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Operation(summary = "Listar produtos",
+            description = "Retorna uma página do catálogo de produtos ordenados por ID, opcionalmente filtrados por " +
+                    "disponibilidade em estoque. Para buscar a próxima página, envie o proximoCursor retornado no parâmetro cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Pagina.class))),
+            @ApiResponse(responseCode = "400", description = "Nenhum produto encontrado.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping
+    public ResponseEntity<Pagina<Produto>> listarProdutos(@RequestParam(required = false) Boolean disponivel,
+                                                          @RequestParam(required = false) Long cursor,
+                                                          @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(produtoService.listarProdutos(disponivel, cursor, limite));
+    }
+
+    @Operation(summary = "Buscar produto por ID",
+            description = "Busca e retorna um produto do catálogo, com preço e estoque atuais.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produto encontrado com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado para o ID informado.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<Produto> buscarPorId(@PathVariable Long id) {
+        return ResponseEntity.ok().body(produtoService.buscarPorId(id));
+    }
+
+    @Operation(summary = "Cadastrar um novo produto",
+            description = "Adiciona um produto ao catálogo com nome, preço e estoque inicial.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Produto cadastrado com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "400", description = "Erro de validação ao salvar o produto.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @PostMapping
+    public ResponseEntity<Produto> salvar(@RequestBody Produto produto) {
+        produto = produtoService.salvarProduto(produto);
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                .buildAndExpand(produto.getId()).toUri();
+        return ResponseEntity.created(uri).body(produto);
+    }
+
+    @Operation(summary = "Excluir produto por ID",
+            description = "Exclui um produto do catálogo. Produtos referenciados por itens de pedidos não podem ser excluídos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Produto excluído com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Produto com o ID especificado não encontrado.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "400", description = "Erro ao excluir produto devido a dependências no banco de dados.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> excluir(@PathVariable Long id) {
+        produtoService.excluirProduto(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Atualizar um produto",
+            description = "Atualiza nome, preço e estoque de um produto do catálogo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "404", description = "Produto com o ID especificado não encontrado.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "400", description = "Erro de validação ao atualizar o produto.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<Produto> atualizar(@PathVariable Long id, @RequestBody Produto produto) {
+        produto = produtoService.atualizarProduto(id, produto);
+        return ResponseEntity.ok().body(produto);
+    }
+}
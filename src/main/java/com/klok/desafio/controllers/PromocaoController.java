@@ -0,0 +1,113 @@
+package com.klok.desafio.controllers;
+
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.entities.Promocao;
+import com.klok.desafio.exceptions.StandardError;
+import com.klok.desafio.services.promocao.PromocaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping(value = "/promocoes")
+public class PromocaoController {
+
+    @Autowired
+    private PromocaoService promocaoService;
+
+    @Operation(summary = "Listar promoções",
+            description = "Retorna uma página de promoções ordenadas por ID. " +
+                    "Para buscar a próxima página, envie o proximoCursor retornado no parâmetro cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Pagina.class))),
+            @ApiResponse(responseCode = "400", description = "Nenhuma promoção encontrada.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping
+    public ResponseEntity<Pagina<Promocao>> listarPromocoes(@RequestParam(required = false) Long cursor,
+                                                            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(promocaoService.listarPromocoes(cursor, limite));
+    }
+
+    @Operation(summary = "Buscar promoção por ID",
+            description = "Busca e retorna uma promoção específica com base no ID informado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Promoção encontrada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Promocao.class))),
+            @ApiResponse(responseCode = "404", description = "Promoção não encontrada para o ID informado.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<Promocao> buscarPorId(@PathVariable Long id) {
+        return ResponseEntity.ok().body(promocaoService.buscarPorId(id));
+    }
+
+    @Operation(summary = "Cadastrar uma nova promoção",
+            description = "Cadastra uma promoção por faixa de valor do pedido (PEDIDO), por produto (ITEM), por " +
+                    "quantidade mínima de um produto (QUANTIDADE) ou por cupom (CUPOM). Passa a valer nos pedidos " +
+                    "assim que a transação é confirmada, sem reiniciar a aplicação.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Promoção cadastrada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Promocao.class))),
+            @ApiResponse(responseCode = "400", description = "Erro de validação ao salvar a promoção.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @PostMapping
+    public ResponseEntity<Promocao> salvar(@RequestBody Promocao promocao) {
+        promocao = promocaoService.salvarPromocao(promocao);
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                .buildAndExpand(promocao.getId()).toUri();
+        return ResponseEntity.created(uri).body(promocao);
+    }
+
+    @Operation(summary = "Excluir promoção por ID",
+            description = "Exclui uma promoção, que deixa de valer nos pedidos seguintes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Promoção excluída com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Promoção com o ID especificado não encontrada.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "400", description = "Erro ao excluir promoção devido a dependências no banco de dados.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> excluir(@PathVariable Long id) {
+        promocaoService.excluirPromocao(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Atualizar uma promoção",
+            description = "Atualiza os dados de uma promoção; para desativá-la, envie ativa = false.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Promoção atualizada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Promocao.class))),
+            @ApiResponse(responseCode = "404", description = "Promoção com o ID especificado não encontrada.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "400", description = "Erro de validação ao atualizar a promoção.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<Promocao> atualizar(@PathVariable Long id, @RequestBody Promocao promocao) {
+        promocao = promocaoService.atualizarPromocao(id, promocao);
+        return ResponseEntity.ok().body(promocao);
+    }
+}
@@ -0,0 +1,83 @@
+package com.klok.desafio.controllers;
+
+import com.klok.desafio.dto.ItemVendido;
+import com.klok.desafio.dto.VendasDia;
+import com.klok.desafio.entities.VendaHora;
+import com.klok.desafio.exceptions.StandardError;
+import com.klok.desafio.services.relatorio.RelatorioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping(value="/relatorios")
+public class RelatorioController {
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Operation(summary = "Vendas por dia",
+            description = "Retorna, para cada dia do período (datas ISO, no máximo 366 dias), a quantidade de " +
+                    "pedidos, os totais sem e com desconto, o desconto VIP concedido e os pedidos rejeitados por " +
+                    "falta de estoque. Os valores vêm dos totais consolidados e incluem as vendas até a última " +
+                    "consolidação.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vendas retornadas com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = VendasDia.class)))),
+            @ApiResponse(responseCode = "400", description = "Período inválido.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping("/vendas/diarias")
+    public ResponseEntity<List<VendasDia>> vendasPorDia(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        return ResponseEntity.ok(relatorioService.vendasPorDia(inicio, fim));
+    }
+
+    @Operation(summary = "Vendas por hora de um dia",
+            description = "Retorna os totais de cada hora do dia que teve venda ou falta de estoque.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vendas retornadas com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = VendaHora.class))))
+    })
+    @GetMapping("/vendas/horarias")
+    public ResponseEntity<List<VendaHora>> vendasPorHora(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia) {
+        return ResponseEntity.ok(relatorioService.vendasPorHora(dia));
+    }
+
+    @Operation(summary = "Itens mais vendidos",
+            description = "Retorna os itens com mais unidades vendidas no período (datas ISO, no máximo 366 " +
+                    "dias), limitados ao parâmetro limite.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Itens retornados com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ItemVendido.class)))),
+            @ApiResponse(responseCode = "400", description = "Período ou limite inválido.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class)))
+    })
+    @GetMapping("/itens/mais-vendidos")
+    public ResponseEntity<List<ItemVendido>> itensMaisVendidos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(relatorioService.itensMaisVendidos(inicio, fim, limite));
+    }
+}
@@ -0,0 +1,65 @@
+package com.klok.desafio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Schema(description = "Filtros opcionais para a listagem de pedidos.")
+public class FiltroPedido {
+
+    @Schema(description = "ID do cliente dono dos pedidos", example = "1")
+    private Long clienteId;
+
+    @Schema(description = "Data de entrega inicial (inclusiva)", example = "2025-01-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataEntregaInicio;
+
+    @Schema(description = "Data de entrega final (inclusiva)", example = "2025-01-31")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataEntregaFim;
+
+    @Schema(description = "Somente pedidos com (true) ou sem (false) estoque", example = "true")
+    private Boolean emEstoque;
+
+    public FiltroPedido() {}
+
+    public FiltroPedido(Long clienteId, LocalDate dataEntregaInicio, LocalDate dataEntregaFim, Boolean emEstoque) {
+        this.clienteId = clienteId;
+        this.dataEntregaInicio = dataEntregaInicio;
+        this.dataEntregaFim = dataEntregaFim;
+        this.emEstoque = emEstoque;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public LocalDate getDataEntregaInicio() {
+        return dataEntregaInicio;
+    }
+
+    public void setDataEntregaInicio(LocalDate dataEntregaInicio) {
+        this.dataEntregaInicio = dataEntregaInicio;
+    }
+
+    public LocalDate getDataEntregaFim() {
+        return dataEntregaFim;
+    }
+
+    public void setDataEntregaFim(LocalDate dataEntregaFim) {
+        this.dataEntregaFim = dataEntregaFim;
+    }
+
+    public Boolean getEmEstoque() {
+        return emEstoque;
+    }
+
+    public void setEmEstoque(Boolean emEstoque) {
+        this.emEstoque = emEstoque;
+    }
+}
@@ -0,0 +1,38 @@
+package com.klok.desafio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Unidades vendidas de um item no período.")
+public class ItemVendido {
+
+    @Schema(description = "Nome do item, como copiado no pedido", example = "Caderno")
+    private String nome;
+
+    @Schema(description = "Unidades vendidas", example = "42")
+    private Long quantidade;
+
+    @Schema(description = "Preço vezes quantidade, sem descontos", example = "105.00")
+    private BigDecimal valor;
+
+    public ItemVendido() {}
+
+    public ItemVendido(String nome, Long quantidade, BigDecimal valor) {
+        this.nome = nome;
+        this.quantidade = quantidade;
+        this.valor = valor;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+}
@@ -0,0 +1,88 @@
+package com.klok.desafio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//Uma linha da exportação de pedidos: os dados do pedido repetidos para cada item (junção pedido x item, ordenada
+//por pedido e item). Pedido sem itens vem numa única linha com os campos do item nulos. Não é entidade, então não
+//fica no contexto de persistência enquanto a exportação percorre o cursor
+public class LinhaExportacaoPedido {
+
+    private final Long pedidoId;
+    private final Long clienteId;
+    private final BigDecimal total;
+    private final BigDecimal totalComDesconto;
+    private final Boolean emEstoque;
+    private final LocalDate dataEntrega;
+    private final String cupom;
+    private final Long itemId;
+    private final Long produtoId;
+    private final String nome;
+    private final BigDecimal preco;
+    private final Integer quantidade;
+
+    public LinhaExportacaoPedido(Long pedidoId, Long clienteId, BigDecimal total, BigDecimal totalComDesconto,
+                                 Boolean emEstoque, LocalDate dataEntrega, String cupom, Long itemId,
+                                 Long produtoId, String nome, BigDecimal preco, Integer quantidade) {
+        this.pedidoId = pedidoId;
+        this.clienteId = clienteId;
+        this.total = total;
+        this.totalComDesconto = totalComDesconto;
+        this.emEstoque = emEstoque;
+        this.dataEntrega = dataEntrega;
+        this.cupom = cupom;
+        this.itemId = itemId;
+        this.produtoId = produtoId;
+        this.nome = nome;
+        this.preco = preco;
+        this.quantidade = quantidade;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public BigDecimal getTotalComDesconto() {
+        return totalComDesconto;
+    }
+
+    public Boolean getEmEstoque() {
+        return emEstoque;
+    }
+
+    public LocalDate getDataEntrega() {
+        return dataEntrega;
+    }
+
+    public String getCupom() {
+        return cupom;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public BigDecimal getPreco() {
+        return preco;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+}
@@ -0,0 +1,55 @@
+package com.klok.desafio.dto;
+
+import com.klok.desafio.exceptions.BusinessRuleException;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@Schema(description = "Página de resultados paginada por cursor (keyset).")
+public class Pagina<T> {
+
+    public static final int LIMITE_PADRAO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+
+    @Schema(description = "Registros da página, ordenados por ID")
+    private List<T> conteudo;
+
+    @Schema(description = "Cursor a ser enviado para buscar a próxima página; nulo na última página", example = "120")
+    private Long proximoCursor;
+
+    public Pagina() {}
+
+    public Pagina(List<T> conteudo, Long proximoCursor) {
+        this.conteudo = conteudo;
+        this.proximoCursor = proximoCursor;
+    }
+
+    //a consulta busca limite + 1 registros: o excedente só indica que existe uma próxima página
+    public static <T> Pagina<T> de(List<T> registros, int limite, Function<T, Long> extrairId) {
+        if (registros.size() <= limite) {
+            return new Pagina<>(registros, null);
+        }
+        List<T> conteudo = new ArrayList<>(registros.subList(0, limite));
+        return new Pagina<>(conteudo, extrairId.apply(conteudo.get(limite - 1)));
+    }
+
+    public static int limiteValido(Integer limite) {
+        if (limite == null) {
+            return LIMITE_PADRAO;
+        }
+        if (limite <= 0) {
+            throw new BusinessRuleException("O limite da página deve ser maior que zero.");
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+
+    public List<T> getConteudo() {
+        return conteudo;
+    }
+
+    public Long getProximoCursor() {
+        return proximoCursor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.klok.desafio.dto;
+
+import java.io.Serializable;
+
+//Resposta de uma operação feita com Idempotency-Key: o corpo já serializado (o mesmo JSON da primeira execução)
+//e o ID do recurso criado, para montar o Location
+public class RespostaIdempotente implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String hashRequisicao;
+    private final Long recursoId;
+    private final String corpo;
+    private final boolean repetida;
+
+    public RespostaIdempotente(String hashRequisicao, Long recursoId, String corpo, boolean repetida) {
+        this.hashRequisicao = hashRequisicao;
+        this.recursoId = recursoId;
+        this.corpo = corpo;
+        this.repetida = repetida;
+    }
+
+    public RespostaIdempotente comoRepetida() {
+        return repetida ? this : new RespostaIdempotente(hashRequisicao, recursoId, corpo, true);
+    }
+
+    public String getHashRequisicao() {
+        return hashRequisicao;
+    }
+
+    public Long getRecursoId() {
+        return recursoId;
+    }
+
+    public String getCorpo() {
+        return corpo;
+    }
+
+    public boolean isRepetida() {
+        return repetida;
+    }
+}
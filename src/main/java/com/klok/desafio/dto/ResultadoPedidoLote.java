@@ -0,0 +1,52 @@
+package com.klok.desafio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado do processamento de um pedido enviado em lote.")
+public class ResultadoPedidoLote {
+
+    @Schema(description = "Posição do pedido na lista enviada", example = "0")
+    private Integer indice;
+
+    @Schema(description = "ID gerado para o pedido, quando salvo com sucesso", example = "42")
+    private Long pedidoId;
+
+    @Schema(description = "Indica se o pedido foi salvo", example = "true")
+    private Boolean sucesso;
+
+    @Schema(description = "Motivo da rejeição, quando houver", example = "Estoque insuficiente para os itens do pedido!")
+    private String erro;
+
+    public ResultadoPedidoLote() {}
+
+    public ResultadoPedidoLote(Integer indice, Long pedidoId, Boolean sucesso, String erro) {
+        this.indice = indice;
+        this.pedidoId = pedidoId;
+        this.sucesso = sucesso;
+        this.erro = erro;
+    }
+
+    public static ResultadoPedidoLote sucesso(int indice, Long pedidoId) {
+        return new ResultadoPedidoLote(indice, pedidoId, true, null);
+    }
+
+    public static ResultadoPedidoLote falha(int indice, String erro) {
+        return new ResultadoPedidoLote(indice, null, false, erro);
+    }
+
+    public Integer getIndice() {
+        return indice;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public Boolean getSucesso() {
+        return sucesso;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+}
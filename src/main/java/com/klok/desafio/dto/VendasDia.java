@@ -0,0 +1,67 @@
+package com.klok.desafio.dto;
+
+import com.klok.desafio.entities.VendaHora;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "Vendas de um dia, somadas a partir dos totais por hora.")
+public class VendasDia {
+
+    @Schema(description = "Dia das vendas", example = "2025-05-20")
+    private LocalDate dia;
+
+    @Schema(description = "Pedidos vendidos", example = "12")
+    private Long quantidadePedidos = 0L;
+
+    @Schema(description = "Soma dos totais sem desconto", example = "1500.00")
+    private BigDecimal valorBruto = BigDecimal.ZERO;
+
+    @Schema(description = "Soma dos totais com desconto", example = "1380.00")
+    private BigDecimal valorLiquido = BigDecimal.ZERO;
+
+    @Schema(description = "Parte dos descontos que veio do desconto VIP", example = "80.00")
+    private BigDecimal descontoVip = BigDecimal.ZERO;
+
+    @Schema(description = "Pedidos rejeitados por falta de estoque", example = "2")
+    private Long faltasEstoque = 0L;
+
+    public VendasDia() {}
+
+    public VendasDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public void somar(VendaHora hora) {
+        quantidadePedidos += hora.getQuantidadePedidos();
+        valorBruto = valorBruto.add(hora.getValorBruto());
+        valorLiquido = valorLiquido.add(hora.getValorLiquido());
+        descontoVip = descontoVip.add(hora.getDescontoVip());
+        faltasEstoque += hora.getFaltasEstoque();
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public Long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public BigDecimal getValorBruto() {
+        return valorBruto;
+    }
+
+    public BigDecimal getValorLiquido() {
+        return valorLiquido;
+    }
+
+    public BigDecimal getDescontoVip() {
+        return descontoVip;
+    }
+
+    public Long getFaltasEstoque() {
+        return faltasEstoque;
+    }
+}
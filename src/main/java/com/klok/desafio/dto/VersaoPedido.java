@@ -0,0 +1,33 @@
+package com.klok.desafio.dto;
+
+import com.klok.desafio.entities.Pedido;
+
+//Versão do pedido como ele aparece em GET /pedidos/{id}: a do próprio pedido (que sobe também quando um item muda)
+//e a do cliente que vai junto no JSON. Lida por uma consulta só das duas colunas, sem carregar pedido e itens
+public class VersaoPedido {
+
+    private final Long pedido;
+    private final Long cliente;
+
+    public VersaoPedido(Long pedido, Long cliente) {
+        this.pedido = pedido;
+        this.cliente = cliente;
+    }
+
+    public static VersaoPedido de(Pedido pedido) {
+        return new VersaoPedido(pedido.getVersao(), pedido.getCliente().getVersao());
+    }
+
+    public Long getPedido() {
+        return pedido;
+    }
+
+    public Long getCliente() {
+        return cliente;
+    }
+
+    //valor da ETag
+    public String getValor() {
+        return pedido + "." + cliente;
+    }
+}
@@ -0,0 +1,112 @@
+package com.klok.desafio.entities;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+//Resposta gravada para um Idempotency-Key, na mesma transação do recurso criado: uma repetição da requisição
+//devolve o corpo gravado em vez de executar a operação de novo
+@Entity
+@Table(name = "tb_chave_idempotencia", indexes = {
+        @Index(name = "idx_chave_idempotencia_expira_em", columnList = "expira_em")
+})
+public class ChaveIdempotencia implements Persistable<String>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 100)
+    private String chave;
+
+    @Column(name = "hash_requisicao", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    @Column(name = "id_recurso")
+    private Long recursoId;
+
+    @Column(columnDefinition = "TEXT")
+    private String corpo;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    @Column(name = "expira_em", nullable = false)
+    private Instant expiraEm;
+
+    //a chave é informada pelo cliente: sem isso o save faria merge (SELECT antes do INSERT) e a disputa entre duas
+    //requisições com a mesma chave não chegaria à restrição de chave primária
+    @Transient
+    private boolean nova = true;
+
+    public ChaveIdempotencia() {}
+
+    public ChaveIdempotencia(String chave, String hashRequisicao, Instant criadoEm, Instant expiraEm) {
+        this.chave = chave;
+        this.hashRequisicao = hashRequisicao;
+        this.criadoEm = criadoEm;
+        this.expiraEm = expiraEm;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        this.nova = false;
+    }
+
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nova;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public String getHashRequisicao() {
+        return hashRequisicao;
+    }
+
+    public Long getRecursoId() {
+        return recursoId;
+    }
+
+    public void setRecursoId(Long recursoId) {
+        this.recursoId = recursoId;
+    }
+
+    public String getCorpo() {
+        return corpo;
+    }
+
+    public void setCorpo(String corpo) {
+        this.corpo = corpo;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ChaveIdempotencia that = (ChaveIdempotencia) o;
+        return Objects.equals(chave, that.chave);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(chave);
+    }
+}
@@ -1,20 +1,28 @@
 package com.klok.desafio.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+//no cache de segundo nível (região cliente) quando persistencia.cache.ativo: lido em todo pedido e raramente alterado
 @Entity
 @Table(name = "tb_cliente")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Cliente implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_cliente")
+    @SequenceGenerator(name = "seq_cliente", sequenceName = "seq_cliente", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -26,6 +34,12 @@ public class Cliente implements Serializable {
     @Column(nullable = false)
     private Boolean vip = false;
 
+    //incrementada a cada alteração (trava otimista); é a ETag de GET /{id}, por isso não vai no JSON
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     @JsonIgnore
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Pedido> pedidos = new ArrayList<>();
@@ -65,6 +79,10 @@ public class Cliente implements Serializable {
         return vip;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
     public void setVip(Boolean vip) {
         this.vip = vip;
     }
@@ -1,20 +1,29 @@
 package com.klok.desafio.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Objects;
 
 @Entity
-@Table(name = "tb_item")
+@Table(name = "tb_item", indexes = {
+        @Index(name = "idx_item_pedido_id", columnList = "id_pedido, id"),
+        @Index(name = "idx_item_produto_id", columnList = "id_produto")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
 public class Item implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_item")
+    @SequenceGenerator(name = "seq_item", sequenceName = "seq_item", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -26,24 +35,37 @@ public class Item implements Serializable {
     @Column(nullable = false)
     private Integer quantidade;
 
+    //incrementada a cada alteração (trava otimista); é a ETag de GET /{id}, por isso não vai no JSON
+    @JsonIgnore
+    @Version
     @Column(nullable = false)
-    private Integer estoque;
+    private Long versao;
+
+    //nome e preço acima são uma cópia do catálogo no momento do pedido; o estoque fica só no produto
+    @JsonIgnore
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_produto", nullable = false)
+    private Produto produto;
 
     @JsonIgnore
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "id_pedido", nullable = false)
     private Pedido pedido;
 
     public Item() {}
 
-    public Item(String nome, BigDecimal preco, Integer quantidade, Integer estoque, Pedido pedido) {
+    public Item(String nome, BigDecimal preco, Integer quantidade, Pedido pedido) {
         this.nome = nome;
         this.preco = preco;
         this.quantidade = quantidade;
-        this.estoque = estoque;
         this.pedido = pedido;
     }
 
+    public Item(Produto produto, Integer quantidade, Pedido pedido) {
+        this(produto.getNome(), produto.getPreco(), quantidade, pedido);
+        this.produto = produto;
+    }
+
     public Long getId() {
         return id;
     }
@@ -72,16 +94,37 @@ public class Item implements Serializable {
         return quantidade;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
     public void setQuantidade(Integer quantidade) {
         this.quantidade = quantidade;
     }
 
-    public Integer getEstoque() {
-        return estoque;
+    public Produto getProduto() {
+        return produto;
+    }
+
+    public void setProduto(Produto produto) {
+        this.produto = produto;
+    }
+
+    //no JSON o item referencia o produto só pelo ID; ler o ID de um proxy lazy não dispara consulta
+    @JsonProperty("produtoId")
+    public Long getProdutoId() {
+        return produto == null ? null : produto.getId();
     }
 
-    public void setEstoque(Integer estoque) {
-        this.estoque = estoque;
+    @JsonProperty("produtoId")
+    public void setProdutoId(Long produtoId) {
+        if (produtoId == null) {
+            this.produto = null;
+            return;
+        }
+        Produto referencia = new Produto();
+        referencia.setId(produtoId);
+        this.produto = referencia;
     }
 
     public Pedido getPedido() {
@@ -0,0 +1,150 @@
+package com.klok.desafio.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+//Caixa de saída (outbox) de e-mails: gravada na mesma transação do pedido e despachada em segundo plano
+@Entity
+@Table(name = "tb_notificacao")
+public class Notificacao implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_notificacao")
+    @SequenceGenerator(name = "seq_notificacao", sequenceName = "seq_notificacao", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 150)
+    private String destinatario;
+
+    @Column(nullable = false, length = 200)
+    private String titulo;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String conteudo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusNotificacao status = StatusNotificacao.PENDENTE;
+
+    @Column(nullable = false)
+    private Integer tentativas = 0;
+
+    @Column(name = "proxima_tentativa", nullable = false)
+    private Instant proximaTentativa;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    @Column(name = "enviado_em")
+    private Instant enviadoEm;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    public Notificacao() {}
+
+    public Notificacao(String destinatario, String titulo, String conteudo, Instant criadoEm) {
+        this.destinatario = destinatario;
+        this.titulo = titulo;
+        this.conteudo = conteudo;
+        this.criadoEm = criadoEm;
+        this.proximaTentativa = criadoEm;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDestinatario() {
+        return destinatario;
+    }
+
+    public void setDestinatario(String destinatario) {
+        this.destinatario = destinatario;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getConteudo() {
+        return conteudo;
+    }
+
+    public void setConteudo(String conteudo) {
+        this.conteudo = conteudo;
+    }
+
+    public StatusNotificacao getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusNotificacao status) {
+        this.status = status;
+    }
+
+    public Integer getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(Integer tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public Instant getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public void setProximaTentativa(Instant proximaTentativa) {
+        this.proximaTentativa = proximaTentativa;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(Instant criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public Instant getEnviadoEm() {
+        return enviadoEm;
+    }
+
+    public void setEnviadoEm(Instant enviadoEm) {
+        this.enviadoEm = enviadoEm;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        Notificacao that = (Notificacao) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -1,6 +1,9 @@
 package com.klok.desafio.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -10,13 +13,20 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "tb_pedido")
+@Table(name = "tb_pedido", indexes = {
+        @Index(name = "idx_pedido_cliente_id", columnList = "id_cliente, id"),
+        @Index(name = "idx_pedido_data_entrega_id", columnList = "data_entrega, id"),
+        @Index(name = "idx_pedido_cliente_data_entrega", columnList = "id_cliente, data_entrega")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pedido")
 public class Pedido implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_pedido")
+    @SequenceGenerator(name = "seq_pedido", sequenceName = "seq_pedido", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, precision = 10, scale = 2)
@@ -31,10 +41,21 @@ public class Pedido implements Serializable {
     @Column(name = "data_entrega")
     private LocalDate dataEntrega;
 
-    @ManyToOne(optional = false)
+    @Column(length = 40)
+    private String cupom;
+
+    //incrementada a cada alteração (trava otimista); junto com a do cliente é a ETag de GET /pedidos/{id}, por isso não vai no JSON
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "id_cliente", nullable = false)
     private Cliente cliente;
 
+    //a coleção guarda só os IDs dos itens; os itens em si ficam na região item
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pedido-itens")
     @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Item> itens = new ArrayList<>();
 
@@ -88,6 +109,18 @@ public class Pedido implements Serializable {
         this.dataEntrega = dataEntrega;
     }
 
+    public String getCupom() {
+        return cupom;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setCupom(String cupom) {
+        this.cupom = cupom;
+    }
+
     public Cliente getCliente() {
         return cliente;
     }
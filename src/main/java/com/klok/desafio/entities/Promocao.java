@@ -0,0 +1,177 @@
+package com.klok.desafio.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@Table(name = "tb_promocao", indexes = {
+        @Index(name = "idx_promocao_ativa", columnList = "ativa")
+})
+public class Promocao implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_promocao")
+    @SequenceGenerator(name = "seq_promocao", sequenceName = "seq_promocao", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoPromocao tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SegmentoCliente segmento = SegmentoCliente.TODOS;
+
+    //percentual de desconto, ex.: 10.00 = 10%
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal percentual;
+
+    //ITEM e QUANTIDADE
+    @Column(name = "id_produto")
+    private Long produtoId;
+
+    //QUANTIDADE
+    @Column(name = "quantidade_minima")
+    private Integer quantidadeMinima;
+
+    //PEDIDO
+    @Column(name = "valor_minimo", precision = 10, scale = 2)
+    private BigDecimal valorMinimo;
+
+    //CUPOM
+    @Column(name = "codigo_cupom", length = 40, unique = true)
+    private String codigoCupom;
+
+    @Column(nullable = false)
+    private Boolean ativa = true;
+
+    private LocalDate inicio;
+
+    private LocalDate fim;
+
+    public Promocao() {}
+
+    public Promocao(String nome, TipoPromocao tipo, SegmentoCliente segmento, BigDecimal percentual) {
+        this.nome = nome;
+        this.tipo = tipo;
+        this.segmento = segmento;
+        this.percentual = percentual;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public TipoPromocao getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoPromocao tipo) {
+        this.tipo = tipo;
+    }
+
+    public SegmentoCliente getSegmento() {
+        return segmento;
+    }
+
+    public void setSegmento(SegmentoCliente segmento) {
+        this.segmento = segmento;
+    }
+
+    public BigDecimal getPercentual() {
+        return percentual;
+    }
+
+    public void setPercentual(BigDecimal percentual) {
+        this.percentual = percentual;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public void setProdutoId(Long produtoId) {
+        this.produtoId = produtoId;
+    }
+
+    public Integer getQuantidadeMinima() {
+        return quantidadeMinima;
+    }
+
+    public void setQuantidadeMinima(Integer quantidadeMinima) {
+        this.quantidadeMinima = quantidadeMinima;
+    }
+
+    public BigDecimal getValorMinimo() {
+        return valorMinimo;
+    }
+
+    public void setValorMinimo(BigDecimal valorMinimo) {
+        this.valorMinimo = valorMinimo;
+    }
+
+    public String getCodigoCupom() {
+        return codigoCupom;
+    }
+
+    public void setCodigoCupom(String codigoCupom) {
+        this.codigoCupom = codigoCupom;
+    }
+
+    public Boolean getAtiva() {
+        return ativa;
+    }
+
+    public void setAtiva(Boolean ativa) {
+        this.ativa = ativa;
+    }
+
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(LocalDate inicio) {
+        this.inicio = inicio;
+    }
+
+    public LocalDate getFim() {
+        return fim;
+    }
+
+    public void setFim(LocalDate fim) {
+        this.fim = fim;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        Promocao promocao = (Promocao) o;
+        return Objects.equals(id, promocao.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,101 @@
+package com.klok.desafio.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+//Totais dos pedidos de um cliente, mantidos a cada pedido gravado, alterado ou excluído (ResumoClienteService):
+//o resumo é uma linha lida pela chave, sem somar o histórico de pedidos a cada consulta
+@Entity
+@Table(name = "tb_resumo_cliente")
+public class ResumoCliente implements Persistable<Long>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id_cliente")
+    private Long clienteId;
+
+    @Column(name = "quantidade_pedidos", nullable = false)
+    private Long quantidadePedidos = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Column(name = "total_com_desconto", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalComDesconto = BigDecimal.ZERO;
+
+    //data de entrega mais recente entre os pedidos do cliente: o pedido não guarda outra data
+    @Column(name = "ultima_data_entrega")
+    private LocalDate ultimaDataEntrega;
+
+    //o ID é o do cliente: sem isso o save faria merge (SELECT antes do INSERT)
+    @Transient
+    private boolean novo = true;
+
+    public ResumoCliente() {}
+
+    public ResumoCliente(Long clienteId, Long quantidadePedidos, BigDecimal total, BigDecimal totalComDesconto,
+                         LocalDate ultimaDataEntrega) {
+        this.clienteId = clienteId;
+        this.quantidadePedidos = quantidadePedidos;
+        this.total = total;
+        this.totalComDesconto = totalComDesconto;
+        this.ultimaDataEntrega = ultimaDataEntrega;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    @JsonIgnore
+    public Long getId() {
+        return clienteId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return novo;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public Long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public BigDecimal getTotalComDesconto() {
+        return totalComDesconto;
+    }
+
+    public LocalDate getUltimaDataEntrega() {
+        return ultimaDataEntrega;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ResumoCliente that = (ResumoCliente) o;
+        return Objects.equals(clienteId, that.clienteId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(clienteId);
+    }
+}
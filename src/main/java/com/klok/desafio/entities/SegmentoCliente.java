@@ -0,0 +1,11 @@
+package com.klok.desafio.entities;
+
+public enum SegmentoCliente {
+    TODOS,
+    VIP,
+    REGULAR;
+
+    public static SegmentoCliente de(Cliente cliente) {
+        return cliente != null && Boolean.TRUE.equals(cliente.isVip()) ? VIP : REGULAR;
+    }
+}
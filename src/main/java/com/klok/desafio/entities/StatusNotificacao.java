@@ -0,0 +1,7 @@
+package com.klok.desafio.entities;
+
+public enum StatusNotificacao {
+    PENDENTE,
+    ENVIADA,
+    FALHA
+}
@@ -0,0 +1,12 @@
+package com.klok.desafio.entities;
+
+public enum TipoPromocao {
+    //percentual sobre o pedido a partir de um valor mínimo (faixas)
+    PEDIDO,
+    //percentual sobre as linhas de um produto
+    ITEM,
+    //percentual sobre as linhas de um produto a partir de uma quantidade mínima
+    QUANTIDADE,
+    //percentual sobre o pedido quando o código do cupom é informado
+    CUPOM
+}
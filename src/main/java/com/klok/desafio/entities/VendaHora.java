@@ -0,0 +1,111 @@
+package com.klok.desafio.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+//Vendas de uma hora, somadas pelo ConsolidadorVendas a partir do que o AcumuladorVendas juntou em memória: os
+//relatórios leem no máximo 24 linhas por dia, sem somar pedidos e itens
+@Entity
+@Table(name = "tb_venda_hora")
+public class VendaHora implements Persistable<LocalDateTime>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    //início da hora, no fuso da aplicação
+    @Id
+    private LocalDateTime hora;
+
+    @Column(name = "quantidade_pedidos", nullable = false)
+    private Long quantidadePedidos = 0L;
+
+    //soma de total (sem desconto) dos pedidos
+    @Column(name = "valor_bruto", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorBruto = BigDecimal.ZERO;
+
+    //soma de total com desconto dos pedidos
+    @Column(name = "valor_liquido", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorLiquido = BigDecimal.ZERO;
+
+    @Column(name = "desconto_vip", nullable = false, precision = 14, scale = 2)
+    private BigDecimal descontoVip = BigDecimal.ZERO;
+
+    //pedidos rejeitados por falta de estoque
+    @Column(name = "faltas_estoque", nullable = false)
+    private Long faltasEstoque = 0L;
+
+    //o ID é a hora: sem isso o save faria merge (SELECT antes do INSERT)
+    @Transient
+    private boolean novo = true;
+
+    public VendaHora() {}
+
+    public VendaHora(LocalDateTime hora, Long quantidadePedidos, BigDecimal valorBruto, BigDecimal valorLiquido,
+                     BigDecimal descontoVip, Long faltasEstoque) {
+        this.hora = hora;
+        this.quantidadePedidos = quantidadePedidos;
+        this.valorBruto = valorBruto;
+        this.valorLiquido = valorLiquido;
+        this.descontoVip = descontoVip;
+        this.faltasEstoque = faltasEstoque;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    @JsonIgnore
+    public LocalDateTime getId() {
+        return hora;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return novo;
+    }
+
+    public LocalDateTime getHora() {
+        return hora;
+    }
+
+    public Long getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public BigDecimal getValorBruto() {
+        return valorBruto;
+    }
+
+    public BigDecimal getValorLiquido() {
+        return valorLiquido;
+    }
+
+    public BigDecimal getDescontoVip() {
+        return descontoVip;
+    }
+
+    public Long getFaltasEstoque() {
+        return faltasEstoque;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        VendaHora that = (VendaHora) o;
+        return Objects.equals(hora, that.hora);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(hora);
+    }
+}
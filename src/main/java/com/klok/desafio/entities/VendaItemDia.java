@@ -0,0 +1,77 @@
+package com.klok.desafio.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+//Unidades vendidas de um item num dia, somadas pelo ConsolidadorVendas: o ranking de itens lê uma linha por item
+//e dia do período, sem percorrer tb_item
+@Entity
+@Table(name = "tb_venda_item_dia")
+public class VendaItemDia implements Persistable<VendaItemDiaId>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @EmbeddedId
+    private VendaItemDiaId id;
+
+    @Column(nullable = false)
+    private Long quantidade = 0L;
+
+    //preço do item vezes a quantidade, sem descontos
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal valor = BigDecimal.ZERO;
+
+    @Transient
+    private boolean novo = true;
+
+    public VendaItemDia() {}
+
+    public VendaItemDia(VendaItemDiaId id, Long quantidade, BigDecimal valor) {
+        this.id = id;
+        this.quantidade = quantidade;
+        this.valor = valor;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    @JsonIgnore
+    public VendaItemDiaId getId() {
+        return id;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return novo;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        VendaItemDia that = (VendaItemDia) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
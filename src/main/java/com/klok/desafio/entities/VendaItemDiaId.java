@@ -0,0 +1,48 @@
+package com.klok.desafio.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class VendaItemDiaId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    //o nome copiado no item (Item.nome), não o ID do produto: é como o item aparece no pedido
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    public VendaItemDiaId() {}
+
+    public VendaItemDiaId(LocalDate dia, String nome) {
+        this.dia = dia;
+        this.nome = nome;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        VendaItemDiaId that = (VendaItemDiaId) o;
+        return Objects.equals(dia, that.dia) && Objects.equals(nome, that.nome);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dia, nome);
+    }
+}
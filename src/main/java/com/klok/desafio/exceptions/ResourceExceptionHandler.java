@@ -3,6 +3,7 @@ package com.klok.desafio.exceptions;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -51,6 +52,18 @@ public class ResourceExceptionHandler {
         return ResponseEntity.status(status).body(err);
     }
 
+    //outra requisição alterou o recurso (coluna versao) entre a leitura e a gravação desta; nada foi gravado
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<StandardError> optimisticLocking(ObjectOptimisticLockingFailureException e,
+                                                           HttpServletRequest request) {
+        String error = "Conflito de atualização";
+        HttpStatus status = HttpStatus.CONFLICT;
+        StandardError err = new StandardError(Instant.now(), status.value(), error,
+                "O recurso foi alterado por outra requisição. Consulte-o novamente e repita a operação.",
+                request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
     @ExceptionHandler(NotificacaoException.class)
     public ResponseEntity<StandardError> notificacaoException(NotificacaoException e, HttpServletRequest request) {
         String error = "Erro ao enviar notificação";
@@ -0,0 +1,20 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.entities.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.expiraEm < :agora")
+    int excluirExpiradas(@Param("agora") Instant agora);
+
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.chave = :chave AND c.expiraEm < :agora")
+    int excluirSeExpirada(@Param("chave") String chave, @Param("agora") Instant agora);
+}
@@ -2,6 +2,14 @@ package com.klok.desafio.repositories;
 
 import com.klok.desafio.entities.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import java.util.Optional;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item> {
+
+    @Query("SELECT i.versao FROM Item i WHERE i.id = :id")
+    Optional<Long> buscarVersao(@Param("id") Long id);
 }
@@ -0,0 +1,17 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.entities.Notificacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface NotificacaoRepository extends JpaRepository<Notificacao, Long> {
+
+    //SKIP LOCKED permite que várias instâncias drenem a fila sem disputar as mesmas linhas
+    @Query(value = "SELECT * FROM tb_notificacao WHERE status = 'PENDENTE' AND proxima_tentativa <= :agora " +
+            "ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Notificacao> buscarPendentesParaEnvio(@Param("agora") Instant agora, @Param("limite") int limite);
+}
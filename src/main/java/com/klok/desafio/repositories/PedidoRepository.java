@@ -1,7 +1,37 @@
 package com.klok.desafio.repositories;
 
+import com.klok.desafio.dto.VersaoPedido;
 import com.klok.desafio.entities.Pedido;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, JpaSpecificationExecutor<Pedido>,
+        PedidoRepositoryCustom {
+
+    //cliente e itens vêm na mesma consulta: a serialização do pedido não dispara selects extras
+    @EntityGraph(attributePaths = {"cliente", "itens"})
+    List<Pedido> findByIdIn(Collection<Long> ids, Sort sort);
+
+    //GET /pedidos/{id}: com persistencia.cache.consultas, o resultado (só o ID) fica no cache de consultas e pedido,
+    //cliente e itens vêm do cache de segundo nível. Qualquer escrita em tb_pedido, tb_item ou tb_cliente invalida
+    //os resultados guardados, então só compensa com leitura repetida do mesmo pedido entre escritas
+    @EntityGraph(attributePaths = {"cliente", "itens"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Pedido> findComItensById(Long id);
+
+    //pelas chaves primárias de pedido e cliente, sem itens: é o que responde um GET condicional sem mudança
+    @Query("SELECT new com.klok.desafio.dto.VersaoPedido(p.versao, c.versao) FROM Pedido p JOIN p.cliente c " +
+            "WHERE p.id = :id")
+    Optional<VersaoPedido> buscarVersao(@Param("id") Long id);
 }
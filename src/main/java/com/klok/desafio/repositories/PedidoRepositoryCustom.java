@@ -0,0 +1,15 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.dto.LinhaExportacaoPedido;
+import com.klok.desafio.entities.Pedido;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface PedidoRepositoryCustom {
+
+    List<Long> buscarIds(Specification<Pedido> especificacao, int limite);
+
+    Stream<LinhaExportacaoPedido> transmitirLinhasExportacao(Specification<Pedido> especificacao);
+}
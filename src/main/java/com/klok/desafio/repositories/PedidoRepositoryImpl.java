@@ -0,0 +1,66 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.dto.LinhaExportacaoPedido;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class PedidoRepositoryImpl implements PedidoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${pedido.exportacao.tamanho-fetch:1000}")
+    private int tamanhoFetch;
+
+    //seleciona só os IDs da página: o grafo completo é carregado depois, de uma vez, por findByIdIn
+    @Override
+    public List<Long> buscarIds(Specification<Pedido> especificacao, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        Root<Pedido> root = consulta.from(Pedido.class);
+
+        Predicate filtro = especificacao.toPredicate(root, consulta, cb);
+        if (filtro != null) {
+            consulta.where(filtro);
+        }
+        consulta.select(root.get("id")).orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(consulta).setMaxResults(limite).getResultList();
+    }
+
+    //cursor só para frente: com fetch size o driver do PostgreSQL lê tamanhoFetch linhas por vez do servidor (exige
+    //transação aberta) em vez de trazer o resultado inteiro. As linhas são projeções, não entidades, então o
+    //contexto de persistência não cresce. O Stream precisa ser fechado por quem consome
+    @Override
+    public Stream<LinhaExportacaoPedido> transmitirLinhasExportacao(Specification<Pedido> especificacao) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LinhaExportacaoPedido> consulta = cb.createQuery(LinhaExportacaoPedido.class);
+        Root<Pedido> root = consulta.from(Pedido.class);
+        Join<Pedido, Item> item = root.join("itens", JoinType.LEFT);
+
+        Predicate filtro = especificacao.toPredicate(root, consulta, cb);
+        if (filtro != null) {
+            consulta.where(filtro);
+        }
+        consulta.select(cb.construct(LinhaExportacaoPedido.class,
+                        root.get("id"), root.get("cliente").get("id"), root.get("total"),
+                        root.get("totalComDesconto"), root.get("emEstoque"), root.get("dataEntrega"),
+                        root.get("cupom"), item.get("id"), item.get("produto").get("id"), item.get("nome"),
+                        item.get("preco"), item.get("quantidade")))
+                .orderBy(cb.asc(root.get("id")), cb.asc(item.get("id")));
+
+        return entityManager.createQuery(consulta)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, tamanhoFetch)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
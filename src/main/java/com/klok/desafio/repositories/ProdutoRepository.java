@@ -0,0 +1,21 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.entities.Produto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, JpaSpecificationExecutor<Produto> {
+
+    //débito condicional numa única instrução: a linha fica travada até o commit e o saldo nunca fica negativo.
+    //Retorna 0 quando não há estoque suficiente
+    @Modifying
+    @Query("update Produto p set p.estoque = p.estoque - :quantidade where p.id = :id and p.estoque >= :quantidade")
+    int debitarEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    @Modifying
+    @Query("update Produto p set p.estoque = p.estoque + :quantidade where p.id = :id")
+    int devolverEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+}
@@ -0,0 +1,12 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.entities.Promocao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+
+public interface PromocaoRepository extends JpaRepository<Promocao, Long>, JpaSpecificationExecutor<Promocao> {
+
+    List<Promocao> findByAtivaTrue();
+}
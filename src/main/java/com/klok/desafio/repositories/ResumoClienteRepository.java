@@ -0,0 +1,41 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.entities.ResumoCliente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface ResumoClienteRepository extends JpaRepository<ResumoCliente, Long> {
+
+    //incremento na própria linha (travada pelo UPDATE): pedidos concorrentes do mesmo cliente não perdem somas.
+    //Data nula (pedido sem entrega) mantém a última data
+    @Modifying
+    @Query("UPDATE ResumoCliente r SET r.quantidadePedidos = r.quantidadePedidos + :quantidade, " +
+            "r.total = r.total + :total, r.totalComDesconto = r.totalComDesconto + :totalComDesconto, " +
+            "r.ultimaDataEntrega = CASE WHEN r.ultimaDataEntrega IS NULL OR r.ultimaDataEntrega < :dataEntrega " +
+            "THEN :dataEntrega ELSE r.ultimaDataEntrega END " +
+            "WHERE r.clienteId = :clienteId")
+    int somar(@Param("clienteId") Long clienteId, @Param("quantidade") long quantidade,
+              @Param("total") BigDecimal total, @Param("totalComDesconto") BigDecimal totalComDesconto,
+              @Param("dataEntrega") LocalDate dataEntrega);
+
+    //a última data não tem como ser desfeita por subtração: volta a ser o máximo dos pedidos restantes, lido pelo
+    //índice idx_pedido_cliente_data_entrega
+    @Modifying
+    @Query("UPDATE ResumoCliente r SET r.quantidadePedidos = r.quantidadePedidos - :quantidade, " +
+            "r.total = r.total - :total, r.totalComDesconto = r.totalComDesconto - :totalComDesconto, " +
+            "r.ultimaDataEntrega = (SELECT MAX(p.dataEntrega) FROM Pedido p WHERE p.cliente.id = :clienteId) " +
+            "WHERE r.clienteId = :clienteId")
+    int subtrair(@Param("clienteId") Long clienteId, @Param("quantidade") long quantidade,
+                 @Param("total") BigDecimal total, @Param("totalComDesconto") BigDecimal totalComDesconto);
+
+    @Query("SELECT new com.klok.desafio.entities.ResumoCliente(p.cliente.id, COUNT(p), " +
+            "COALESCE(SUM(p.total), 0), COALESCE(SUM(p.totalComDesconto), 0), MAX(p.dataEntrega)) " +
+            "FROM Pedido p WHERE p.cliente.id = :clienteId GROUP BY p.cliente.id")
+    Optional<ResumoCliente> calcular(@Param("clienteId") Long clienteId);
+}
@@ -0,0 +1,27 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.entities.VendaHora;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface VendaHoraRepository extends JpaRepository<VendaHora, LocalDateTime> {
+
+    //incremento na própria linha: duas instâncias consolidando a mesma hora não perdem somas
+    @Modifying
+    @Query("UPDATE VendaHora v SET v.quantidadePedidos = v.quantidadePedidos + :quantidadePedidos, " +
+            "v.valorBruto = v.valorBruto + :valorBruto, v.valorLiquido = v.valorLiquido + :valorLiquido, " +
+            "v.descontoVip = v.descontoVip + :descontoVip, v.faltasEstoque = v.faltasEstoque + :faltasEstoque " +
+            "WHERE v.hora = :hora")
+    int somar(@Param("hora") LocalDateTime hora, @Param("quantidadePedidos") long quantidadePedidos,
+              @Param("valorBruto") BigDecimal valorBruto, @Param("valorLiquido") BigDecimal valorLiquido,
+              @Param("descontoVip") BigDecimal descontoVip, @Param("faltasEstoque") long faltasEstoque);
+
+    //pela chave primária: no máximo 24 linhas por dia do período
+    List<VendaHora> findByHoraGreaterThanEqualAndHoraLessThanOrderByHora(LocalDateTime inicio, LocalDateTime fim);
+}
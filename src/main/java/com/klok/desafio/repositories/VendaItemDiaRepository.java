@@ -0,0 +1,28 @@
+package com.klok.desafio.repositories;
+
+import com.klok.desafio.dto.ItemVendido;
+import com.klok.desafio.entities.VendaItemDia;
+import com.klok.desafio.entities.VendaItemDiaId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VendaItemDiaRepository extends JpaRepository<VendaItemDia, VendaItemDiaId> {
+
+    @Modifying
+    @Query("UPDATE VendaItemDia v SET v.quantidade = v.quantidade + :quantidade, v.valor = v.valor + :valor " +
+            "WHERE v.id.dia = :dia AND v.id.nome = :nome")
+    int somar(@Param("dia") LocalDate dia, @Param("nome") String nome, @Param("quantidade") long quantidade,
+              @Param("valor") BigDecimal valor);
+
+    @Query("SELECT new com.klok.desafio.dto.ItemVendido(v.id.nome, SUM(v.quantidade), SUM(v.valor)) " +
+            "FROM VendaItemDia v WHERE v.id.dia BETWEEN :inicio AND :fim " +
+            "GROUP BY v.id.nome ORDER BY SUM(v.quantidade) DESC, v.id.nome")
+    List<ItemVendido> somarPorItem(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim, Limit limite);
+}
@@ -0,0 +1,21 @@
+package com.klok.desafio.repositories.specifications;
+
+import com.klok.desafio.entities.Cliente;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class ClienteSpecifications {
+
+    private ClienteSpecifications() {}
+
+    public static Specification<Cliente> comFiltro(Boolean vip, Long cursor) {
+        return Specification.where(PaginacaoSpecifications.<Cliente>aposCursor(cursor))
+                .and(vip(vip));
+    }
+
+    private static Specification<Cliente> vip(Boolean vip) {
+        if (vip == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("vip"), vip);
+    }
+}
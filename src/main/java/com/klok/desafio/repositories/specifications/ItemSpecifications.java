@@ -0,0 +1,21 @@
+package com.klok.desafio.repositories.specifications;
+
+import com.klok.desafio.entities.Item;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class ItemSpecifications {
+
+    private ItemSpecifications() {}
+
+    public static Specification<Item> comFiltro(Long pedidoId, Long cursor) {
+        return Specification.where(PaginacaoSpecifications.<Item>aposCursor(cursor))
+                .and(doPedido(pedidoId));
+    }
+
+    private static Specification<Item> doPedido(Long pedidoId) {
+        if (pedidoId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("pedido").get("id"), pedidoId);
+    }
+}
@@ -0,0 +1,16 @@
+package com.klok.desafio.repositories.specifications;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public final class PaginacaoSpecifications {
+
+    private PaginacaoSpecifications() {}
+
+    //keyset: continua a partir do último ID entregue, sem OFFSET, usando o índice da chave primária
+    public static <T> Specification<T> aposCursor(Long cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), cursor);
+    }
+}
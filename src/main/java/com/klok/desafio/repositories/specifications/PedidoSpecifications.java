@@ -0,0 +1,52 @@
+package com.klok.desafio.repositories.specifications;
+
+import com.klok.desafio.dto.FiltroPedido;
+import com.klok.desafio.entities.Pedido;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public final class PedidoSpecifications {
+
+    private PedidoSpecifications() {}
+
+    public static Specification<Pedido> comFiltro(FiltroPedido filtro, Long cursor) {
+        Specification<Pedido> especificacao = Specification.where(PaginacaoSpecifications.aposCursor(cursor));
+        if (filtro == null) {
+            return especificacao;
+        }
+        return especificacao
+                .and(doCliente(filtro.getClienteId()))
+                .and(comEntregaAPartirDe(filtro.getDataEntregaInicio()))
+                .and(comEntregaAte(filtro.getDataEntregaFim()))
+                .and(emEstoque(filtro.getEmEstoque()));
+    }
+
+    private static Specification<Pedido> doCliente(Long clienteId) {
+        if (clienteId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("cliente").get("id"), clienteId);
+    }
+
+    private static Specification<Pedido> comEntregaAPartirDe(LocalDate data) {
+        if (data == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dataEntrega"), data);
+    }
+
+    private static Specification<Pedido> comEntregaAte(LocalDate data) {
+        if (data == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dataEntrega"), data);
+    }
+
+    private static Specification<Pedido> emEstoque(Boolean emEstoque) {
+        if (emEstoque == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("emEstoque"), emEstoque);
+    }
+}
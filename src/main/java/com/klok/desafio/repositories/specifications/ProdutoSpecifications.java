@@ -0,0 +1,23 @@
+package com.klok.desafio.repositories.specifications;
+
+import com.klok.desafio.entities.Produto;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class ProdutoSpecifications {
+
+    private ProdutoSpecifications() {}
+
+    public static Specification<Produto> comFiltro(Boolean disponivel, Long cursor) {
+        return Specification.where(PaginacaoSpecifications.<Produto>aposCursor(cursor))
+                .and(disponivel(disponivel));
+    }
+
+    private static Specification<Produto> disponivel(Boolean disponivel) {
+        if (disponivel == null) {
+            return null;
+        }
+        return (root, query, cb) -> disponivel
+                ? cb.greaterThan(root.get("estoque"), 0)
+                : cb.lessThanOrEqualTo(root.get("estoque"), 0);
+    }
+}
@@ -1,14 +1,13 @@
 package com.klok.desafio.services.cliente;
 
+import com.klok.desafio.dto.Pagina;
 import com.klok.desafio.entities.Cliente;
 
-import java.util.List;
-
 public interface ClienteService {
 
-    Cliente buscarPorId(Long id) throws Exception;
+    Cliente buscarPorId(Long id);
 
-    List<Cliente> listarClientes();
+    Pagina<Cliente> listarClientes(Boolean vip, Long cursor, Integer limite);
 
     Cliente salvarCliente(Cliente cliente);
 
@@ -1,45 +1,69 @@
 package com.klok.desafio.services.cliente;
 
+import com.klok.desafio.config.CacheConfig;
+import com.klok.desafio.dto.Pagina;
 import com.klok.desafio.entities.Cliente;
 import com.klok.desafio.exceptions.BusinessRuleException;
 import com.klok.desafio.exceptions.DatabaseException;
 import com.klok.desafio.exceptions.ResourceNotFoundException;
 import com.klok.desafio.repositories.ClienteRepository;
+import com.klok.desafio.repositories.specifications.ClienteSpecifications;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+//consultas em transação somente leitura (Hibernate não faz dirty checking nem flush); escritas em transações
+//próprias, curtas e sem E-S externa
 @Service
+@Transactional(readOnly = true)
 public class ClienteServiceImpl implements ClienteService{
 
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private ResumoClienteService resumoClienteService;
+
+    //lido em todo pedido (desconto VIP e e-mail); clientes recorrentes não vão ao banco enquanto estiverem no cache.
+    //Cliente inexistente rejeita só o pedido que o referencia, sem marcar para rollback o bloco do cadastro em lote
     @Override
-    public Cliente buscarPorId(Long id) throws Exception {
+    @Cacheable(cacheNames = CacheConfig.CACHE_CLIENTES, key = "#id")
+    @Transactional(readOnly = true, noRollbackFor = ResourceNotFoundException.class)
+    public Cliente buscarPorId(Long id) {
         Optional<Cliente> cliente = clienteRepository.findById(id);
         return cliente.orElseThrow(() -> new ResourceNotFoundException(id));
     }
 
     @Override
-    public List<Cliente> listarClientes() {
-        List<Cliente> clientes = clienteRepository.findAll();
-        if (clientes.isEmpty()) {
+    public Pagina<Cliente> listarClientes(Boolean vip, Long cursor, Integer limite) {
+        int tamanho = Pagina.limiteValido(limite);
+        List<Cliente> clientes = clienteRepository.findBy(ClienteSpecifications.comFiltro(vip, cursor),
+                consulta -> consulta.sortBy(Sort.by("id")).limit(tamanho + 1).all());
+        if (clientes.isEmpty() && cursor == null) {
             throw new BusinessRuleException("Nenhum cliente encontrado.");
         }
-        return clientes;
+        return Pagina.de(clientes, tamanho, Cliente::getId);
     }
 
     @Override
+    @Transactional
     public Cliente salvarCliente(Cliente cliente) {
-        return clienteRepository.save(cliente);
+        cliente = clienteRepository.save(cliente);
+        resumoClienteService.criar(cliente.getId());
+        return cliente;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_CLIENTES, key = "#id")
     public Cliente atualizarCliente(Long id, Cliente cliente) {
         try {
             Cliente clienteUpdate = clienteRepository.getReferenceById(id);
@@ -51,12 +75,17 @@ public class ClienteServiceImpl implements ClienteService{
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_CLIENTES, key = "#id")
     public void excluirCliente(Long id) {
         if (!clienteRepository.existsById(id)) {
             throw new ResourceNotFoundException(id);
         }
         try {
+            resumoClienteService.excluir(id);
             clienteRepository.deleteById(id);
+            //a violação de integridade aparece no flush: sem ele só viria no commit, fora deste catch
+            clienteRepository.flush();
         } catch (DataIntegrityViolationException e){
             throw new DatabaseException(e.getMessage());
         }
@@ -0,0 +1,25 @@
+package com.klok.desafio.services.cliente;
+
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.ResumoCliente;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ResumoClienteService {
+
+    ResumoCliente buscarPorCliente(Long clienteId);
+
+    void criar(Long clienteId);
+
+    void registrarPedido(Pedido pedido);
+
+    void registrarPedidos(List<Pedido> pedidos);
+
+    void removerPedido(Long clienteId, BigDecimal total, BigDecimal totalComDesconto);
+
+    void substituirPedido(Long clienteAnterior, BigDecimal totalAnterior, BigDecimal totalComDescontoAnterior,
+                          Pedido pedido);
+
+    void excluir(Long clienteId);
+}
@@ -0,0 +1,120 @@
+package com.klok.desafio.services.cliente;
+
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.ResumoCliente;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.repositories.ResumoClienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+//só altera o resumo dentro da transação de quem grava o cliente ou o pedido: o resumo e o pedido são confirmados
+//ou desfeitos juntos
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class ResumoClienteServiceImpl implements ResumoClienteService {
+
+    @Autowired
+    private ResumoClienteRepository resumoClienteRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResumoCliente buscarPorCliente(Long clienteId) {
+        return resumoClienteRepository.findById(clienteId)
+                .orElseThrow(() -> new ResourceNotFoundException(clienteId));
+    }
+
+    @Override
+    public void criar(Long clienteId) {
+        resumoClienteRepository.save(new ResumoCliente(clienteId, 0L, BigDecimal.ZERO, BigDecimal.ZERO, null));
+    }
+
+    @Override
+    public void registrarPedido(Pedido pedido) {
+        registrarPedidos(List.of(pedido));
+    }
+
+    //um UPDATE por cliente, com os pedidos do lote já somados. A ordem por ID faz as transações travarem as linhas
+    //de resumo na mesma sequência, como o estoque
+    @Override
+    public void registrarPedidos(List<Pedido> pedidos) {
+        SortedMap<Long, Acumulado> porCliente = new TreeMap<>();
+        for (Pedido pedido : pedidos) {
+            porCliente.computeIfAbsent(pedido.getCliente().getId(), id -> new Acumulado()).somar(pedido);
+        }
+        porCliente.forEach((clienteId, acumulado) -> {
+            int alterados = resumoClienteRepository.somar(clienteId, acumulado.quantidade, acumulado.total,
+                    acumulado.totalComDesconto, acumulado.ultimaDataEntrega);
+            if (alterados == 0) {
+                recalcular(clienteId);
+            }
+        });
+    }
+
+    //o pedido já precisa estar excluído ou alterado no banco: a última data de entrega é relida dos pedidos
+    @Override
+    public void removerPedido(Long clienteId, BigDecimal total, BigDecimal totalComDesconto) {
+        subtrair(clienteId, total, totalComDesconto);
+    }
+
+    //pedido já gravado cujos totais ou cliente mudaram: os valores antigos saem do resumo do cliente anterior e os
+    //novos entram no do atual. Se o resumo do cliente anterior precisou ser recalculado, ele foi relido dos pedidos
+    //gravados e já inclui o pedido quando o cliente não mudou, então não é somado de novo
+    @Override
+    public void substituirPedido(Long clienteAnterior, BigDecimal totalAnterior, BigDecimal totalComDescontoAnterior,
+                                 Pedido pedido) {
+        boolean recalculado = !subtrair(clienteAnterior, totalAnterior, totalComDescontoAnterior);
+        if (!recalculado || !clienteAnterior.equals(pedido.getCliente().getId())) {
+            registrarPedido(pedido);
+        }
+    }
+
+    @Override
+    public void excluir(Long clienteId) {
+        resumoClienteRepository.deleteById(clienteId);
+    }
+
+    //false quando o cliente não tinha linha de resumo e ela foi recalculada a partir dos pedidos gravados
+    private boolean subtrair(Long clienteId, BigDecimal total, BigDecimal totalComDesconto) {
+        resumoClienteRepository.flush();
+        if (resumoClienteRepository.subtrair(clienteId, 1, total, totalComDesconto) == 0) {
+            recalcular(clienteId);
+            return false;
+        }
+        return true;
+    }
+
+    //cliente sem linha de resumo (cadastrado por fora do ClienteService): o resumo nasce dos pedidos gravados,
+    //incluindo os desta transação
+    private void recalcular(Long clienteId) {
+        resumoClienteRepository.flush();
+        ResumoCliente resumo = resumoClienteRepository.calcular(clienteId)
+                .orElseGet(() -> new ResumoCliente(clienteId, 0L, BigDecimal.ZERO, BigDecimal.ZERO, null));
+        resumoClienteRepository.save(resumo);
+    }
+
+    private static class Acumulado {
+
+        private long quantidade;
+        private BigDecimal total = BigDecimal.ZERO;
+        private BigDecimal totalComDesconto = BigDecimal.ZERO;
+        private LocalDate ultimaDataEntrega;
+
+        private void somar(Pedido pedido) {
+            quantidade++;
+            total = total.add(pedido.getTotal());
+            totalComDesconto = totalComDesconto.add(pedido.getTotalComDesconto());
+            LocalDate dataEntrega = pedido.getDataEntrega();
+            if (dataEntrega != null && (ultimaDataEntrega == null || dataEntrega.isAfter(ultimaDataEntrega))) {
+                ultimaDataEntrega = dataEntrega;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.klok.desafio.services.idempotencia;
+
+import com.klok.desafio.dto.RespostaIdempotente;
+
+import java.util.Optional;
+
+public interface IdempotenciaService {
+
+    String calcularHash(Object requisicao);
+
+    Optional<RespostaIdempotente> buscar(String chave, String hashRequisicao);
+
+    void reservar(String chave, String hashRequisicao);
+
+    RespostaIdempotente concluir(String chave, Long recursoId, Object corpo);
+
+    void excluirExpiradas();
+}
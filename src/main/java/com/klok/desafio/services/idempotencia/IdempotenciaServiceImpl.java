@@ -0,0 +1,140 @@
+package com.klok.desafio.services.idempotencia;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klok.desafio.config.CacheConfig;
+import com.klok.desafio.dto.RespostaIdempotente;
+import com.klok.desafio.entities.ChaveIdempotencia;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.repositories.ChaveIdempotenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+//Chaves em dois níveis: o cache em memória (Caffeine, CacheConfig.CACHE_IDEMPOTENCIA) atende as repetições
+//recentes sem ir ao banco e a tabela tb_chave_idempotencia garante a resposta entre instâncias e reinícios
+//até idempotencia.validade
+@Service
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaServiceImpl.class);
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    @Autowired
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotencia.validade:24h}")
+    private Duration validade;
+
+    //a mesma chave só pode ser repetida com o mesmo corpo; o hash é do JSON da requisição já desserializada
+    @Override
+    public String calcularHash(Object requisicao) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(requisicao)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Erro ao calcular o hash da requisição", e);
+        }
+    }
+
+    @Override
+    public Optional<RespostaIdempotente> buscar(String chave, String hashRequisicao) {
+        validarChave(chave);
+        RespostaIdempotente resposta = cache().get(chave, RespostaIdempotente.class);
+        if (resposta == null) {
+            resposta = chaveIdempotenciaRepository.findById(chave)
+                    .filter(registro -> registro.getExpiraEm().isAfter(Instant.now()))
+                    .map(registro -> new RespostaIdempotente(registro.getHashRequisicao(), registro.getRecursoId(),
+                            registro.getCorpo(), false))
+                    .orElse(null);
+            if (resposta == null) {
+                return Optional.empty();
+            }
+            cache().put(chave, resposta);
+        }
+        if (!resposta.getHashRequisicao().equals(hashRequisicao)) {
+            throw new BusinessRuleException("A Idempotency-Key " + chave + " já foi usada com outra requisição.");
+        }
+        return Optional.of(resposta.comoRepetida());
+    }
+
+    //a chave é inserida antes da operação e na mesma transação: uma requisição concorrente com a mesma chave
+    //espera na chave primária e falha quando esta confirma, em vez de criar o recurso em dobro. Se a operação
+    //falhar, a transação desfaz a chave junto e a requisição pode ser repetida. Uma chave vencida que a limpeza
+    //ainda não excluiu é liberada aqui
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reservar(String chave, String hashRequisicao) {
+        validarChave(chave);
+        Instant agora = Instant.now();
+        chaveIdempotenciaRepository.excluirSeExpirada(chave, agora);
+        chaveIdempotenciaRepository.saveAndFlush(
+                new ChaveIdempotencia(chave, hashRequisicao, agora, agora.plus(validade)));
+    }
+
+    //serializa o corpo ainda dentro da transação (associações LAZY disponíveis) e só publica no cache após o commit
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public RespostaIdempotente concluir(String chave, Long recursoId, Object corpo) {
+        ChaveIdempotencia registro = chaveIdempotenciaRepository.getReferenceById(chave);
+        try {
+            registro.setCorpo(objectMapper.writeValueAsString(corpo));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar a resposta da requisição", e);
+        }
+        registro.setRecursoId(recursoId);
+
+        RespostaIdempotente resposta = new RespostaIdempotente(registro.getHashRequisicao(), recursoId,
+                registro.getCorpo(), false);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache().put(chave, resposta);
+            }
+        });
+        return resposta;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${idempotencia.limpeza-ms:3600000}")
+    public void excluirExpiradas() {
+        int excluidas = chaveIdempotenciaRepository.excluirExpiradas(Instant.now());
+        if (excluidas > 0) {
+            log.debug("{} chaves de idempotência expiradas excluídas", excluidas);
+        }
+    }
+
+    private void validarChave(String chave) {
+        if (chave == null || chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new BusinessRuleException("A Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE +
+                    " caracteres.");
+        }
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.CACHE_IDEMPOTENCIA);
+    }
+}
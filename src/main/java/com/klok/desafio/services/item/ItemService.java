@@ -1,18 +1,17 @@
 package com.klok.desafio.services.item;
 
+import com.klok.desafio.dto.Pagina;
 import com.klok.desafio.entities.Item;
 
-import java.util.List;
-
 public interface ItemService {
 
-    List<Item> listarItens();
+    Pagina<Item> listarItens(Long pedidoId, Long cursor, Integer limite);
 
     Item buscarItemPorId(Long id);
 
-    Item salvarItem(Item item);
+    Long buscarVersao(Long id);
 
-    Item atualizarItem(Long id, Item item);
+    Item salvarItem(Item item);
 
     void excluirItem(Long id);
 }
\ No newline at end of file
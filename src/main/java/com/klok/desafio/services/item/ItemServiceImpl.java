@@ -1,19 +1,23 @@
 package com.klok.desafio.services.item;
 
+import com.klok.desafio.dto.Pagina;
 import com.klok.desafio.entities.Item;
-import com.klok.desafio.entities.Pedido;
 import com.klok.desafio.exceptions.BusinessRuleException;
 import com.klok.desafio.exceptions.ResourceNotFoundException;
 import com.klok.desafio.repositories.ItemRepository;
+import com.klok.desafio.repositories.specifications.ItemSpecifications;
 import com.klok.desafio.services.item.utils.ItemValidator;
 import com.klok.desafio.services.pedido.PedidoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
     @Autowired
@@ -26,12 +30,14 @@ public class ItemServiceImpl implements ItemService {
     private PedidoService pedidoService;
 
     @Override
-    public List<Item> listarItens() {
-        List<Item> itens = itemRepository.findAll();
-        if (itens.isEmpty()) {
+    public Pagina<Item> listarItens(Long pedidoId, Long cursor, Integer limite) {
+        int tamanho = Pagina.limiteValido(limite);
+        List<Item> itens = itemRepository.findBy(ItemSpecifications.comFiltro(pedidoId, cursor),
+                consulta -> consulta.sortBy(Sort.by("id")).limit(tamanho + 1).all());
+        if (itens.isEmpty() && cursor == null) {
                 throw new BusinessRuleException("Nenhum item encontrado.");
         }
-        return itens;
+        return Pagina.de(itens, tamanho, Item::getId);
     }
 
     @Override
@@ -40,8 +46,14 @@ public class ItemServiceImpl implements ItemService {
         return item.orElseThrow(() -> new ResourceNotFoundException(id));
     }
 
+    @Override
+    public Long buscarVersao(Long id) {
+        return itemRepository.buscarVersao(id).orElseThrow(() -> new ResourceNotFoundException(id));
+    }
+
     //Implementado mesmo que não se salva item isolado e sim só através de pedido
     @Override
+    @Transactional
     public Item salvarItem(Item item) {
         if (item == null) {
             throw new BusinessRuleException("O item não pode ser nulo.");
@@ -51,33 +63,12 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public Item atualizarItem(Long id, Item itemAtualizado) {
-        Item itemExistente = itemRepository.getReferenceById(id);
-
-        if (itemAtualizado.getNome() != null) {
-            itemExistente.setNome(itemAtualizado.getNome());
-        }
-
-        return itemRepository.save(itemExistente);
-    }
-
-    @Override
+    @Transactional
     public void excluirItem(Long id) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(id));
 
-        Pedido pedido = item.getPedido();
-        pedido.getItens().remove(item);
-        item.setPedido(null);
         //ao remover um item de um pedido, automaticamente esse item é apagado do banco
-        pedidoService.salvarPedido(pedido);
-    }
-
-    private void atualizarDados(Item itemExistente, Item itemAtualizado){
-        itemExistente.setNome(itemAtualizado.getNome());
-        itemExistente.setPreco(itemAtualizado.getPreco());
-        itemExistente.setQuantidade(itemAtualizado.getQuantidade());
-        itemExistente.setEstoque(itemAtualizado.getEstoque());
-        itemExistente.setPedido(itemAtualizado.getPedido());
+        pedidoService.removerItem(item);
     }
 }
\ No newline at end of file
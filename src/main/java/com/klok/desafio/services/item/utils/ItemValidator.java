@@ -10,10 +10,19 @@ import java.math.BigDecimal;
 public class ItemValidator {
 
     public void validarItem(Item item) {
+        validarQuantidade(item);
+        validarPreco(item);
+    }
+
+    //no processamento do pedido a quantidade vem do payload e é checada antes de qualquer consulta; o preço vem
+    //do catálogo e só pode ser checado depois que o produto é resolvido
+    public void validarQuantidade(Item item) {
         if (item.getQuantidade() == null || item.getQuantidade() <= 0) {
             throw new BusinessRuleException("Item do pedido possui uma quantidade inválida.");
         }
+    }
 
+    public void validarPreco(Item item) {
         if (item.getPreco() == null || item.getPreco().compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessRuleException("Item do pedido possui um preço inválido.");
         }
@@ -1,10 +1,11 @@
 package com.klok.desafio.services.notificacao;
 
-public class Mensagem {
+//imutável: cada envio monta a sua própria mensagem, sem estado compartilhado entre requisições
+public final class Mensagem {
 
-    private String destinatario;
-    private String titulo;
-    private String conteudo;
+    private final String destinatario;
+    private final String titulo;
+    private final String conteudo;
 
     public Mensagem(String destinatario, String titulo, String conteudo) {
         this.destinatario = destinatario;
@@ -16,23 +17,11 @@ public class Mensagem {
         return destinatario;
     }
 
-    public void setDestinatario(String destinatario) {
-        this.destinatario = destinatario;
-    }
-
     public String getTitulo() {
         return titulo;
     }
 
-    public void setTitulo(String titulo) {
-        this.titulo = titulo;
-    }
-
     public String getConteudo() {
         return conteudo;
     }
-
-    public void setConteudo(String conteudo) {
-        this.conteudo = conteudo;
-    }
 }
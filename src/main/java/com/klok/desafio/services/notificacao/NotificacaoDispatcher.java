@@ -0,0 +1,87 @@
+package com.klok.desafio.services.notificacao;
+
+import com.klok.desafio.entities.Notificacao;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+public class NotificacaoDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacaoDispatcher.class);
+
+    @Autowired
+    private NotificacaoOutboxService notificacaoOutboxService;
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @Value("${notificacao.outbox.tamanho-lote:50}")
+    private int tamanhoLote;
+
+    @Value("${email.smtp.pool.tamanho-maximo:8}")
+    private int envioConcorrente;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
+    private Executor executor;
+
+    @PostConstruct
+    public void iniciar() {
+        if (threadsVirtuais && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            //uma thread virtual por envio: quem espera conexão livre no semáforo do pool SMTP não ocupa thread
+            //de plataforma. O envio em si (SMTPTransport é synchronized) prende a thread à portadora, no máximo
+            //email.smtp.pool.tamanho-maximo delas ao mesmo tempo
+            executor = new VirtualThreadTaskExecutor("notificacao-");
+        } else {
+            //uma thread por conexão do pool SMTP: mais que isso só ficaria bloqueado esperando conexão livre
+            executor = Executors.newFixedThreadPool(envioConcorrente, new CustomizableThreadFactory("notificacao-"));
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdown();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notificacao.outbox.intervalo-ms:5000}")
+    public void despacharPendentes() {
+        List<Notificacao> lote;
+        do {
+            lote = notificacaoOutboxService.reservarLote();
+            CompletableFuture<?>[] envios = lote.stream()
+                    .map(notificacao -> CompletableFuture.runAsync(() -> despachar(notificacao), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(envios).join();
+        } while (!lote.isEmpty() && lote.size() >= tamanhoLote);
+    }
+
+    private void despachar(Notificacao notificacao) {
+        Mensagem mensagem = new Mensagem(notificacao.getDestinatario(), notificacao.getTitulo(),
+                notificacao.getConteudo());
+        try {
+            notificacaoService.enviarEmail(mensagem);
+            notificacaoOutboxService.confirmarEnvio(notificacao.getId());
+        } catch (Exception e) {
+            log.warn("Falha ao enviar notificação {}: {}", notificacao.getId(), e.getMessage());
+            notificacaoOutboxService.registrarFalha(notificacao.getId(), e.getMessage());
+        }
+    }
+}
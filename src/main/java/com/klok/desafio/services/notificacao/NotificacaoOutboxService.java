@@ -0,0 +1,16 @@
+package com.klok.desafio.services.notificacao;
+
+import com.klok.desafio.entities.Notificacao;
+
+import java.util.List;
+
+public interface NotificacaoOutboxService {
+
+    void registrar(Mensagem mensagem);
+
+    List<Notificacao> reservarLote();
+
+    void confirmarEnvio(Long id);
+
+    void registrarFalha(Long id, String erro);
+}
@@ -0,0 +1,97 @@
+package com.klok.desafio.services.notificacao;
+
+import com.klok.desafio.entities.Notificacao;
+import com.klok.desafio.entities.StatusNotificacao;
+import com.klok.desafio.repositories.NotificacaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class NotificacaoOutboxServiceImpl implements NotificacaoOutboxService {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Value("${notificacao.outbox.tamanho-lote:50}")
+    private int tamanhoLote;
+
+    @Value("${notificacao.outbox.max-tentativas:8}")
+    private int maxTentativas;
+
+    @Value("${notificacao.outbox.backoff-inicial:10s}")
+    private Duration backoffInicial;
+
+    @Value("${notificacao.outbox.backoff-maximo:1h}")
+    private Duration backoffMaximo;
+
+    @Value("${notificacao.outbox.tempo-reserva:5m}")
+    private Duration tempoReserva;
+
+    @Override
+    public void registrar(Mensagem mensagem) {
+        Notificacao notificacao = new Notificacao(mensagem.getDestinatario(), mensagem.getTitulo(),
+                mensagem.getConteudo(), Instant.now());
+        notificacaoRepository.save(notificacao);
+    }
+
+    @Override
+    @Transactional
+    public List<Notificacao> reservarLote() {
+        Instant agora = Instant.now();
+        List<Notificacao> notificacoes = notificacaoRepository.buscarPendentesParaEnvio(agora, tamanhoLote);
+
+        //a reserva empurra a próxima tentativa: se a instância cair durante o envio, o registro volta
+        //para a fila quando a reserva expirar (entrega pelo menos uma vez)
+        Instant fimReserva = agora.plus(tempoReserva);
+        notificacoes.forEach(notificacao -> notificacao.setProximaTentativa(fimReserva));
+        return notificacoes;
+    }
+
+    @Override
+    @Transactional
+    public void confirmarEnvio(Long id) {
+        notificacaoRepository.findById(id).ifPresent(notificacao -> {
+            notificacao.setStatus(StatusNotificacao.ENVIADA);
+            notificacao.setEnviadoEm(Instant.now());
+            notificacao.setUltimoErro(null);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void registrarFalha(Long id, String erro) {
+        notificacaoRepository.findById(id).ifPresent(notificacao -> {
+            int tentativas = notificacao.getTentativas() + 1;
+            notificacao.setTentativas(tentativas);
+            notificacao.setUltimoErro(truncarErro(erro));
+
+            if (tentativas >= maxTentativas) {
+                notificacao.setStatus(StatusNotificacao.FALHA);
+            } else {
+                notificacao.setProximaTentativa(Instant.now().plus(calcularBackoff(tentativas)));
+            }
+        });
+    }
+
+    private Duration calcularBackoff(int tentativas) {
+        //backoff exponencial: inicial * 2^(tentativas - 1), limitado ao máximo configurado
+        int expoente = Math.min(tentativas - 1, 30);
+        Duration backoff = backoffInicial.multipliedBy(1L << expoente);
+        return backoff.compareTo(backoffMaximo) > 0 ? backoffMaximo : backoff;
+    }
+
+    private String truncarErro(String erro) {
+        if (erro == null || erro.length() <= TAMANHO_MAXIMO_ERRO) {
+            return erro;
+        }
+        return erro.substring(0, TAMANHO_MAXIMO_ERRO);
+    }
+}
@@ -1,38 +1,35 @@
 package com.klok.desafio.services.notificacao;
 
-import jakarta.annotation.PostConstruct;
-import org.apache.commons.mail.DefaultAuthenticator;
 import org.apache.commons.mail.EmailException;
-import org.apache.commons.mail.SimpleEmail;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.mail.MessagingException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+
 @Service
-public class NotificacaoServiceImpl extends SimpleEmail implements NotificacaoService {
+public class NotificacaoServiceImpl implements NotificacaoService {
+
+    @Autowired
+    private PoolConexoesSmtp poolConexoesSmtp;
 
     @Value("${email.usuario}")
     private String usuario;
 
-    @Value("${email.senha}")
-    private String senha;
-
-    @PostConstruct
-    public void init() {
-        setHostName("smtp.gmail.com");
-        setSmtpPort(587);
-        setAuthenticator(new DefaultAuthenticator(usuario, senha));
-        setStartTLSEnabled(true);
+    @Override
+    public void enviarEmail(Mensagem mensagem) throws EmailException {
         try {
-            setFrom(usuario);
-        } catch (EmailException e) {
-            throw new RuntimeException(e);
+            MimeMessage email = poolConexoesSmtp.novaMensagem();
+            email.setFrom(new InternetAddress(usuario));
+            email.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress(mensagem.getDestinatario()));
+            email.setSubject(mensagem.getTitulo(), StandardCharsets.UTF_8.name());
+            email.setText(mensagem.getConteudo(), StandardCharsets.UTF_8.name());
+            poolConexoesSmtp.enviar(email);
+        } catch (MessagingException e) {
+            throw new EmailException(e.getMessage(), e);
         }
     }
-
-    public void enviarEmail(Mensagem mensagem) throws EmailException {
-        setSubject(mensagem.getTitulo());
-        setMsg(mensagem.getConteudo());
-        addTo(mensagem.getDestinatario());
-        send();
-    }
 }
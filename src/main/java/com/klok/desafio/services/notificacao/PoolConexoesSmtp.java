@@ -0,0 +1,130 @@
+package com.klok.desafio.services.notificacao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+//Pool limitado de conexões SMTP reaproveitáveis. O semáforo limita quantos envios acontecem ao mesmo tempo
+//e as conexões ociosas ficam abertas para evitar um novo handshake TLS por mensagem.
+public class PoolConexoesSmtp implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolConexoesSmtp.class);
+
+    private final Session session;
+    private final String host;
+    private final int porta;
+    private final String usuario;
+    private final String senha;
+    private final Duration tempoEspera;
+    private final long tempoOciosoMaximoNanos;
+
+    private final Semaphore permissoes;
+    private final LinkedBlockingDeque<ConexaoSmtp> ociosas = new LinkedBlockingDeque<>();
+
+    private volatile boolean fechado;
+
+    public PoolConexoesSmtp(Session session, String host, int porta, String usuario, String senha,
+                            int tamanhoMaximo, Duration tempoEspera, Duration tempoOciosoMaximo) {
+        if (tamanhoMaximo <= 0) {
+            throw new IllegalArgumentException("O pool SMTP deve ter ao menos uma conexão.");
+        }
+        this.session = session;
+        this.host = host;
+        this.porta = porta;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.tempoEspera = tempoEspera;
+        this.tempoOciosoMaximoNanos = tempoOciosoMaximo.toNanos();
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+    }
+
+    public MimeMessage novaMensagem() {
+        return new MimeMessage(session);
+    }
+
+    public void enviar(MimeMessage mensagem) throws MessagingException {
+        adquirirPermissao();
+        ConexaoSmtp conexao = null;
+        boolean saudavel = false;
+        try {
+            conexao = obterConexao();
+            conexao.transport().sendMessage(mensagem, mensagem.getAllRecipients());
+            saudavel = true;
+        } finally {
+            devolver(conexao, saudavel);
+            permissoes.release();
+        }
+    }
+
+    public int conexoesOciosas() {
+        return ociosas.size();
+    }
+
+    @Override
+    public void close() {
+        fechado = true;
+        ConexaoSmtp conexao;
+        while ((conexao = ociosas.pollFirst()) != null) {
+            fecharSilenciosamente(conexao.transport());
+        }
+    }
+
+    protected Transport abrirTransporte() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, porta, usuario, senha);
+        return transport;
+    }
+
+    private void adquirirPermissao() throws MessagingException {
+        try {
+            if (!permissoes.tryAcquire(tempoEspera.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Tempo esgotado aguardando uma conexão SMTP livre.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrompido aguardando uma conexão SMTP livre.", e);
+        }
+    }
+
+    private ConexaoSmtp obterConexao() throws MessagingException {
+        long agora = System.nanoTime();
+        ConexaoSmtp conexao;
+        //LIFO: a conexão usada por último é a que tem mais chance de ainda estar aberta no servidor
+        while ((conexao = ociosas.pollFirst()) != null) {
+            if (agora - conexao.ultimoUso() <= tempoOciosoMaximoNanos && conexao.transport().isConnected()) {
+                return conexao;
+            }
+            fecharSilenciosamente(conexao.transport());
+        }
+        return new ConexaoSmtp(abrirTransporte(), agora);
+    }
+
+    private void devolver(ConexaoSmtp conexao, boolean saudavel) {
+        if (conexao == null) {
+            return;
+        }
+        if (saudavel && !fechado) {
+            ociosas.offerFirst(new ConexaoSmtp(conexao.transport(), System.nanoTime()));
+        } else {
+            fecharSilenciosamente(conexao.transport());
+        }
+    }
+
+    private void fecharSilenciosamente(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Falha ao fechar conexão SMTP: {}", e.getMessage());
+        }
+    }
+
+    private record ConexaoSmtp(Transport transport, long ultimoUso) {}
+}
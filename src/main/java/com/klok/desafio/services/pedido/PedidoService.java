@@ -1,17 +1,39 @@
 package com.klok.desafio.services.pedido;
 
+import com.klok.desafio.dto.FiltroPedido;
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.dto.RespostaIdempotente;
+import com.klok.desafio.dto.ResultadoPedidoLote;
+import com.klok.desafio.dto.VersaoPedido;
+import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.services.pedido.exportacao.FormatoExportacao;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface PedidoService {
     Pedido buscarPorId(Long id);
 
-    List<Pedido> listarPedidos();
+    VersaoPedido buscarVersao(Long id);
+
+    Pagina<Pedido> listarPedidos(FiltroPedido filtro, Long cursor, Integer limite);
+
+    Flux<Pedido> transmitirPedidos(FiltroPedido filtro, Long cursor);
+
+    void exportarPedidos(FiltroPedido filtro, FormatoExportacao formato, OutputStream saida) throws IOException;
 
     Pedido salvarPedido(Pedido pedido);
 
+    RespostaIdempotente salvarPedido(Pedido pedido, String chaveIdempotencia);
+
+    List<ResultadoPedidoLote> salvarPedidosEmLote(List<Pedido> pedidos);
+
     Pedido atualizarPedido(Long id, Pedido pedido);
 
+    Pedido removerItem(Item item);
+
     void excluirPedido(Long id);
 }
\ No newline at end of file
@@ -1,21 +1,55 @@
 package com.klok.desafio.services.pedido;
 
+import com.klok.desafio.dto.FiltroPedido;
+import com.klok.desafio.dto.LinhaExportacaoPedido;
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.dto.RespostaIdempotente;
+import com.klok.desafio.dto.ResultadoPedidoLote;
+import com.klok.desafio.dto.VersaoPedido;
 import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
 import com.klok.desafio.exceptions.BusinessRuleException;
 import com.klok.desafio.exceptions.DatabaseException;
 import com.klok.desafio.exceptions.ResourceNotFoundException;
 import com.klok.desafio.repositories.PedidoRepository;
+import com.klok.desafio.repositories.specifications.PedidoSpecifications;
+import com.klok.desafio.services.cliente.ResumoClienteService;
+import com.klok.desafio.services.idempotencia.IdempotenciaService;
+import com.klok.desafio.services.pedido.exportacao.ExportadorPedidos;
+import com.klok.desafio.services.pedido.exportacao.FormatoExportacao;
+import com.klok.desafio.services.pedido.utils.CalculadoraPedidoService;
+import com.klok.desafio.services.pedido.utils.EstoqueService;
+import com.klok.desafio.services.pedido.utils.PedidoValidator;
 import com.klok.desafio.services.pedido.utils.ProcessarPedidoService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+//consultas em transação somente leitura (sem dirty checking nem flush, conexão marcada como read-only) e cada
+//escrita numa transação própria. O e-mail do pedido vai para a outbox na mesma transação e o envio SMTP acontece
+//depois, no NotificacaoDispatcher: nenhuma transação fica aberta esperando E-S externa
 @Service
+@Transactional(readOnly = true)
 public class PedidoServiceImpl implements PedidoService {
 
     @Autowired
@@ -24,53 +58,251 @@ public class PedidoServiceImpl implements PedidoService {
     @Autowired
     private ProcessarPedidoService processarPedidoService;
 
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private CalculadoraPedidoService calculadoraPedidoService;
+
+    @Autowired
+    private PedidoValidator pedidoValidator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ExportadorPedidos exportadorPedidos;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private ResumoClienteService resumoClienteService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${pedido.lote.tamanho-maximo:5000}")
+    private int tamanhoMaximoLote;
+
+    @Value("${pedido.lote.tamanho-chunk:100}")
+    private int tamanhoChunk;
+
+    @Value("${pedido.stream.tamanho-bloco:500}")
+    private int tamanhoBlocoStream;
+
     @Override
     public Pedido buscarPorId(Long id) {
-        Optional<Pedido> pedido = pedidoRepository.findById(id);
+        Optional<Pedido> pedido = pedidoRepository.findComItensById(id);
         return pedido.orElseThrow(() -> new ResourceNotFoundException(id));
     }
 
     @Override
-    public List<Pedido> listarPedidos() {
-        List<Pedido> pedidos = pedidoRepository.findAll();
-        if (pedidos.isEmpty()) {
+    public VersaoPedido buscarVersao(Long id) {
+        return pedidoRepository.buscarVersao(id).orElseThrow(() -> new ResourceNotFoundException(id));
+    }
+
+    //duas consultas por página, independente do tamanho: os IDs (keyset) e depois pedidos com cliente e itens
+    @Override
+    public Pagina<Pedido> listarPedidos(FiltroPedido filtro, Long cursor, Integer limite) {
+        Pagina<Pedido> pagina = buscarBloco(filtro, cursor, Pagina.limiteValido(limite));
+        if (pagina.getConteudo().isEmpty() && cursor == null) {
             throw new BusinessRuleException("Nenhum pedido encontrado.");
         }
-        return pedidos;
+        return pagina;
+    }
+
+    //a listagem inteira como um fluxo de blocos keyset: generate só é chamado quando o cliente pede mais pedidos,
+    //então um bloco novo só é lido depois que o anterior foi escrito na resposta e no máximo dois blocos ficam em
+    //memória. As consultas (bloqueantes, JPA) rodam no boundedElastic, fora da thread da requisição e fora de
+    //transação: a conexão volta ao pool entre um bloco e outro, em vez de ficar presa durante a transmissão inteira
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<Pedido> transmitirPedidos(FiltroPedido filtro, Long cursor) {
+        return Flux.<List<Pedido>, Long>generate(() -> cursor == null ? 0L : cursor, (ultimoId, sink) -> {
+                    Pagina<Pedido> bloco = buscarBloco(filtro, ultimoId, tamanhoBlocoStream);
+                    if (!bloco.getConteudo().isEmpty()) {
+                        sink.next(bloco.getConteudo());
+                    }
+                    if (bloco.getProximoCursor() == null) {
+                        sink.complete();
+                        return ultimoId;
+                    }
+                    return bloco.getProximoCursor();
+                })
+                .concatMapIterable(pedidos -> pedidos, 1)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    //uma única consulta lida por cursor (fetch size) dentro da transação e escrita na saída linha a linha; o
+    //Stream é fechado ao final, mesmo se o cliente desconectar, para liberar o cursor e a conexão
+    @Override
+    public void exportarPedidos(FiltroPedido filtro, FormatoExportacao formato, OutputStream saida)
+            throws IOException {
+        try (Stream<LinhaExportacaoPedido> linhas =
+                     pedidoRepository.transmitirLinhasExportacao(PedidoSpecifications.comFiltro(filtro, null))) {
+            exportadorPedidos.exportar(linhas, formato, saida);
+        }
+    }
+
+    private Pagina<Pedido> buscarBloco(FiltroPedido filtro, Long cursor, int tamanho) {
+        List<Long> ids = pedidoRepository.buscarIds(PedidoSpecifications.comFiltro(filtro, cursor), tamanho + 1);
+        Pagina<Long> paginaIds = Pagina.de(ids, tamanho, id -> id);
+        List<Pedido> pedidos = paginaIds.getConteudo().isEmpty() ? List.of()
+                : pedidoRepository.findByIdIn(paginaIds.getConteudo(), Sort.by("id"));
+        return new Pagina<>(pedidos, paginaIds.getProximoCursor());
     }
 
     @Override
+    @Transactional
     public Pedido salvarPedido(Pedido pedido) {
         prepararPedidoComItens(pedido);
         processarPedidoService.processarPedido(pedido);
-        return pedidoRepository.save(pedido);
+        Pedido salvo = pedidoRepository.save(pedido);
+        resumoClienteService.registrarPedido(salvo);
+        return salvo;
     }
 
+    //repetição com a mesma chave devolve a resposta gravada sem passar pelo processamento (estoque, e-mail). A chave
+    //e o pedido são gravados na mesma transação; se outra requisição com a mesma chave confirmar primeiro, esta é
+    //desfeita inteira e devolve a resposta da outra
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RespostaIdempotente salvarPedido(Pedido pedido, String chaveIdempotencia) {
+        String hash = idempotenciaService.calcularHash(pedido);
+        Optional<RespostaIdempotente> anterior = idempotenciaService.buscar(chaveIdempotencia, hash);
+        if (anterior.isPresent()) {
+            return anterior.get();
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                idempotenciaService.reservar(chaveIdempotencia, hash);
+                Pedido salvo = salvarPedido(pedido);
+                return idempotenciaService.concluir(chaveIdempotencia, salvo.getId(), salvo);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return idempotenciaService.buscar(chaveIdempotencia, hash).orElseThrow(() -> e);
+        }
+    }
 
+    //sem transação externa: cada chunk abre e confirma a sua pelo transactionTemplate
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ResultadoPedidoLote> salvarPedidosEmLote(List<Pedido> pedidos) {
+        if (pedidos == null || pedidos.isEmpty()) {
+            throw new BusinessRuleException("O lote deve conter pelo menos um pedido.");
+        }
+        if (pedidos.size() > tamanhoMaximoLote) {
+            throw new BusinessRuleException("O lote excede o limite de " + tamanhoMaximoLote + " pedidos.");
+        }
+
+        ResultadoPedidoLote[] resultados = new ResultadoPedidoLote[pedidos.size()];
+        for (int inicio = 0; inicio < pedidos.size(); inicio += tamanhoChunk) {
+            int fim = Math.min(inicio + tamanhoChunk, pedidos.size());
+            salvarChunk(pedidos, inicio, fim, resultados);
+        }
+        return Arrays.asList(resultados);
+    }
+
+    //cada chunk é uma transação curta: os pedidos válidos são inseridos em batch JDBC e o contexto de
+    //persistência é limpo ao final para não crescer com o tamanho do lote
+    private void salvarChunk(List<Pedido> pedidos, int inicio, int fim, ResultadoPedidoLote[] resultados) {
+        List<Integer> indicesValidos = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Pedido> validos = new ArrayList<>();
+                for (int i = inicio; i < fim; i++) {
+                    Pedido pedido = pedidos.get(i);
+                    try {
+                        prepararPedidoComItens(pedido);
+                        processarPedidoService.processarPedido(pedido);
+                        validos.add(pedido);
+                        indicesValidos.add(i);
+                    } catch (RuntimeException e) {
+                        resultados[i] = ResultadoPedidoLote.falha(i, e.getMessage());
+                    }
+                }
+                pedidoRepository.saveAll(validos);
+                resumoClienteService.registrarPedidos(validos);
+                pedidoRepository.flush();
+                entityManager.clear();
+            });
+            indicesValidos.forEach(i -> resultados[i] = ResultadoPedidoLote.sucesso(i, pedidos.get(i).getId()));
+        } catch (RuntimeException e) {
+            //falha de banco desfaz o chunk inteiro: todos os pedidos que seriam salvos nele são reportados
+            String erro = "Erro ao salvar o bloco de pedidos: " + e.getMessage();
+            indicesValidos.forEach(i -> resultados[i] = ResultadoPedidoLote.falha(i, erro));
+        }
+    }
+
+
+    @Override
+    @Transactional
     public Pedido atualizarPedido(Long id, Pedido pedidoAtualizado) {
         try {
             Pedido pedidoExistente = pedidoRepository.getReferenceById(id);
-            atualizarDados(pedidoExistente, pedidoAtualizado);
-            prepararPedidoComItens(pedidoExistente);
-            processarPedidoService.processarPedido(pedidoExistente);
-            return pedidoRepository.save(pedidoExistente);
+            //os valores antigos saem do resumo do cliente antigo e os novos entram no do cliente atual
+            Long clienteAnterior = pedidoExistente.getCliente().getId();
+            BigDecimal totalAnterior = pedidoExistente.getTotal();
+            BigDecimal totalComDescontoAnterior = pedidoExistente.getTotalComDesconto();
+            //os itens antigos devolvem o estoque antes de os novos serem reservados
+            estoqueService.devolverEstoque(pedidoExistente.getItens());
+            //com os itens novos no pedido gerenciado, o flush automático de uma consulta do processamento (ex.: a
+            //dos produtos) agendaria o INSERT dos itens antes de nome e preço virem do catálogo
+            entityManager.setFlushMode(FlushModeType.COMMIT);
+            try {
+                atualizarDados(pedidoExistente, pedidoAtualizado);
+                prepararPedidoComItens(pedidoExistente);
+                processarPedidoService.processarPedido(pedidoExistente);
+            } finally {
+                entityManager.setFlushMode(FlushModeType.AUTO);
+            }
+            Pedido salvo = pedidoRepository.save(pedidoExistente);
+            resumoClienteService.substituirPedido(clienteAnterior, totalAnterior, totalComDescontoAnterior, salvo);
+            return salvo;
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException(id);
         }
     }
 
 
+    //o pedido já foi processado: sai só o item, o estoque dele volta ao catálogo e os totais são recalculados com
+    //os itens que ficam. Sem passar pelas etapas, nada é reservado de novo e nenhum e-mail é enviado. No resumo do
+    //cliente, os totais antigos saem e os novos entram, como na atualização
     @Override
-    public void excluirPedido(Long id) {
-        if (!pedidoRepository.existsById(id)) {
-            throw new ResourceNotFoundException(id);
+    @Transactional
+    public Pedido removerItem(Item item) {
+        Pedido pedido = item.getPedido();
+        if (pedido.getItens().size() == 1) {
+            throw new BusinessRuleException("Pedido deve conter pelo menos um item. Para removê-lo, exclua o pedido.");
         }
+        BigDecimal totalAnterior = pedido.getTotal();
+        BigDecimal totalComDescontoAnterior = pedido.getTotalComDesconto();
+        estoqueService.devolverEstoque(List.of(item));
+        pedido.getItens().remove(item);
+        item.setPedido(null);
+        calculadoraPedidoService.calcularValorTotalPedido(pedido);
+        calculadoraPedidoService.calcularValorTotalComDesconto(pedido);
+        pedidoValidator.validarTotais(pedido);
+        Pedido salvo = pedidoRepository.save(pedido);
+        resumoClienteService.substituirPedido(salvo.getCliente().getId(), totalAnterior, totalComDescontoAnterior,
+                salvo);
+        return salvo;
+    }
+
+    @Override
+    @Transactional
+    public void excluirPedido(Long id) {
+        Pedido pedido = pedidoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+        estoqueService.devolverEstoque(pedido.getItens());
         try {
-            pedidoRepository.deleteById(id);
+            pedidoRepository.delete(pedido);
+            pedidoRepository.flush();
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Erro ao excluir pedido. Ele pode estar associado a outros registros.");
         }
+        resumoClienteService.removerPedido(pedido.getCliente().getId(), pedido.getTotal(),
+                pedido.getTotalComDesconto());
     }
 
     private void prepararPedidoComItens(Pedido pedido) {
@@ -86,6 +318,7 @@ public class PedidoServiceImpl implements PedidoService {
         pedidoExistente.setTotalComDesconto(pedidoAtualizado.getTotalComDesconto());
         pedidoExistente.setEmEstoque(pedidoAtualizado.getEmEstoque());
         pedidoExistente.setDataEntrega(pedidoAtualizado.getDataEntrega());
+        pedidoExistente.setCupom(pedidoAtualizado.getCupom());
         pedidoExistente.setCliente(pedidoAtualizado.getCliente());
 
         pedidoExistente.getItens().clear();
@@ -0,0 +1,42 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.services.pedido.utils.CalculadoraPedidoService;
+import com.klok.desafio.services.pedido.utils.PedidoValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+//Total e total com desconto somados na mesma passada em que o item é resolvido; cupom inválido para o pedido
+//antes dos itens
+@Component
+@Order(400)
+public class CalculoEtapa implements EtapaPedido {
+
+    @Autowired
+    private CalculadoraPedidoService calculadoraPedidoService;
+
+    @Autowired
+    private PedidoValidator pedidoValidator;
+
+    @Override
+    public String nome() {
+        return "calculo";
+    }
+
+    @Override
+    public void iniciar(ContextoPedido contexto) {
+        contexto.setCalculo(calculadoraPedidoService.iniciarCalculo(contexto.getPedido()));
+    }
+
+    @Override
+    public void visitarItem(ContextoPedido contexto, Item item) {
+        contexto.getCalculo().acumular(item);
+    }
+
+    @Override
+    public void concluir(ContextoPedido contexto) {
+        contexto.getCalculo().concluir();
+        pedidoValidator.validarTotais(contexto.getPedido());
+    }
+}
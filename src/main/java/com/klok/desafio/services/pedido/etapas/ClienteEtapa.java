@@ -0,0 +1,36 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.services.cliente.ClienteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+//O payload traz só o ID do cliente; VIP e e-mail vêm do cadastro, lido pelo cache de clientes
+@Component
+@Order(200)
+public class ClienteEtapa implements EtapaPedido {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Override
+    public String nome() {
+        return "cliente";
+    }
+
+    @Override
+    public void iniciar(ContextoPedido contexto) {
+        Pedido pedido = contexto.getPedido();
+        Long clienteId = pedido.getCliente().getId();
+        try {
+            Cliente cliente = clienteService.buscarPorId(clienteId);
+            pedido.setCliente(cliente);
+        } catch (ResourceNotFoundException e) {
+            throw new BusinessRuleException("Cliente não encontrado para o pedido. Id: " + clienteId);
+        }
+    }
+}
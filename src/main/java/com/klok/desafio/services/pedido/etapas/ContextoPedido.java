@@ -0,0 +1,62 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.services.pedido.utils.CalculoPedido;
+import com.klok.desafio.services.pedido.utils.ReservaEstoque;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+//Estado de um pedido entre as etapas. As etapas são beans sem estado; tudo o que passa de uma fase para outra
+//fica aqui, um contexto por processamento
+public class ContextoPedido {
+
+    private final Pedido pedido;
+
+    private Map<Long, Produto> produtos = Map.of();
+
+    private CalculoPedido calculo;
+
+    //ordenado por ID de produto: é a ordem em que o estoque é debitado
+    private final SortedMap<Long, Integer> quantidades = new TreeMap<>();
+
+    private ReservaEstoque reserva;
+
+    public ContextoPedido(Pedido pedido) {
+        this.pedido = pedido;
+    }
+
+    public Pedido getPedido() {
+        return pedido;
+    }
+
+    public Map<Long, Produto> getProdutos() {
+        return produtos;
+    }
+
+    public void setProdutos(Map<Long, Produto> produtos) {
+        this.produtos = produtos;
+    }
+
+    public CalculoPedido getCalculo() {
+        return calculo;
+    }
+
+    public void setCalculo(CalculoPedido calculo) {
+        this.calculo = calculo;
+    }
+
+    public SortedMap<Long, Integer> getQuantidades() {
+        return quantidades;
+    }
+
+    public ReservaEstoque getReserva() {
+        return reserva;
+    }
+
+    public void setReserva(ReservaEstoque reserva) {
+        this.reserva = reserva;
+    }
+}
@@ -0,0 +1,63 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.exceptions.InsufficientStockException;
+import com.klok.desafio.services.relatorio.AcumuladorVendas;
+import com.klok.desafio.services.pedido.utils.EstoqueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+//Reserva o estoque depois que o pedido já foi validado e calculado: é a etapa que escreve no banco
+@Component
+@Order(500)
+public class EstoqueEtapa implements EtapaPedido {
+
+    private final int DIAS_ENTREGA = 3;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private AcumuladorVendas acumuladorVendas;
+
+    @Override
+    public String nome() {
+        return "estoque";
+    }
+
+    //o mesmo produto em mais de uma linha é debitado uma única vez, pela soma das quantidades
+    @Override
+    public void visitarItem(ContextoPedido contexto, Item item) {
+        contexto.getQuantidades().merge(item.getProdutoId(), item.getQuantidade(), Integer::sum);
+    }
+
+    @Override
+    public void concluir(ContextoPedido contexto) {
+        Pedido pedido = contexto.getPedido();
+        try {
+            contexto.setReserva(estoqueService.reservarEstoque(pedido, contexto.getQuantidades()));
+        } catch (InsufficientStockException e) {
+            acumuladorVendas.registrarFaltaEstoque();
+            throw e;
+        }
+        definirDataEntrega(pedido);
+    }
+
+    //pedido rejeitado depois da reserva devolve o estoque na hora, mesmo que a transação siga (lote)
+    @Override
+    public void desfazer(ContextoPedido contexto) {
+        contexto.getReserva().liberar();
+    }
+
+    private void definirDataEntrega(Pedido pedido) {
+        if (pedido.getEmEstoque()){
+            pedido.setDataEntrega(LocalDate.now().plusDays(DIAS_ENTREGA));
+        } else {
+            pedido.setDataEntrega(null);
+        }
+    }
+}
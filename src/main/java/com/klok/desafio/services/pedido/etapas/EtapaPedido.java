@@ -0,0 +1,23 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Item;
+
+//Etapa do processamento de um pedido. Para cada pedido, o ProcessarPedidoService chama iniciar de todas as etapas
+//(na ordem de @Order), depois visitarItem de todas as etapas para cada item, numa única passada pelos itens, e por
+//fim concluir de todas as etapas. Qualquer exceção interrompe o pedido, e as etapas já concluídas são desfeitas
+//em ordem inversa. Uma etapa nova é só mais um @Component que implementa esta interface
+public interface EtapaPedido {
+
+    //usado como tag etapa nas métricas pedido.processamento.etapa
+    String nome();
+
+    //checagens e cargas do pedido inteiro; o que for barato e puder rejeitar o pedido deve vir em etapas anteriores
+    default void iniciar(ContextoPedido contexto) {}
+
+    default void visitarItem(ContextoPedido contexto, Item item) {}
+
+    default void concluir(ContextoPedido contexto) {}
+
+    //chamado só se concluir terminou e uma etapa posterior falhou
+    default void desfazer(ContextoPedido contexto) {}
+}
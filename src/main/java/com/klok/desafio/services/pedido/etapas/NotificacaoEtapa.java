@@ -0,0 +1,38 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.exceptions.NotificacaoException;
+import com.klok.desafio.services.notificacao.Mensagem;
+import com.klok.desafio.services.notificacao.NotificacaoOutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+//O e-mail é gravado na outbox, na mesma transação do pedido, e enviado depois pelo NotificacaoDispatcher
+@Component
+@Order(600)
+public class NotificacaoEtapa implements EtapaPedido {
+
+    @Autowired
+    private NotificacaoOutboxService notificacaoOutboxService;
+
+    @Override
+    public String nome() {
+        return "email";
+    }
+
+    @Override
+    public void concluir(ContextoPedido contexto) {
+        Pedido pedido = contexto.getPedido();
+        String conteudo = "Pedido enviado! Seu pedido será entregue em breve.";
+
+        Mensagem mensagem = new Mensagem(pedido.getCliente().getEmail(), "Pedido enviado",
+                conteudo);
+
+        try {
+            notificacaoOutboxService.registrar(mensagem);
+        }catch (Exception e){
+            throw new NotificacaoException();
+        }
+    }
+}
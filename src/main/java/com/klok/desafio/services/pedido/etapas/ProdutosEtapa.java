@@ -0,0 +1,54 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.services.item.utils.ItemValidator;
+import com.klok.desafio.services.produto.ProdutoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+//Nome e preço vêm sempre do catálogo, nunca do payload; todos os produtos do pedido são lidos numa única consulta
+@Component
+@Order(300)
+public class ProdutosEtapa implements EtapaPedido {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ItemValidator itemValidator;
+
+    @Override
+    public String nome() {
+        return "produtos";
+    }
+
+    //a consulta precisa dos IDs antes da passada pelos itens; aqui só os IDs são lidos
+    @Override
+    public void iniciar(ContextoPedido contexto) {
+        Set<Long> ids = new HashSet<>();
+        for (Item item : contexto.getPedido().getItens()) {
+            if (item.getProdutoId() != null) {
+                ids.add(item.getProdutoId());
+            }
+        }
+        contexto.setProdutos(produtoService.buscarPorIds(ids));
+    }
+
+    @Override
+    public void visitarItem(ContextoPedido contexto, Item item) {
+        Produto produto = contexto.getProdutos().get(item.getProdutoId());
+        if (produto == null) {
+            throw new BusinessRuleException("Produto não encontrado para o item do pedido. Id: " + item.getProdutoId());
+        }
+        item.setProduto(produto);
+        item.setNome(produto.getNome());
+        item.setPreco(produto.getPreco());
+        itemValidator.validarPreco(item);
+    }
+}
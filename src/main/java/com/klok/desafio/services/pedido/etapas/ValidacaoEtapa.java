@@ -0,0 +1,39 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.services.item.utils.ItemValidator;
+import com.klok.desafio.services.pedido.utils.PedidoValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+//Primeira etapa: rejeita o que está errado no próprio payload antes de qualquer consulta ao banco
+@Component
+@Order(100)
+public class ValidacaoEtapa implements EtapaPedido {
+
+    @Autowired
+    private PedidoValidator pedidoValidator;
+
+    @Autowired
+    private ItemValidator itemValidator;
+
+    @Override
+    public String nome() {
+        return "validacao";
+    }
+
+    @Override
+    public void iniciar(ContextoPedido contexto) {
+        pedidoValidator.validarCabecalho(contexto.getPedido());
+    }
+
+    @Override
+    public void visitarItem(ContextoPedido contexto, Item item) {
+        itemValidator.validarQuantidade(item);
+        if (item.getProdutoId() == null) {
+            throw new BusinessRuleException("Item do pedido deve referenciar um produto.");
+        }
+    }
+}
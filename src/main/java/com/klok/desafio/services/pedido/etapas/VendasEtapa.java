@@ -0,0 +1,30 @@
+package com.klok.desafio.services.pedido.etapas;
+
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.services.relatorio.AcumuladorVendas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+//Última etapa: o pedido aceito entra nos relatórios de vendas depois do commit. Só pedido novo conta como venda;
+//a alteração de um pedido já gravado (que chega aqui com ID) não muda os relatórios
+@Component
+@Order(700)
+public class VendasEtapa implements EtapaPedido {
+
+    @Autowired
+    private AcumuladorVendas acumuladorVendas;
+
+    @Override
+    public String nome() {
+        return "vendas";
+    }
+
+    @Override
+    public void concluir(ContextoPedido contexto) {
+        Pedido pedido = contexto.getPedido();
+        if (pedido.getId() == null) {
+            acumuladorVendas.registrarVenda(pedido, contexto.getCalculo().getDescontoVip());
+        }
+    }
+}
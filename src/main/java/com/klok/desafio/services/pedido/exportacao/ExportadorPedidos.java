@@ -0,0 +1,142 @@
+package com.klok.desafio.services.pedido.exportacao;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klok.desafio.dto.LinhaExportacaoPedido;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+//Escreve as linhas da exportação direto na saída, à medida que o cursor as entrega: nada é acumulado além do
+//buffer do gerador, então a memória usada não depende da quantidade de pedidos
+@Component
+public class ExportadorPedidos {
+
+    static final String CABECALHO_CSV = "pedidoId,clienteId,total,totalComDesconto,emEstoque,dataEntrega,cupom," +
+            "itemId,produtoId,nome,preco,quantidade";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void exportar(Stream<LinhaExportacaoPedido> linhas, FormatoExportacao formato, OutputStream saida)
+            throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            exportarCsv(linhas.iterator(), saida);
+        } else {
+            exportarNdjson(linhas.iterator(), saida);
+        }
+    }
+
+    //um objeto JSON por pedido e por linha, com os itens aninhados. As linhas chegam ordenadas por pedido, então
+    //basta comparar com o pedido anterior para saber quando fechar o objeto
+    private void exportarNdjson(Iterator<LinhaExportacaoPedido> linhas, OutputStream saida) throws IOException {
+        JsonGenerator gerador = objectMapper.createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gerador.setPrettyPrinter(new MinimalPrettyPrinter(""));
+
+        Long pedidoAtual = null;
+        while (linhas.hasNext()) {
+            LinhaExportacaoPedido linha = linhas.next();
+            if (!Objects.equals(linha.getPedidoId(), pedidoAtual)) {
+                if (pedidoAtual != null) {
+                    fecharPedido(gerador);
+                }
+                abrirPedido(gerador, linha);
+                pedidoAtual = linha.getPedidoId();
+            }
+            if (linha.getItemId() != null) {
+                escreverItem(gerador, linha);
+            }
+        }
+        if (pedidoAtual != null) {
+            fecharPedido(gerador);
+        }
+        gerador.close();
+    }
+
+    private void abrirPedido(JsonGenerator gerador, LinhaExportacaoPedido linha) throws IOException {
+        gerador.writeStartObject();
+        gerador.writeObjectField("id", linha.getPedidoId());
+        gerador.writeObjectField("clienteId", linha.getClienteId());
+        gerador.writeObjectField("total", linha.getTotal());
+        gerador.writeObjectField("totalComDesconto", linha.getTotalComDesconto());
+        gerador.writeObjectField("emEstoque", linha.getEmEstoque());
+        gerador.writeObjectField("dataEntrega", linha.getDataEntrega());
+        gerador.writeObjectField("cupom", linha.getCupom());
+        gerador.writeArrayFieldStart("itens");
+    }
+
+    private void escreverItem(JsonGenerator gerador, LinhaExportacaoPedido linha) throws IOException {
+        gerador.writeStartObject();
+        gerador.writeObjectField("id", linha.getItemId());
+        gerador.writeObjectField("produtoId", linha.getProdutoId());
+        gerador.writeObjectField("nome", linha.getNome());
+        gerador.writeObjectField("preco", linha.getPreco());
+        gerador.writeObjectField("quantidade", linha.getQuantidade());
+        gerador.writeEndObject();
+    }
+
+    private void fecharPedido(JsonGenerator gerador) throws IOException {
+        gerador.writeEndArray();
+        gerador.writeEndObject();
+        gerador.writeRaw('\n');
+    }
+
+    //uma linha por item, com os dados do pedido repetidos (RFC 4180)
+    private void exportarCsv(Iterator<LinhaExportacaoPedido> linhas, OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        escritor.write(CABECALHO_CSV);
+        escritor.write("\r\n");
+        while (linhas.hasNext()) {
+            LinhaExportacaoPedido linha = linhas.next();
+            escritor.write(campo(linha.getPedidoId()));
+            escritor.write(',');
+            escritor.write(campo(linha.getClienteId()));
+            escritor.write(',');
+            escritor.write(campo(linha.getTotal()));
+            escritor.write(',');
+            escritor.write(campo(linha.getTotalComDesconto()));
+            escritor.write(',');
+            escritor.write(campo(linha.getEmEstoque()));
+            escritor.write(',');
+            escritor.write(campo(linha.getDataEntrega()));
+            escritor.write(',');
+            escritor.write(campo(linha.getCupom()));
+            escritor.write(',');
+            escritor.write(campo(linha.getItemId()));
+            escritor.write(',');
+            escritor.write(campo(linha.getProdutoId()));
+            escritor.write(',');
+            escritor.write(campo(linha.getNome()));
+            escritor.write(',');
+            escritor.write(campo(linha.getPreco()));
+            escritor.write(',');
+            escritor.write(campo(linha.getQuantidade()));
+            escritor.write("\r\n");
+        }
+        escritor.flush();
+    }
+
+    //valores com vírgula, aspas ou quebra de linha vão entre aspas, com as aspas internas duplicadas
+    static String campo(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor instanceof BigDecimal numero ? numero.toPlainString() : valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,40 @@
+package com.klok.desafio.services.pedido.exportacao;
+
+import com.klok.desafio.exceptions.BusinessRuleException;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public enum FormatoExportacao {
+
+    //um pedido por linha, com os itens aninhados
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    //um item por linha, com os dados do pedido repetidos
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String extensao;
+
+    FormatoExportacao(MediaType mediaType, String extensao) {
+        this.mediaType = mediaType;
+        this.extensao = extensao;
+    }
+
+    public static FormatoExportacao de(String formato) {
+        for (FormatoExportacao valor : values()) {
+            if (valor.name().equals(formato == null ? null : formato.trim().toUpperCase(Locale.ROOT))) {
+                return valor;
+            }
+        }
+        throw new BusinessRuleException("Formato de exportação inválido: " + formato + ". Use ndjson ou csv.");
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
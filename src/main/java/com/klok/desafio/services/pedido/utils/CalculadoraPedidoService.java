@@ -1,31 +1,138 @@
 package com.klok.desafio.services.pedido.utils;
 
+import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.SegmentoCliente;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.services.promocao.IndicePromocoes;
+import com.klok.desafio.services.promocao.MotorPromocoes;
+import com.klok.desafio.services.promocao.RegraPromocao;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.List;
 
 @Service
 public class CalculadoraPedidoService {
 
-    private final BigDecimal DESCONTO_VIP = BigDecimal.valueOf(0.1);
+    private static final int ESCALA = 2;
 
-    public void calcularValorTotalPedido(Pedido pedido) {
-        BigDecimal total = pedido.getItens().stream()
-                .map(item -> item.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Autowired
+    private MotorPromocoes motorPromocoes;
 
-        pedido.setTotal(total.setScale(2, RoundingMode.HALF_UP));
+    //uma única passada somando centavos em long: sem stream e sem um BigDecimal intermediário por item.
+    //Preço com mais de duas casas ou estouro de long caem no cálculo exato em BigDecimal, com o mesmo resultado
+    public void calcularValorTotalPedido(Pedido pedido) {
+        List<Item> itens = pedido.getItens();
+        try {
+            long centavos = 0;
+            for (Item item : itens) {
+                centavos = Math.addExact(centavos, centavos(item));
+            }
+            pedido.setTotal(BigDecimal.valueOf(centavos, ESCALA));
+        } catch (ArithmeticException e) {
+            pedido.setTotal(calcularTotalExato(itens));
+        }
     }
 
+    //promoções de item/quantidade descontam a linha; depois vale a melhor entre a faixa de pedido (o antigo desconto
+    //VIP é uma delas) e o cupom. Uma passada pelos itens, e só quando há regra de item para o segmento do cliente
     public void calcularValorTotalComDesconto(Pedido pedido) {
-        if (pedido.getCliente() != null && pedido.getCliente().isVip()) {
-            BigDecimal total = pedido.getTotal();
-            BigDecimal desconto = total.multiply(DESCONTO_VIP);
-            pedido.setTotalComDesconto(total.subtract(desconto).setScale(2, RoundingMode.HALF_UP));
-        } else {
-            pedido.setTotalComDesconto(pedido.getTotal().setScale(2, RoundingMode.HALF_UP));
+        IndicePromocoes indice = motorPromocoes.indice();
+        SegmentoCliente segmento = SegmentoCliente.de(pedido.getCliente());
+        RegraPromocao cupom = resolverCupom(indice, segmento, pedido.getCupom());
+        aplicarDescontos(pedido, indice, segmento, cupom);
+    }
+
+    //cálculo incremental para quem já percorre os itens (ProcessarPedidoService): o cupom é conferido aqui, antes
+    //de qualquer item, e cada item é somado uma única vez
+    public CalculoPedido iniciarCalculo(Pedido pedido) {
+        IndicePromocoes indice = motorPromocoes.indice();
+        SegmentoCliente segmento = SegmentoCliente.de(pedido.getCliente());
+        RegraPromocao cupom = resolverCupom(indice, segmento, pedido.getCupom());
+        return new CalculoPedido(this, pedido, indice, segmento, cupom);
+    }
+
+    private RegraPromocao resolverCupom(IndicePromocoes indice, SegmentoCliente segmento, String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return null;
+        }
+        return indice.cupom(segmento, codigo)
+                .orElseThrow(() -> new BusinessRuleException("Cupom inválido ou expirado: " + codigo));
+    }
+
+    //As regras de preço ficam só aqui; o CalculoPedido soma os itens e usa estes métodos para descontar.
+    //Devolvem a parte do desconto de pedido que veio da faixa VIP, lida pelos relatórios de vendas
+
+    //total com desconto a partir do total já calculado
+    BigDecimal aplicarDescontos(Pedido pedido, IndicePromocoes indice, SegmentoCliente segmento,
+                                RegraPromocao cupom) {
+        try {
+            long subtotal = pedido.getTotal().movePointRight(ESCALA).longValueExact();
+            if (indice.possuiRegrasDeItem(segmento)) {
+                for (Item item : pedido.getItens()) {
+                    subtotal = Math.subtractExact(subtotal, descontoItem(indice, segmento, item, centavos(item)));
+                }
+            }
+            return aplicarDescontoPedido(pedido, indice, segmento, cupom, subtotal);
+        } catch (ArithmeticException e) {
+            return aplicarDescontosExato(pedido, indice, segmento, cupom);
+        }
+    }
+
+    //o subtotal, em centavos, já tem as promoções de item; lança ArithmeticException em estouro
+    BigDecimal aplicarDescontoPedido(Pedido pedido, IndicePromocoes indice, SegmentoCliente segmento,
+                                     RegraPromocao cupom, long subtotal) {
+        RegraPromocao regraPedido = RegraPromocao.melhor(indice.melhorFaixaPedido(segmento, subtotal), cupom);
+        long comDesconto = regraPedido == null ? subtotal : regraPedido.aplicar(subtotal);
+        pedido.setTotalComDesconto(BigDecimal.valueOf(comDesconto, ESCALA));
+        if (regraPedido == null || !regraPedido.isDescontoVip()) {
+            return BigDecimal.ZERO.setScale(ESCALA);
+        }
+        return BigDecimal.valueOf(subtotal - comDesconto, ESCALA);
+    }
+
+    //quanto a promoção de item/quantidade tira da linha, em centavos
+    long descontoItem(IndicePromocoes indice, SegmentoCliente segmento, Item item, long linha) {
+        RegraPromocao regra = indice.melhorRegraItem(segmento, item.getProdutoId(), item.getQuantidade());
+        return regra == null ? 0 : Math.subtractExact(linha, regra.aplicar(linha));
+    }
+
+    //preço x quantidade em centavos; lança ArithmeticException para preço com mais de duas casas ou estouro
+    long centavos(Item item) {
+        return Math.multiplyExact(item.getPreco().movePointRight(ESCALA).longValueExact(),
+                (long) item.getQuantidade());
+    }
+
+    private BigDecimal aplicarDescontosExato(Pedido pedido, IndicePromocoes indice, SegmentoCliente segmento,
+                                             RegraPromocao cupom) {
+        BigDecimal subtotal = pedido.getTotal();
+        if (indice.possuiRegrasDeItem(segmento)) {
+            for (Item item : pedido.getItens()) {
+                RegraPromocao regra = indice.melhorRegraItem(segmento, item.getProdutoId(), item.getQuantidade());
+                if (regra != null) {
+                    BigDecimal linha = item.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade()));
+                    subtotal = subtotal.subtract(linha.subtract(regra.aplicar(linha)));
+                }
+            }
+        }
+        RegraPromocao regraPedido = RegraPromocao.melhor(indice.melhorFaixaPedido(segmento, subtotal), cupom);
+        BigDecimal semDesconto = subtotal.setScale(ESCALA, RoundingMode.HALF_UP);
+        BigDecimal comDesconto = regraPedido == null ? semDesconto : regraPedido.aplicar(subtotal);
+        pedido.setTotalComDesconto(comDesconto);
+        if (regraPedido == null || !regraPedido.isDescontoVip()) {
+            return BigDecimal.ZERO.setScale(ESCALA);
+        }
+        return semDesconto.subtract(comDesconto);
+    }
+
+    private BigDecimal calcularTotalExato(List<Item> itens) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Item item : itens) {
+            total = total.add(item.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())));
         }
+        return total.setScale(ESCALA, RoundingMode.HALF_UP);
     }
 }
@@ -0,0 +1,76 @@
+package com.klok.desafio.services.pedido.utils;
+
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.SegmentoCliente;
+import com.klok.desafio.services.promocao.IndicePromocoes;
+import com.klok.desafio.services.promocao.RegraPromocao;
+
+import java.math.BigDecimal;
+
+//Total e total com desconto de um pedido somados item a item, em centavos. As regras de preço são as do
+//CalculadoraPedidoService (descontoItem, aplicarDescontoPedido); aqui só se acumula o que elas precisam. Preço com
+//mais de duas casas ou estouro de long marcam o cálculo como exato, e concluir() refaz tudo pelo caminho em
+//BigDecimal da calculadora
+public class CalculoPedido {
+
+    private static final int ESCALA = 2;
+
+    private final CalculadoraPedidoService calculadora;
+    private final Pedido pedido;
+    private final IndicePromocoes indice;
+    private final SegmentoCliente segmento;
+    private final RegraPromocao cupom;
+    private final boolean possuiRegrasDeItem;
+
+    private long total;
+    //quanto as promoções de item tiram do total: total - descontoItens é a base da faixa de pedido e do cupom
+    private long descontoItens;
+    private boolean exato;
+    //quanto do desconto de pedido veio da faixa VIP, lido pelos relatórios de vendas
+    private BigDecimal descontoVip = BigDecimal.ZERO.setScale(ESCALA);
+
+    CalculoPedido(CalculadoraPedidoService calculadora, Pedido pedido, IndicePromocoes indice,
+                  SegmentoCliente segmento, RegraPromocao cupom) {
+        this.calculadora = calculadora;
+        this.pedido = pedido;
+        this.indice = indice;
+        this.segmento = segmento;
+        this.cupom = cupom;
+        this.possuiRegrasDeItem = indice.possuiRegrasDeItem(segmento);
+    }
+
+    public void acumular(Item item) {
+        if (exato) {
+            return;
+        }
+        try {
+            long linha = calculadora.centavos(item);
+            total = Math.addExact(total, linha);
+            if (possuiRegrasDeItem) {
+                descontoItens = Math.addExact(descontoItens, calculadora.descontoItem(indice, segmento, item, linha));
+            }
+        } catch (ArithmeticException e) {
+            exato = true;
+        }
+    }
+
+    public void concluir() {
+        if (!exato) {
+            try {
+                pedido.setTotal(BigDecimal.valueOf(total, ESCALA));
+                descontoVip = calculadora.aplicarDescontoPedido(pedido, indice, segmento, cupom,
+                        total - descontoItens);
+                return;
+            } catch (ArithmeticException e) {
+                //segue para o cálculo exato
+            }
+        }
+        calculadora.calcularValorTotalPedido(pedido);
+        descontoVip = calculadora.aplicarDescontos(pedido, indice, segmento, cupom);
+    }
+
+    public BigDecimal getDescontoVip() {
+        return descontoVip;
+    }
+}
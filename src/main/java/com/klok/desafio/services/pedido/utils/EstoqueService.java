@@ -1,13 +1,80 @@
 package com.klok.desafio.services.pedido.utils;
 
+import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.exceptions.InsufficientStockException;
+import com.klok.desafio.repositories.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+//só movimenta estoque dentro da transação de quem grava o pedido, para que o débito seja desfeito junto com ele.
+//A rejeição do pedido não marca essa transação para rollback: quem a abriu decide (o pedido avulso é desfeito, o
+//bloco do cadastro em lote segue com os outros pedidos, já que reservarEstoque devolve o que debitou)
 @Service
+@Transactional(propagation = Propagation.MANDATORY,
+        noRollbackFor = {InsufficientStockException.class, BusinessRuleException.class})
 public class EstoqueService {
 
-    public boolean verificarEstoque(Pedido pedido) {
-        return pedido.getItens().stream()
-                .allMatch(item -> item.getQuantidade() <= item.getEstoque());
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    //reserva tudo ou nada direto na linha do produto: cada débito é um UPDATE condicional (estoque >= quantidade),
+    //então dois pedidos concorrentes nunca conseguem vender a mesma unidade. Se a transação for desfeita, o
+    //banco devolve o estoque junto.
+    //Não há contadores em faixas (striping) para produtos muito vendidos: o UPDATE trava só a linha do produto
+    //até o commit, então pedidos de produtos diferentes não disputam nada e só os do mesmo produto esperam um
+    //pelo outro. Contadores em memória não valeriam com mais de uma instância nem com o estoque alterado por
+    //PUT /produtos, e dividir a linha em faixas no banco obrigaria a somar as faixas em toda leitura do estoque
+    public ReservaEstoque reservarEstoque(Pedido pedido) {
+        return reservarEstoque(pedido, agruparQuantidades(pedido.getItens()));
+    }
+
+    //para quem já agrupou as quantidades por produto ao percorrer os itens (ProcessarPedidoService)
+    public ReservaEstoque reservarEstoque(Pedido pedido, SortedMap<Long, Integer> quantidades) {
+        Map<Long, Integer> debitos = new LinkedHashMap<>();
+        ReservaEstoque reserva = new ReservaEstoque(debitos, this::devolver);
+
+        for (Map.Entry<Long, Integer> entrada : quantidades.entrySet()) {
+            if (produtoRepository.debitarEstoque(entrada.getKey(), entrada.getValue()) == 0) {
+                //no lote a transação continua com os outros pedidos, então o que já foi debitado volta na hora
+                reserva.liberar();
+                throw new InsufficientStockException();
+            }
+            debitos.put(entrada.getKey(), entrada.getValue());
+        }
+
+        pedido.setEmEstoque(true);
+        return reserva;
+    }
+
+    //devolve ao catálogo o estoque de itens que deixaram de fazer parte de um pedido (ex.: atualização)
+    public void devolverEstoque(List<Item> itens) {
+        agruparQuantidades(itens).forEach(this::devolver);
+    }
+
+    private void devolver(Long produtoId, Integer quantidade) {
+        produtoRepository.devolverEstoque(produtoId, quantidade);
+    }
+
+    //o mesmo produto em mais de uma linha é debitado uma única vez, pela soma das quantidades. A ordem por ID
+    //faz todos os pedidos travarem as linhas na mesma sequência, evitando deadlock entre eles
+    private SortedMap<Long, Integer> agruparQuantidades(List<Item> itens) {
+        SortedMap<Long, Integer> quantidades = new TreeMap<>();
+        for (Item item : itens) {
+            if (item.getProdutoId() == null) {
+                throw new BusinessRuleException("Item do pedido deve referenciar um produto.");
+            }
+            quantidades.merge(item.getProdutoId(), item.getQuantidade(), Integer::sum);
+        }
+        return quantidades;
     }
 }
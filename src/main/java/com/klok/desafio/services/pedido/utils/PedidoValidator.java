@@ -17,14 +17,24 @@ public class PedidoValidator {
     private ItemValidator itemValidator;
 
     public void validarPedido(Pedido pedido) {
+        validarCabecalho(pedido);
+        for (Item item : pedido.getItens()) {
+            itemValidator.validarItem(item);
+        }
+        validarTotais(pedido);
+        validarDataEntrega(pedido);
+    }
+
+    //só o que vem do payload e não depende dos itens: roda antes de qualquer consulta ao banco
+    public void validarCabecalho(Pedido pedido) {
         if (pedido == null) {
             throw new BusinessRuleException("Pedido não pode ser nulo.");
         }
 
         validarCliente(pedido);
-        validarItens(pedido);
-        validarTotais(pedido);
-        validarDataEntrega(pedido);
+        if (pedido.getItens() == null || pedido.getItens().isEmpty()) {
+            throw new BusinessRuleException("Pedido deve conter pelo menos um item.");
+        }
     }
 
     private void validarCliente(Pedido pedido) {
@@ -37,17 +47,7 @@ public class PedidoValidator {
         }
     }
 
-    private void validarItens(Pedido pedido) {
-        if (pedido.getItens() == null || pedido.getItens().isEmpty()) {
-            throw new BusinessRuleException("Pedido deve conter pelo menos um item.");
-        }
-
-        for (Item item : pedido.getItens()) {
-            itemValidator.validarItem(item);
-        }
-    }
-
-    private void validarTotais(Pedido pedido) {
+    public void validarTotais(Pedido pedido) {
         if (pedido.getTotal() == null || pedido.getTotal().compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessRuleException("O total do pedido deve ser maior que zero.");
         }
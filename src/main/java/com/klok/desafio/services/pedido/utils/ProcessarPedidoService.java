@@ -2,74 +2,122 @@ package com.klok.desafio.services.pedido.utils;
 
 import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
-import com.klok.desafio.exceptions.InsufficientStockException;
-import com.klok.desafio.exceptions.NotificacaoException;
-import com.klok.desafio.services.notificacao.Mensagem;
-import com.klok.desafio.services.notificacao.NotificacaoService;
+import com.klok.desafio.services.pedido.etapas.ContextoPedido;
+import com.klok.desafio.services.pedido.etapas.EtapaPedido;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ProcessarPedidoService {
 
-    private final int DIAS_ENTREGA = 3;
+    static final String METRICA_PEDIDO = "pedido.processamento";
+    static final String METRICA_ETAPA = "pedido.processamento.etapa";
+    static final String ETAPA_ITENS = "itens";
+    private static final String SEM_EXCECAO = "nenhuma";
 
+    //validacao, cliente, produtos, calculo, estoque, email e vendas, na ordem de @Order (pacote services.pedido.etapas)
     @Autowired
-    private CalculadoraPedidoService calculadoraPedidoService;
+    private List<EtapaPedido> etapas;
 
     @Autowired
-    private EstoqueService estoqueService;
-
-    @Autowired
-    private PedidoValidator pedidoValidator;
-
-    @Autowired
-    private NotificacaoService notificacaoService;
+    private MeterRegistry meterRegistry;
 
+    //as etapas rodam em três fases: iniciar de todas, uma única passada pelos itens com todas as etapas por item e
+    //concluir de todas. O pedido é validado antes de ser calculado e calculado antes de reservar estoque, e a
+    //primeira exceção interrompe tudo. Cada etapa registra um timer pedido.processamento.etapa (iniciar + concluir),
+    //a passada pelos itens registra a etapa "itens" e o pedido inteiro um pedido.processamento, todos com as tags
+    //resultado e excecao: a contagem de cada série serve de contador de sucessos e falhas por tipo
     public void processarPedido(Pedido pedido) {
-        calculadoraPedidoService.calcularValorTotalPedido(pedido);
-        calculadoraPedidoService.calcularValorTotalComDesconto(pedido);
-        verificarEstoque(pedido);
-        definirDataEntrega(pedido);
-        pedidoValidator.validarPedido(pedido);
-        atualizarEstoque(pedido);
-        enviarEmail(pedido);
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        ContextoPedido contexto = new ContextoPedido(pedido);
+        int total = etapas.size();
+        //uma posição por etapa e a última (índice total) para a passada pelos itens
+        long[] duracoes = new long[total + 1];
+        int emExecucao = 0;
+        int concluidas = 0;
+        boolean itensPercorridos = false;
+        String excecao = SEM_EXCECAO;
+        try {
+            for (emExecucao = 0; emExecucao < total; emExecucao++) {
+                EtapaPedido etapa = etapas.get(emExecucao);
+                medir(duracoes, emExecucao, () -> etapa.iniciar(contexto));
+            }
+
+            medir(duracoes, total, () -> percorrerItens(contexto));
+            itensPercorridos = true;
+
+            for (emExecucao = 0; emExecucao < total; emExecucao++) {
+                EtapaPedido etapa = etapas.get(emExecucao);
+                medir(duracoes, emExecucao, () -> etapa.concluir(contexto));
+                concluidas++;
+            }
+        } catch (RuntimeException e) {
+            excecao = e.getClass().getSimpleName();
+            desfazer(contexto, concluidas, e);
+            throw e;
+        } finally {
+            registrarEtapas(duracoes, concluidas, itensPercorridos, emExecucao, excecao);
+            amostra.stop(timer(METRICA_PEDIDO, null, excecao));
+        }
     }
 
-    private void verificarEstoque(Pedido pedido){
-        if (!estoqueService.verificarEstoque(pedido)){
-            throw new InsufficientStockException();
+    private void percorrerItens(ContextoPedido contexto) {
+        for (Item item : contexto.getPedido().getItens()) {
+            for (EtapaPedido etapa : etapas) {
+                etapa.visitarItem(contexto, item);
+            }
         }
-        pedido.setEmEstoque(true);
     }
 
-    private void definirDataEntrega(Pedido pedido) {
-        if (pedido.getEmEstoque()){
-            pedido.setDataEntrega(LocalDate.now().plusDays(DIAS_ENTREGA));
-        } else {
-            pedido.setDataEntrega(null);
+    //falha ao desfazer não esconde a exceção que rejeitou o pedido
+    private void desfazer(ContextoPedido contexto, int concluidas, RuntimeException causa) {
+        for (int i = concluidas - 1; i >= 0; i--) {
+            try {
+                etapas.get(i).desfazer(contexto);
+            } catch (RuntimeException e) {
+                causa.addSuppressed(e);
+            }
         }
     }
 
-    private void atualizarEstoque(Pedido pedido) {
-        for (Item item : pedido.getItens()) {
-            item.setEstoque(item.getEstoque() - item.getQuantidade());
+    private void medir(long[] duracoes, int indice, Runnable fase) {
+        long inicio = System.nanoTime();
+        try {
+            fase.run();
+        } finally {
+            duracoes[indice] += System.nanoTime() - inicio;
         }
     }
 
-    private void enviarEmail(Pedido pedido) {
-        String conteudo = "Pedido enviado! Seu pedido será entregue em breve.";
-
-        Mensagem mensagem = new Mensagem(pedido.getCliente().getEmail(), "Pedido enviado",
-                conteudo);
-
-        try {
-            notificacaoService.enviarEmail(mensagem);
-        }catch (Exception e){
-            throw new NotificacaoException();
+    //etapas concluídas contam como sucesso e a fase que lançou a exceção como falha; as etapas que não chegaram a
+    //concluir por causa dela não são registradas
+    private void registrarEtapas(long[] duracoes, int concluidas, boolean itensPercorridos, int emExecucao,
+                                 String excecao) {
+        int total = etapas.size();
+        for (int i = 0; i < concluidas; i++) {
+            timer(METRICA_ETAPA, etapas.get(i).nome(), SEM_EXCECAO).record(duracoes[i], TimeUnit.NANOSECONDS);
+        }
+        if (itensPercorridos) {
+            timer(METRICA_ETAPA, ETAPA_ITENS, SEM_EXCECAO).record(duracoes[total], TimeUnit.NANOSECONDS);
+        }
+        if (!SEM_EXCECAO.equals(excecao)) {
+            String nome = emExecucao == total ? ETAPA_ITENS : etapas.get(emExecucao).nome();
+            timer(METRICA_ETAPA, nome, excecao).record(duracoes[emExecucao], TimeUnit.NANOSECONDS);
         }
     }
 
+    private Timer timer(String nome, String etapa, String excecao) {
+        Timer.Builder builder = Timer.builder(nome)
+                .tag("resultado", SEM_EXCECAO.equals(excecao) ? "sucesso" : "falha")
+                .tag("excecao", excecao);
+        if (etapa != null) {
+            builder.tag("etapa", etapa);
+        }
+        return builder.register(meterRegistry);
+    }
 }
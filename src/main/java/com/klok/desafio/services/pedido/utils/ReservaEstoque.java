@@ -0,0 +1,29 @@
+package com.klok.desafio.services.pedido.utils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+//Quantidades debitadas por um pedido, por ID de produto. liberar() é idempotente: devolve o estoque uma única
+//vez, mesmo que o pedido seja rejeitado em mais de um ponto.
+public class ReservaEstoque {
+
+    private final Map<Long, Integer> debitos;
+    private final BiConsumer<Long, Integer> devolucao;
+    private final AtomicBoolean liberada = new AtomicBoolean(false);
+
+    ReservaEstoque(Map<Long, Integer> debitos, BiConsumer<Long, Integer> devolucao) {
+        this.debitos = debitos;
+        this.devolucao = devolucao;
+    }
+
+    public void liberar() {
+        if (liberada.compareAndSet(false, true)) {
+            debitos.forEach(devolucao);
+        }
+    }
+
+    public boolean isLiberada() {
+        return liberada.get();
+    }
+}
@@ -0,0 +1,22 @@
+package com.klok.desafio.services.produto;
+
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.entities.Produto;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ProdutoService {
+
+    Produto buscarPorId(Long id);
+
+    Map<Long, Produto> buscarPorIds(Collection<Long> ids);
+
+    Pagina<Produto> listarProdutos(Boolean disponivel, Long cursor, Integer limite);
+
+    Produto salvarProduto(Produto produto);
+
+    Produto atualizarProduto(Long id, Produto produtoAtualizado);
+
+    void excluirProduto(Long id);
+}
@@ -0,0 +1,113 @@
+package com.klok.desafio.services.produto;
+
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.exceptions.DatabaseException;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.repositories.ProdutoRepository;
+import com.klok.desafio.repositories.specifications.ProdutoSpecifications;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional(readOnly = true)
+public class ProdutoServiceImpl implements ProdutoService {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Override
+    public Produto buscarPorId(Long id) {
+        return produtoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+    }
+
+    //uma consulta por pedido, qualquer que seja o número de itens
+    @Override
+    public Map<Long, Produto> buscarPorIds(Collection<Long> ids) {
+        Map<Long, Produto> produtos = new HashMap<>();
+        if (ids.isEmpty()) {
+            return produtos;
+        }
+        for (Produto produto : produtoRepository.findAllById(ids)) {
+            produtos.put(produto.getId(), produto);
+        }
+        return produtos;
+    }
+
+    @Override
+    public Pagina<Produto> listarProdutos(Boolean disponivel, Long cursor, Integer limite) {
+        int tamanho = Pagina.limiteValido(limite);
+        List<Produto> produtos = produtoRepository.findBy(ProdutoSpecifications.comFiltro(disponivel, cursor),
+                consulta -> consulta.sortBy(Sort.by("id")).limit(tamanho + 1).all());
+        if (produtos.isEmpty() && cursor == null) {
+            throw new BusinessRuleException("Nenhum produto encontrado.");
+        }
+        return Pagina.de(produtos, tamanho, Produto::getId);
+    }
+
+    @Override
+    @Transactional
+    public Produto salvarProduto(Produto produto) {
+        if (produto == null) {
+            throw new BusinessRuleException("O produto não pode ser nulo.");
+        }
+        validarProduto(produto);
+        return produtoRepository.save(produto);
+    }
+
+    @Override
+    @Transactional
+    public Produto atualizarProduto(Long id, Produto produtoAtualizado) {
+        try {
+            Produto produtoExistente = produtoRepository.getReferenceById(id);
+            validarProduto(produtoAtualizado);
+            atualizarDados(produtoExistente, produtoAtualizado);
+            return produtoRepository.save(produtoExistente);
+        } catch (EntityNotFoundException e) {
+            throw new ResourceNotFoundException(id);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void excluirProduto(Long id) {
+        if (!produtoRepository.existsById(id)) {
+            throw new ResourceNotFoundException(id);
+        }
+        try {
+            produtoRepository.deleteById(id);
+            produtoRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new DatabaseException("Erro ao excluir produto. Ele pode estar associado a itens de pedidos.");
+        }
+    }
+
+    private void validarProduto(Produto produto) {
+        if (produto.getNome() == null || produto.getNome().isBlank()) {
+            throw new BusinessRuleException("O produto deve possuir um nome.");
+        }
+        if (produto.getPreco() == null || produto.getPreco().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BusinessRuleException("O produto possui um preço inválido.");
+        }
+        if (produto.getEstoque() == null || produto.getEstoque() < 0) {
+            throw new BusinessRuleException("O produto possui um estoque inválido.");
+        }
+    }
+
+    private void atualizarDados(Produto produtoExistente, Produto produtoAtualizado) {
+        produtoExistente.setNome(produtoAtualizado.getNome());
+        produtoExistente.setPreco(produtoAtualizado.getPreco());
+        produtoExistente.setEstoque(produtoAtualizado.getEstoque());
+    }
+}
@@ -0,0 +1,149 @@
+package com.klok.desafio.services.promocao;
+
+import com.klok.desafio.entities.Promocao;
+import com.klok.desafio.entities.SegmentoCliente;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+//Snapshot imutável das promoções vigentes, indexado por segmento de cliente e por produto. Promoções para TODOS
+//são copiadas nos dois segmentos na compilação, então cada consulta é uma busca em mapa seguida de uma lista
+//curta já ordenada do maior para o menor percentual
+public final class IndicePromocoes {
+
+    private static final List<SegmentoCliente> SEGMENTOS = List.of(SegmentoCliente.VIP, SegmentoCliente.REGULAR);
+
+    private final Map<SegmentoCliente, Map<Long, List<RegraPromocao>>> regrasPorProduto;
+    private final Map<SegmentoCliente, List<RegraPromocao>> faixasPedido;
+    private final Map<SegmentoCliente, Map<String, RegraPromocao>> cupons;
+    private final int totalPromocoes;
+
+    private IndicePromocoes(Map<SegmentoCliente, Map<Long, List<RegraPromocao>>> regrasPorProduto,
+                            Map<SegmentoCliente, List<RegraPromocao>> faixasPedido,
+                            Map<SegmentoCliente, Map<String, RegraPromocao>> cupons, int totalPromocoes) {
+        this.regrasPorProduto = regrasPorProduto;
+        this.faixasPedido = faixasPedido;
+        this.cupons = cupons;
+        this.totalPromocoes = totalPromocoes;
+    }
+
+    //descontoVip é o antigo desconto fixo de clientes VIP, mantido como uma faixa de pedido sem valor mínimo
+    public static IndicePromocoes compilar(Collection<Promocao> promocoes, BigDecimal descontoVip, LocalDate hoje) {
+        Map<SegmentoCliente, Map<Long, List<RegraPromocao>>> regrasPorProduto = new EnumMap<>(SegmentoCliente.class);
+        Map<SegmentoCliente, List<RegraPromocao>> faixasPedido = new EnumMap<>(SegmentoCliente.class);
+        Map<SegmentoCliente, Map<String, RegraPromocao>> cupons = new EnumMap<>(SegmentoCliente.class);
+        for (SegmentoCliente segmento : SEGMENTOS) {
+            regrasPorProduto.put(segmento, new HashMap<>());
+            faixasPedido.put(segmento, new ArrayList<>());
+            cupons.put(segmento, new HashMap<>());
+        }
+
+        if (descontoVip != null && descontoVip.signum() > 0) {
+            faixasPedido.get(SegmentoCliente.VIP).add(RegraPromocao.de(null, descontoVip, 0, null));
+        }
+
+        int total = 0;
+        for (Promocao promocao : promocoes) {
+            if (!vigente(promocao, hoje)) {
+                continue;
+            }
+            total++;
+            for (SegmentoCliente segmento : segmentosDe(promocao)) {
+                switch (promocao.getTipo()) {
+                    case ITEM, QUANTIDADE -> regrasPorProduto.get(segmento)
+                            .computeIfAbsent(promocao.getProdutoId(), id -> new ArrayList<>())
+                            .add(RegraPromocao.de(promocao.getId(), promocao.getPercentual(),
+                                    quantidadeMinima(promocao), null));
+                    case PEDIDO -> faixasPedido.get(segmento)
+                            .add(RegraPromocao.de(promocao.getId(), promocao.getPercentual(), 0, promocao.getValorMinimo()));
+                    case CUPOM -> cupons.get(segmento).merge(normalizarCupom(promocao.getCodigoCupom()),
+                            RegraPromocao.de(promocao.getId(), promocao.getPercentual(), 0, null), RegraPromocao::melhor);
+                }
+            }
+        }
+
+        Comparator<RegraPromocao> maiorPercentual = Comparator.comparing(RegraPromocao::percentual).reversed();
+        for (SegmentoCliente segmento : SEGMENTOS) {
+            Map<Long, List<RegraPromocao>> porProduto = new HashMap<>();
+            regrasPorProduto.get(segmento).forEach((produtoId, regras) -> {
+                regras.sort(maiorPercentual);
+                porProduto.put(produtoId, List.copyOf(regras));
+            });
+            regrasPorProduto.put(segmento, Map.copyOf(porProduto));
+            faixasPedido.get(segmento).sort(maiorPercentual);
+            faixasPedido.put(segmento, List.copyOf(faixasPedido.get(segmento)));
+            cupons.put(segmento, Map.copyOf(cupons.get(segmento)));
+        }
+        return new IndicePromocoes(regrasPorProduto, faixasPedido, cupons, total);
+    }
+
+    public static IndicePromocoes vazio(BigDecimal descontoVip) {
+        return compilar(List.of(), descontoVip, LocalDate.now());
+    }
+
+    public boolean possuiRegrasDeItem(SegmentoCliente segmento) {
+        return !regrasPorProduto.get(segmento).isEmpty();
+    }
+
+    public RegraPromocao melhorRegraItem(SegmentoCliente segmento, Long produtoId, int quantidade) {
+        if (produtoId == null) {
+            return null;
+        }
+        List<RegraPromocao> regras = regrasPorProduto.get(segmento).get(produtoId);
+        if (regras == null) {
+            return null;
+        }
+        for (RegraPromocao regra : regras) {
+            if (quantidade >= regra.quantidadeMinima()) {
+                return regra;
+            }
+        }
+        return null;
+    }
+
+    public RegraPromocao melhorFaixaPedido(SegmentoCliente segmento, long subtotalCentavos) {
+        for (RegraPromocao regra : faixasPedido.get(segmento)) {
+            if (subtotalCentavos >= regra.valorMinimoCentavos()) {
+                return regra;
+            }
+        }
+        return null;
+    }
+
+    public RegraPromocao melhorFaixaPedido(SegmentoCliente segmento, BigDecimal subtotal) {
+        for (RegraPromocao regra : faixasPedido.get(segmento)) {
+            if (subtotal.compareTo(regra.valorMinimo()) >= 0) {
+                return regra;
+            }
+        }
+        return null;
+    }
+
+    public Optional<RegraPromocao> cupom(SegmentoCliente segmento, String codigo) {
+        return Optional.ofNullable(cupons.get(segmento).get(normalizarCupom(codigo)));
+    }
+
+    public int getTotalPromocoes() {
+        return totalPromocoes;
+    }
+
+    public static String normalizarCupom(String codigo) {
+        return codigo == null ? null : codigo.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean vigente(Promocao promocao, LocalDate hoje) {
+        return Boolean.TRUE.equals(promocao.getAtiva())
+                && (promocao.getInicio() == null || !hoje.isBefore(promocao.getInicio()))
+                && (promocao.getFim() == null || !hoje.isAfter(promocao.getFim()));
+    }
+
+    private static List<SegmentoCliente> segmentosDe(Promocao promocao) {
+        return promocao.getSegmento() == null || promocao.getSegmento() == SegmentoCliente.TODOS
+                ? SEGMENTOS : List.of(promocao.getSegmento());
+    }
+
+    private static int quantidadeMinima(Promocao promocao) {
+        return promocao.getQuantidadeMinima() == null ? 0 : promocao.getQuantidadeMinima();
+    }
+}
@@ -0,0 +1,75 @@
+package com.klok.desafio.services.promocao;
+
+import com.klok.desafio.repositories.PromocaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Mantém o índice de promoções vigentes. Os pedidos leem o snapshot atual sem lock; a recarga compila um índice
+//novo e troca a referência de uma vez, então uma avaliação nunca vê regras pela metade
+@Component
+public class MotorPromocoes {
+
+    private static final Logger log = LoggerFactory.getLogger(MotorPromocoes.class);
+
+    @Autowired
+    private PromocaoRepository promocaoRepository;
+
+    @Value("${promocao.desconto-vip:10}")
+    private BigDecimal descontoVip;
+
+    private final AtomicReference<IndicePromocoes> indice = new AtomicReference<>();
+
+    //lock em vez de synchronized: a recarga consulta o banco, e uma thread virtual bloqueada dentro de
+    //synchronized fica presa à thread portadora (Java 21)
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    //até a primeira recarga vale só o desconto VIP configurado
+    @PostConstruct
+    public void iniciar() {
+        indice.set(IndicePromocoes.vazio(descontoVip));
+    }
+
+    public IndicePromocoes indice() {
+        return indice.get();
+    }
+
+    //também cobre o início e o fim de vigência das promoções, sem depender de alteração no cadastro
+    @Scheduled(fixedDelayString = "${promocao.recarga-ms:60000}")
+    public void recarregar() {
+        recarga.lock();
+        try {
+            IndicePromocoes novo = IndicePromocoes.compilar(promocaoRepository.findByAtivaTrue(), descontoVip,
+                    LocalDate.now());
+            indice.set(novo);
+            log.debug("Promoções recarregadas: {} vigentes", novo.getTotalPromocoes());
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    //alterações no cadastro só entram no índice depois do commit, para não publicar regras que podem ser desfeitas
+    public void recarregarAposCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recarregar();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recarregar();
+            }
+        });
+    }
+}
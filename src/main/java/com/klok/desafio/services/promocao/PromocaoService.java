@@ -0,0 +1,17 @@
+package com.klok.desafio.services.promocao;
+
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.entities.Promocao;
+
+public interface PromocaoService {
+
+    Promocao buscarPorId(Long id);
+
+    Pagina<Promocao> listarPromocoes(Long cursor, Integer limite);
+
+    Promocao salvarPromocao(Promocao promocao);
+
+    Promocao atualizarPromocao(Long id, Promocao promocaoAtualizada);
+
+    void excluirPromocao(Long id);
+}
@@ -0,0 +1,153 @@
+package com.klok.desafio.services.promocao;
+
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.entities.Promocao;
+import com.klok.desafio.entities.SegmentoCliente;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.exceptions.DatabaseException;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.repositories.PromocaoRepository;
+import com.klok.desafio.repositories.specifications.PaginacaoSpecifications;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class PromocaoServiceImpl implements PromocaoService {
+
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+
+    @Autowired
+    private PromocaoRepository promocaoRepository;
+
+    @Autowired
+    private MotorPromocoes motorPromocoes;
+
+    @Override
+    public Promocao buscarPorId(Long id) {
+        return promocaoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+    }
+
+    @Override
+    public Pagina<Promocao> listarPromocoes(Long cursor, Integer limite) {
+        int tamanho = Pagina.limiteValido(limite);
+        List<Promocao> promocoes = promocaoRepository.findBy(
+                Specification.where(PaginacaoSpecifications.<Promocao>aposCursor(cursor)),
+                consulta -> consulta.sortBy(Sort.by("id")).limit(tamanho + 1).all());
+        if (promocoes.isEmpty() && cursor == null) {
+            throw new BusinessRuleException("Nenhuma promoção encontrada.");
+        }
+        return Pagina.de(promocoes, tamanho, Promocao::getId);
+    }
+
+    //toda alteração no cadastro recompila o índice do motor, sem reiniciar a aplicação
+    @Override
+    @Transactional
+    public Promocao salvarPromocao(Promocao promocao) {
+        if (promocao == null) {
+            throw new BusinessRuleException("A promoção não pode ser nula.");
+        }
+        aplicarPadroes(promocao);
+        validarPromocao(promocao);
+        Promocao salva = promocaoRepository.save(promocao);
+        motorPromocoes.recarregarAposCommit();
+        return salva;
+    }
+
+    @Override
+    @Transactional
+    public Promocao atualizarPromocao(Long id, Promocao promocaoAtualizada) {
+        try {
+            Promocao promocaoExistente = promocaoRepository.getReferenceById(id);
+            aplicarPadroes(promocaoAtualizada);
+            validarPromocao(promocaoAtualizada);
+            atualizarDados(promocaoExistente, promocaoAtualizada);
+            Promocao salva = promocaoRepository.save(promocaoExistente);
+            motorPromocoes.recarregarAposCommit();
+            return salva;
+        } catch (EntityNotFoundException e) {
+            throw new ResourceNotFoundException(id);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void excluirPromocao(Long id) {
+        if (!promocaoRepository.existsById(id)) {
+            throw new ResourceNotFoundException(id);
+        }
+        try {
+            promocaoRepository.deleteById(id);
+            promocaoRepository.flush();
+            motorPromocoes.recarregarAposCommit();
+        } catch (DataIntegrityViolationException e) {
+            throw new DatabaseException(e.getMessage());
+        }
+    }
+
+    private void aplicarPadroes(Promocao promocao) {
+        if (promocao.getSegmento() == null) {
+            promocao.setSegmento(SegmentoCliente.TODOS);
+        }
+        if (promocao.getAtiva() == null) {
+            promocao.setAtiva(true);
+        }
+    }
+
+    private void validarPromocao(Promocao promocao) {
+        if (promocao.getNome() == null || promocao.getNome().isBlank()) {
+            throw new BusinessRuleException("A promoção deve possuir um nome.");
+        }
+        if (promocao.getTipo() == null) {
+            throw new BusinessRuleException("A promoção deve possuir um tipo.");
+        }
+        if (promocao.getPercentual() == null || promocao.getPercentual().signum() <= 0
+                || promocao.getPercentual().compareTo(CEM) > 0) {
+            throw new BusinessRuleException("O percentual da promoção deve ser maior que zero e no máximo 100.");
+        }
+        if (promocao.getInicio() != null && promocao.getFim() != null && promocao.getFim().isBefore(promocao.getInicio())) {
+            throw new BusinessRuleException("O fim da promoção não pode ser anterior ao início.");
+        }
+
+        switch (promocao.getTipo()) {
+            case ITEM -> exigir(promocao.getProdutoId() != null, "Promoção por item deve informar o produto.");
+            case QUANTIDADE -> {
+                exigir(promocao.getProdutoId() != null, "Promoção por quantidade deve informar o produto.");
+                exigir(promocao.getQuantidadeMinima() != null && promocao.getQuantidadeMinima() > 0,
+                        "Promoção por quantidade deve informar uma quantidade mínima válida.");
+            }
+            case PEDIDO -> exigir(promocao.getValorMinimo() == null || promocao.getValorMinimo().signum() >= 0,
+                    "O valor mínimo da promoção não pode ser negativo.");
+            case CUPOM -> exigir(promocao.getCodigoCupom() != null && !promocao.getCodigoCupom().isBlank(),
+                    "Promoção por cupom deve informar o código do cupom.");
+        }
+    }
+
+    private void exigir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new BusinessRuleException(mensagem);
+        }
+    }
+
+    private void atualizarDados(Promocao promocaoExistente, Promocao promocaoAtualizada) {
+        promocaoExistente.setNome(promocaoAtualizada.getNome());
+        promocaoExistente.setTipo(promocaoAtualizada.getTipo());
+        promocaoExistente.setSegmento(promocaoAtualizada.getSegmento());
+        promocaoExistente.setPercentual(promocaoAtualizada.getPercentual());
+        promocaoExistente.setProdutoId(promocaoAtualizada.getProdutoId());
+        promocaoExistente.setQuantidadeMinima(promocaoAtualizada.getQuantidadeMinima());
+        promocaoExistente.setValorMinimo(promocaoAtualizada.getValorMinimo());
+        promocaoExistente.setCodigoCupom(promocaoAtualizada.getCodigoCupom());
+        promocaoExistente.setAtiva(promocaoAtualizada.getAtiva());
+        promocaoExistente.setInicio(promocaoAtualizada.getInicio());
+        promocaoExistente.setFim(promocaoAtualizada.getFim());
+    }
+}
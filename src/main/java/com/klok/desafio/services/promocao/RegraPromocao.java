@@ -0,0 +1,59 @@
+package com.klok.desafio.services.promocao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+//Promoção já compilada para avaliação: o percentual vira o fator (1 - percentual/100), também como fração
+//inteira para o cálculo em centavos. O valor com desconto é sempre valor * fator arredondado HALF_UP
+public record RegraPromocao(Long promocaoId, BigDecimal percentual, BigDecimal fator, long fatorNumerador,
+                            long fatorDenominador, int quantidadeMinima, BigDecimal valorMinimo,
+                            long valorMinimoCentavos) {
+
+    private static final int ESCALA = 2;
+
+    public static RegraPromocao de(Long promocaoId, BigDecimal percentual, int quantidadeMinima, BigDecimal valorMinimo) {
+        BigDecimal fator = BigDecimal.ONE.subtract(percentual.movePointLeft(2));
+        long numerador = fator.unscaledValue().longValueExact();
+        long denominador = BigDecimal.ONE.movePointRight(fator.scale()).longValueExact();
+        BigDecimal minimo = valorMinimo == null ? BigDecimal.ZERO : valorMinimo;
+        long minimoCentavos;
+        try {
+            minimoCentavos = minimo.setScale(ESCALA, RoundingMode.CEILING).movePointRight(ESCALA).longValueExact();
+        } catch (ArithmeticException e) {
+            minimoCentavos = Long.MAX_VALUE;
+        }
+        return new RegraPromocao(promocaoId, percentual, fator, numerador, denominador, quantidadeMinima, minimo,
+                minimoCentavos);
+    }
+
+    //lança ArithmeticException em caso de estouro, para o chamador refazer o cálculo em BigDecimal
+    public long aplicar(long centavos) {
+        long produto = Math.multiplyExact(centavos, fatorNumerador);
+        long quociente = produto / fatorDenominador;
+        long resto = produto % fatorDenominador;
+        if (Math.abs(resto) * 2 >= fatorDenominador) {
+            quociente += Long.signum(produto);
+        }
+        return quociente;
+    }
+
+    public BigDecimal aplicar(BigDecimal valor) {
+        return valor.multiply(fator).setScale(ESCALA, RoundingMode.HALF_UP);
+    }
+
+    //a faixa VIP (promocao.desconto-vip) é a única regra que não vem de uma promoção cadastrada
+    public boolean isDescontoVip() {
+        return promocaoId == null;
+    }
+
+    //promoções não são cumulativas no mesmo nível: vale a de maior percentual
+    public static RegraPromocao melhor(RegraPromocao a, RegraPromocao b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return b.percentual.compareTo(a.percentual) > 0 ? b : a;
+    }
+}
@@ -0,0 +1,58 @@
+package com.klok.desafio.services.relatorio;
+
+import com.klok.desafio.entities.Pedido;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//Vendas ainda não consolidadas, somadas em memória. Cada pedido custa algumas somas sob um lock curto e nenhuma
+//transação de pedido escreve nas tabelas de relatório: o ConsolidadorVendas descarrega tudo periodicamente, numa
+//transação própria. O que estiver aqui quando a aplicação cair sem encerrar é perdido
+@Component
+public class AcumuladorVendas {
+
+    private LancamentosVendas pendentes = new LancamentosVendas();
+
+    //os valores são copiados na hora (o pedido pode ser limpo do contexto antes do commit) e só entram nas somas
+    //se a transação do pedido for confirmada
+    public void registrarVenda(Pedido pedido, BigDecimal descontoVip) {
+        LancamentosVendas venda = new LancamentosVendas();
+        venda.somarVenda(LocalDateTime.now(), pedido, descontoVip);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acumular(venda);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acumular(venda);
+            }
+        });
+    }
+
+    //o pedido sem estoque é desfeito, então a falta é contada na hora, fora da transação dele
+    public void registrarFaltaEstoque() {
+        LancamentosVendas falta = new LancamentosVendas();
+        falta.somarFaltaEstoque(LocalDateTime.now());
+        acumular(falta);
+    }
+
+    //entrega tudo o que foi somado até agora e recomeça do zero
+    public synchronized LancamentosVendas drenar() {
+        LancamentosVendas drenados = pendentes;
+        pendentes = new LancamentosVendas();
+        return drenados;
+    }
+
+    //somas que não puderam ser gravadas voltam para a próxima consolidação
+    public void devolver(LancamentosVendas lancamentos) {
+        acumular(lancamentos);
+    }
+
+    private synchronized void acumular(LancamentosVendas lancamentos) {
+        pendentes.somar(lancamentos);
+    }
+}
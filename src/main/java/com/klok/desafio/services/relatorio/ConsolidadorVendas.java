@@ -0,0 +1,42 @@
+package com.klok.desafio.services.relatorio;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ConsolidadorVendas {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsolidadorVendas.class);
+
+    @Autowired
+    private AcumuladorVendas acumuladorVendas;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    //uma transação por rodada, com um UPDATE (ou INSERT) por hora e por item/dia com vendas desde a anterior. Se a
+    //gravação falhar, as somas voltam para o acumulador e entram na próxima rodada
+    @Scheduled(fixedDelayString = "${relatorio.consolidacao-ms:60000}")
+    public synchronized void consolidar() {
+        LancamentosVendas lancamentos = acumuladorVendas.drenar();
+        if (lancamentos.isVazio()) {
+            return;
+        }
+        try {
+            relatorioService.consolidar(lancamentos);
+        } catch (RuntimeException e) {
+            acumuladorVendas.devolver(lancamentos);
+            log.warn("Falha ao consolidar as vendas, nova tentativa na próxima rodada: {}", e.getMessage());
+        }
+    }
+
+    //o que ainda está em memória é gravado antes de a aplicação parar
+    @PreDestroy
+    public void encerrar() {
+        consolidar();
+    }
+}
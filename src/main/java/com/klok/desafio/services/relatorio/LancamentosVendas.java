@@ -0,0 +1,111 @@
+package com.klok.desafio.services.relatorio;
+
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.VendaItemDiaId;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+//Somas ainda não gravadas nas tabelas de relatório, por hora e por item/dia. Não é thread-safe: quem guarda
+//(AcumuladorVendas) sincroniza o acesso
+public class LancamentosVendas {
+
+    private final Map<LocalDateTime, Hora> horas = new HashMap<>();
+
+    private final Map<VendaItemDiaId, ItemDia> itens = new HashMap<>();
+
+    public void somarVenda(LocalDateTime momento, Pedido pedido, BigDecimal descontoVip) {
+        Hora hora = hora(momento);
+        hora.quantidadePedidos++;
+        hora.valorBruto = hora.valorBruto.add(pedido.getTotal());
+        hora.valorLiquido = hora.valorLiquido.add(pedido.getTotalComDesconto());
+        hora.descontoVip = hora.descontoVip.add(descontoVip);
+        for (Item item : pedido.getItens()) {
+            ItemDia itemDia = itens.computeIfAbsent(new VendaItemDiaId(momento.toLocalDate(), item.getNome()),
+                    chave -> new ItemDia());
+            itemDia.quantidade += item.getQuantidade();
+            itemDia.valor = itemDia.valor.add(item.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())));
+        }
+    }
+
+    public void somarFaltaEstoque(LocalDateTime momento) {
+        hora(momento).faltasEstoque++;
+    }
+
+    public void somar(LancamentosVendas outros) {
+        outros.horas.forEach((chave, hora) -> {
+            Hora atual = horas.computeIfAbsent(chave, c -> new Hora());
+            atual.quantidadePedidos += hora.quantidadePedidos;
+            atual.valorBruto = atual.valorBruto.add(hora.valorBruto);
+            atual.valorLiquido = atual.valorLiquido.add(hora.valorLiquido);
+            atual.descontoVip = atual.descontoVip.add(hora.descontoVip);
+            atual.faltasEstoque += hora.faltasEstoque;
+        });
+        outros.itens.forEach((chave, item) -> {
+            ItemDia atual = itens.computeIfAbsent(chave, c -> new ItemDia());
+            atual.quantidade += item.quantidade;
+            atual.valor = atual.valor.add(item.valor);
+        });
+    }
+
+    public boolean isVazio() {
+        return horas.isEmpty() && itens.isEmpty();
+    }
+
+    public Map<LocalDateTime, Hora> getHoras() {
+        return horas;
+    }
+
+    public Map<VendaItemDiaId, ItemDia> getItens() {
+        return itens;
+    }
+
+    private Hora hora(LocalDateTime momento) {
+        return horas.computeIfAbsent(momento.truncatedTo(ChronoUnit.HOURS), chave -> new Hora());
+    }
+
+    public static class Hora {
+        private long quantidadePedidos;
+        private BigDecimal valorBruto = BigDecimal.ZERO;
+        private BigDecimal valorLiquido = BigDecimal.ZERO;
+        private BigDecimal descontoVip = BigDecimal.ZERO;
+        private long faltasEstoque;
+
+        public long getQuantidadePedidos() {
+            return quantidadePedidos;
+        }
+
+        public BigDecimal getValorBruto() {
+            return valorBruto;
+        }
+
+        public BigDecimal getValorLiquido() {
+            return valorLiquido;
+        }
+
+        public BigDecimal getDescontoVip() {
+            return descontoVip;
+        }
+
+        public long getFaltasEstoque() {
+            return faltasEstoque;
+        }
+    }
+
+    public static class ItemDia {
+        private long quantidade;
+        private BigDecimal valor = BigDecimal.ZERO;
+
+        public long getQuantidade() {
+            return quantidade;
+        }
+
+        public BigDecimal getValor() {
+            return valor;
+        }
+    }
+}
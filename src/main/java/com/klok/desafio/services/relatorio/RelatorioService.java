@@ -0,0 +1,19 @@
+package com.klok.desafio.services.relatorio;
+
+import com.klok.desafio.dto.ItemVendido;
+import com.klok.desafio.dto.VendasDia;
+import com.klok.desafio.entities.VendaHora;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RelatorioService {
+
+    List<VendasDia> vendasPorDia(LocalDate inicio, LocalDate fim);
+
+    List<VendaHora> vendasPorHora(LocalDate dia);
+
+    List<ItemVendido> itensMaisVendidos(LocalDate inicio, LocalDate fim, Integer limite);
+
+    void consolidar(LancamentosVendas lancamentos);
+}
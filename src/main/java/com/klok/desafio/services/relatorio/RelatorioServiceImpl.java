@@ -0,0 +1,105 @@
+package com.klok.desafio.services.relatorio;
+
+import com.klok.desafio.dto.ItemVendido;
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.dto.VendasDia;
+import com.klok.desafio.entities.VendaHora;
+import com.klok.desafio.entities.VendaItemDia;
+import com.klok.desafio.entities.VendaItemDiaId;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.repositories.VendaHoraRepository;
+import com.klok.desafio.repositories.VendaItemDiaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+//Os relatórios leem só as tabelas consolidadas (tb_venda_hora e tb_venda_item_dia), em transação somente leitura,
+//que vai para a réplica quando houver: nada de SUM sobre pedidos e itens na primária. As vendas aparecem depois
+//da próxima consolidação (relatorio.consolidacao-ms)
+@Service
+@Transactional(readOnly = true)
+public class RelatorioServiceImpl implements RelatorioService {
+
+    static final int MAXIMO_DIAS = 366;
+
+    @Autowired
+    private VendaHoraRepository vendaHoraRepository;
+
+    @Autowired
+    private VendaItemDiaRepository vendaItemDiaRepository;
+
+    //um dia por data do período, inclusive os sem venda, somando no máximo 24 linhas por dia
+    @Override
+    public List<VendasDia> vendasPorDia(LocalDate inicio, LocalDate fim) {
+        validarPeriodo(inicio, fim);
+        List<VendasDia> dias = new ArrayList<>();
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            dias.add(new VendasDia(dia));
+        }
+        for (VendaHora hora : vendaHoraRepository.findByHoraGreaterThanEqualAndHoraLessThanOrderByHora(
+                inicio.atStartOfDay(), fim.plusDays(1).atStartOfDay())) {
+            dias.get((int) ChronoUnit.DAYS.between(inicio, hora.getHora().toLocalDate())).somar(hora);
+        }
+        return dias;
+    }
+
+    //só as horas com venda ou falta de estoque
+    @Override
+    public List<VendaHora> vendasPorHora(LocalDate dia) {
+        if (dia == null) {
+            throw new BusinessRuleException("Informe o dia.");
+        }
+        return vendaHoraRepository.findByHoraGreaterThanEqualAndHoraLessThanOrderByHora(dia.atStartOfDay(),
+                dia.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public List<ItemVendido> itensMaisVendidos(LocalDate inicio, LocalDate fim, Integer limite) {
+        validarPeriodo(inicio, fim);
+        return vendaItemDiaRepository.somarPorItem(inicio, fim, Limit.of(Pagina.limiteValido(limite)));
+    }
+
+    //incremento quando a linha já existe e INSERT só na primeira consolidação da hora ou do item/dia. Se outra
+    //instância inserir a mesma linha antes, a chave primária rejeita o commit e as somas voltam para o acumulador
+    @Override
+    @Transactional
+    public void consolidar(LancamentosVendas lancamentos) {
+        for (Map.Entry<LocalDateTime, LancamentosVendas.Hora> entrada : lancamentos.getHoras().entrySet()) {
+            LancamentosVendas.Hora hora = entrada.getValue();
+            int atualizadas = vendaHoraRepository.somar(entrada.getKey(), hora.getQuantidadePedidos(),
+                    hora.getValorBruto(), hora.getValorLiquido(), hora.getDescontoVip(), hora.getFaltasEstoque());
+            if (atualizadas == 0) {
+                vendaHoraRepository.save(new VendaHora(entrada.getKey(), hora.getQuantidadePedidos(),
+                        hora.getValorBruto(), hora.getValorLiquido(), hora.getDescontoVip(), hora.getFaltasEstoque()));
+            }
+        }
+        for (Map.Entry<VendaItemDiaId, LancamentosVendas.ItemDia> entrada : lancamentos.getItens().entrySet()) {
+            VendaItemDiaId chave = entrada.getKey();
+            LancamentosVendas.ItemDia item = entrada.getValue();
+            if (vendaItemDiaRepository.somar(chave.getDia(), chave.getNome(), item.getQuantidade(),
+                    item.getValor()) == 0) {
+                vendaItemDiaRepository.save(new VendaItemDia(chave, item.getQuantidade(), item.getValor()));
+            }
+        }
+    }
+
+    private void validarPeriodo(LocalDate inicio, LocalDate fim) {
+        if (inicio == null || fim == null) {
+            throw new BusinessRuleException("Informe o início e o fim do período.");
+        }
+        if (fim.isBefore(inicio)) {
+            throw new BusinessRuleException("O fim do período deve ser igual ou posterior ao início.");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= MAXIMO_DIAS) {
+            throw new BusinessRuleException("O período deve ter no máximo " + MAXIMO_DIAS + " dias.");
+        }
+    }
+}
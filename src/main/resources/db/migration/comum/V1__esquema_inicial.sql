@@ -0,0 +1,102 @@
+-- Esquema como era gerado pelo Hibernate (ddl-auto=update) até as migrações. Bancos já criados assim são marcados
+-- nesta versão (spring.flyway.baseline-on-migrate) e seguem a partir da V2
+
+create sequence seq_cliente start with 1 increment by 50;
+create sequence seq_produto start with 1 increment by 50;
+create sequence seq_pedido start with 1 increment by 50;
+create sequence seq_item start with 1 increment by 50;
+create sequence seq_promocao start with 1 increment by 50;
+create sequence seq_notificacao start with 1 increment by 50;
+
+create table tb_cliente (
+    id bigint not null,
+    nome varchar(100) not null,
+    email varchar(150) not null,
+    vip boolean not null,
+    constraint pk_cliente primary key (id),
+    constraint uk_cliente_email unique (email)
+);
+
+create table tb_produto (
+    id bigint not null,
+    nome varchar(100) not null,
+    preco numeric(10,2) not null,
+    estoque integer not null,
+    constraint pk_produto primary key (id),
+    constraint uk_produto_nome unique (nome)
+);
+
+create table tb_pedido (
+    id bigint not null,
+    total numeric(10,2) not null,
+    total_com_desconto numeric(10,2) not null,
+    em_estoque boolean not null,
+    data_entrega date,
+    cupom varchar(40),
+    id_cliente bigint not null,
+    constraint pk_pedido primary key (id),
+    constraint fk_pedido_cliente foreign key (id_cliente) references tb_cliente (id)
+);
+
+create index idx_pedido_cliente_id on tb_pedido (id_cliente, id);
+create index idx_pedido_data_entrega_id on tb_pedido (data_entrega, id);
+
+create table tb_item (
+    id bigint not null,
+    nome varchar(100) not null,
+    preco numeric(10,2) not null,
+    quantidade integer not null,
+    id_produto bigint not null,
+    id_pedido bigint not null,
+    constraint pk_item primary key (id),
+    constraint fk_item_produto foreign key (id_produto) references tb_produto (id),
+    constraint fk_item_pedido foreign key (id_pedido) references tb_pedido (id)
+);
+
+create index idx_item_pedido_id on tb_item (id_pedido, id);
+create index idx_item_produto_id on tb_item (id_produto);
+
+create table tb_promocao (
+    id bigint not null,
+    nome varchar(100) not null,
+    tipo varchar(20) not null check (tipo in ('PEDIDO','ITEM','QUANTIDADE','CUPOM')),
+    segmento varchar(20) not null check (segmento in ('TODOS','VIP','REGULAR')),
+    percentual numeric(5,2) not null,
+    id_produto bigint,
+    quantidade_minima integer,
+    valor_minimo numeric(10,2),
+    codigo_cupom varchar(40),
+    ativa boolean not null,
+    inicio date,
+    fim date,
+    constraint pk_promocao primary key (id),
+    constraint uk_promocao_codigo_cupom unique (codigo_cupom)
+);
+
+create index idx_promocao_ativa on tb_promocao (ativa);
+
+create table tb_notificacao (
+    id bigint not null,
+    destinatario varchar(150) not null,
+    titulo varchar(200) not null,
+    conteudo text not null,
+    status varchar(20) not null check (status in ('PENDENTE','ENVIADA','FALHA')),
+    tentativas integer not null,
+    proxima_tentativa timestamp(6) with time zone not null,
+    criado_em timestamp(6) with time zone not null,
+    enviado_em timestamp(6) with time zone,
+    ultimo_erro varchar(500),
+    constraint pk_notificacao primary key (id)
+);
+
+create table tb_chave_idempotencia (
+    chave varchar(100) not null,
+    hash_requisicao varchar(64) not null,
+    id_recurso bigint,
+    corpo text,
+    criado_em timestamp(6) with time zone not null,
+    expira_em timestamp(6) with time zone not null,
+    constraint pk_chave_idempotencia primary key (chave)
+);
+
+create index idx_chave_idempotencia_expira_em on tb_chave_idempotencia (expira_em);
@@ -0,0 +1,17 @@
+-- Resumo dos pedidos por cliente (ResumoCliente), preenchido a partir dos pedidos já gravados
+
+create table tb_resumo_cliente (
+    id_cliente bigint not null,
+    quantidade_pedidos bigint not null,
+    total numeric(14,2) not null,
+    total_com_desconto numeric(14,2) not null,
+    ultima_data_entrega date,
+    constraint pk_resumo_cliente primary key (id_cliente),
+    constraint fk_resumo_cliente_cliente foreign key (id_cliente) references tb_cliente (id)
+);
+
+insert into tb_resumo_cliente (id_cliente, quantidade_pedidos, total, total_com_desconto, ultima_data_entrega)
+select c.id, count(p.id), coalesce(sum(p.total), 0), coalesce(sum(p.total_com_desconto), 0), max(p.data_entrega)
+from tb_cliente c
+left join tb_pedido p on p.id_cliente = c.id
+group by c.id;
@@ -0,0 +1,20 @@
+-- Relatórios de vendas (/relatorios): totais por hora e unidades por item e dia, somados pelo ConsolidadorVendas.
+-- Os pedidos não guardam a hora da venda, então as tabelas começam vazias e contam a partir desta versão
+
+create table tb_venda_hora (
+    hora timestamp(6) not null,
+    quantidade_pedidos bigint not null,
+    valor_bruto numeric(14,2) not null,
+    valor_liquido numeric(14,2) not null,
+    desconto_vip numeric(14,2) not null,
+    faltas_estoque bigint not null,
+    constraint pk_venda_hora primary key (hora)
+);
+
+create table tb_venda_item_dia (
+    dia date not null,
+    nome varchar(100) not null,
+    quantidade bigint not null,
+    valor numeric(14,2) not null,
+    constraint pk_venda_item_dia primary key (dia, nome)
+);
@@ -0,0 +1,5 @@
+-- Versão (trava otimista e ETag de GET /{id}) de clientes, pedidos e itens; linhas existentes começam em 0
+
+alter table tb_cliente add column versao bigint default 0 not null;
+alter table tb_pedido add column versao bigint default 0 not null;
+alter table tb_item add column versao bigint default 0 not null;
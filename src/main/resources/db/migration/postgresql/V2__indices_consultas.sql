@@ -0,0 +1,19 @@
+-- Índices das consultas mais frequentes. CONCURRENTLY não bloqueia escritas nas tabelas já populadas (o Flyway
+-- roda esta migração fora de transação) e IF NOT EXISTS cobre bancos em que o ddl-auto=update já criou algum deles
+
+-- itens por pedido (GET /itens?pedidoId=, carga do grafo do pedido)
+create index concurrently if not exists idx_item_pedido_id on tb_item (id_pedido, id);
+create index concurrently if not exists idx_item_produto_id on tb_item (id_produto);
+
+-- pedidos de um cliente num intervalo de entrega (GET /pedidos?clienteId=&dataEntregaDe=&dataEntregaAte=)
+create index concurrently if not exists idx_pedido_cliente_data_entrega on tb_pedido (id_cliente, data_entrega);
+create index concurrently if not exists idx_pedido_cliente_id on tb_pedido (id_cliente, id);
+create index concurrently if not exists idx_pedido_data_entrega_id on tb_pedido (data_entrega, id);
+
+-- fila da outbox (NotificacaoRepository.buscarPendentesParaEnvio): só as linhas pendentes, que são poucas perto
+-- das já enviadas
+create index concurrently if not exists idx_notificacao_pendente on tb_notificacao (proxima_tentativa, id)
+    where status = 'PENDENTE';
+
+create index concurrently if not exists idx_promocao_ativa on tb_promocao (ativa);
+create index concurrently if not exists idx_chave_idempotencia_expira_em on tb_chave_idempotencia (expira_em);
@@ -0,0 +1,65 @@
+package com.klok.desafio.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheHttpTest {
+
+    private CacheHttp cacheHttp;
+
+    @BeforeEach
+    void configurar() {
+        cacheHttp = new CacheHttp();
+        ReflectionTestUtils.setField(cacheHttp, "maxAge", Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer a versão atual em If-None-Match, inclusive fraca, em lista ou curinga")
+    void naoModificado_versaoAtual() {
+        assertTrue(cacheHttp.naoModificado("\"3.1\"", "3.1"));
+        assertTrue(cacheHttp.naoModificado("W/\"3.1\"", "3.1"));
+        assertTrue(cacheHttp.naoModificado("\"2.1\", \"3.1\"", "3.1"));
+        assertTrue(cacheHttp.naoModificado("*", "3.1"));
+    }
+
+    @Test
+    @DisplayName("Não deve reconhecer versão antiga, sem aspas ou cabeçalho ausente")
+    void naoModificado_versaoDiferente() {
+        assertFalse(cacheHttp.naoModificado("\"2.1\"", "3.1"));
+        assertFalse(cacheHttp.naoModificado("3.1", "3.1"));
+        assertFalse(cacheHttp.naoModificado("\"3.10\"", "3.1"));
+        assertFalse(cacheHttp.naoModificado(null, "3.1"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 sem corpo e 200 com corpo, os dois com ETag e Cache-Control")
+    void respostas_trazemETagECacheControl() {
+        ResponseEntity<String> naoModificada = cacheHttp.respostaNaoModificada("4");
+        assertEquals(HttpStatus.NOT_MODIFIED, naoModificada.getStatusCode());
+        assertNull(naoModificada.getBody());
+        assertEquals("\"4\"", naoModificada.getHeaders().getETag());
+        assertEquals("no-cache, private", naoModificada.getHeaders().getCacheControl());
+
+        ResponseEntity<String> resposta = cacheHttp.resposta("4", "corpo");
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals("corpo", resposta.getBody());
+        assertEquals("\"4\"", resposta.getHeaders().getFirst(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Deve usar max-age com revalidação obrigatória quando configurado")
+    void cacheControl_comMaxAge() {
+        ReflectionTestUtils.setField(cacheHttp, "maxAge", Duration.ofSeconds(30));
+
+        assertEquals("max-age=30, must-revalidate, private", cacheHttp.cacheControl().getHeaderValue());
+    }
+}
@@ -0,0 +1,174 @@
+package com.klok.desafio.config;
+
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.repositories.ClienteRepository;
+import com.klok.desafio.repositories.PedidoRepository;
+import com.klok.desafio.services.cliente.ClienteService;
+import com.klok.desafio.services.pedido.PedidoService;
+import com.klok.desafio.services.produto.ProdutoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//contra o banco (H2 do perfil test) com o cache de segundo nível e o de consultas ligados: cada leitura roda numa
+//transação nova, então só acha a entidade sem ir ao banco se ela estiver no cache, e precisa ver o que foi alterado
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:cache_segundo_nivel;MODE=PostgreSQL",
+        "persistencia.cache.ativo=true", "persistencia.cache.consultas=true"})
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics estatisticas;
+    private Cliente cliente;
+    private Produto produto;
+
+    @BeforeEach
+    void configurar() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long sufixo = System.nanoTime();
+        cliente = clienteService.salvarCliente(new Cliente("Bia", "bia" + sufixo + "@klok.com"));
+        produto = produtoService.salvarProduto(new Produto("Caderno " + sufixo, new BigDecimal("2.50"), 100));
+    }
+
+    @Test
+    @DisplayName("Deve ler o cliente do cache e ver a alteração feita por atualizarCliente")
+    void atualizarCliente_atualizaCache() {
+        buscarCliente();
+        long acertos = regiao("cliente").getHitCount();
+
+        assertEquals("Bia", buscarCliente().getNome());
+        assertEquals(acertos + 1, regiao("cliente").getHitCount());
+
+        Cliente alterado = new Cliente("Beatriz", cliente.getEmail());
+        alterado.setVip(true);
+        clienteService.atualizarCliente(cliente.getId(), alterado);
+
+        Cliente lido = buscarCliente();
+        assertEquals("Beatriz", lido.getNome());
+        assertTrue(lido.isVip());
+    }
+
+    @Test
+    @DisplayName("Deve ler pedido e itens do cache e ver os itens trocados por atualizarPedido")
+    void atualizarPedido_atualizaCache() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(2));
+        assertEquals(List.of(2), quantidades(pedido.getId()));
+        long acertos = regiao("pedido-itens").getHitCount();
+
+        assertEquals(List.of(2), quantidades(pedido.getId()));
+        assertEquals(acertos + 1, regiao("pedido-itens").getHitCount());
+
+        pedidoService.atualizarPedido(pedido.getId(), pedido(3));
+
+        assertEquals(List.of(3), quantidades(pedido.getId()));
+        Pedido lido = transactionTemplate.execute(status -> pedidoRepository.findById(pedido.getId()).orElseThrow());
+        assertEquals(new BigDecimal("7.50"), lido.getTotal());
+    }
+
+    @Test
+    @DisplayName("Não deve devolver do cache o pedido excluído")
+    void excluirPedido_removeDoCache() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(1));
+        quantidades(pedido.getId());
+
+        pedidoService.excluirPedido(pedido.getId());
+
+        assertTrue(transactionTemplate.execute(status -> pedidoRepository.findById(pedido.getId())).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve guardar a consulta do pedido por ID e invalidá-la quando o pedido mudar")
+    void findComItensById_usaCacheDeConsultas() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(1));
+        buscarComItens(pedido.getId());
+        long acertos = estatisticas.getQueryCacheHitCount();
+
+        assertEquals(List.of(1), buscarComItens(pedido.getId()));
+        assertEquals(acertos + 1, estatisticas.getQueryCacheHitCount());
+
+        pedidoService.atualizarPedido(pedido.getId(), pedido(4));
+
+        assertEquals(List.of(4), buscarComItens(pedido.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve publicar a taxa de acerto de cada região")
+    void deveRegistrarTaxaDeAcerto() {
+        buscarCliente();
+        buscarCliente();
+
+        double taxa = meterRegistry.get(MetricasCacheSegundoNivel.METRICA_TAXA_ACERTO).tag("regiao", "cliente")
+                .gauge().value();
+        assertTrue(taxa > 0 && taxa <= 1);
+        assertNotNull(meterRegistry.find(MetricasCacheSegundoNivel.METRICA_TAXA_ACERTO).tag("regiao", "item")
+                .gauge());
+    }
+
+    private Cliente buscarCliente() {
+        return transactionTemplate.execute(status -> clienteRepository.findById(cliente.getId()).orElseThrow());
+    }
+
+    private List<Integer> quantidades(Long pedidoId) {
+        return transactionTemplate.execute(status -> pedidoRepository.findById(pedidoId).orElseThrow()
+                .getItens().stream().map(Item::getQuantidade).toList());
+    }
+
+    private List<Integer> buscarComItens(Long pedidoId) {
+        return transactionTemplate.execute(status -> pedidoRepository.findComItensById(pedidoId).orElseThrow()
+                .getItens().stream().map(Item::getQuantidade).toList());
+    }
+
+    private CacheRegionStatistics regiao(String nome) {
+        return estatisticas.getCacheRegionStatistics(nome);
+    }
+
+    private Pedido pedido(int quantidade) {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        Item item = new Item();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        pedido.getItens().add(item);
+        return pedido;
+    }
+}
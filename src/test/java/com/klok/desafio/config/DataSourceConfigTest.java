@@ -0,0 +1,73 @@
+package com.klok.desafio.config;
+
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.services.cliente.ClienteService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//A "réplica" aqui é um segundo pool apontando para o mesmo banco H2 em memória: atraso zero, mas pools, métricas
+//e roteamento iguais aos de produção
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:roteamento;MODE=PostgreSQL",
+        "spring.datasource.replica.jdbc-url=jdbc:h2:mem:roteamento;MODE=PostgreSQL",
+        "spring.datasource.replica.username=sa",
+        "replica.consulta-atraso=SELECT 0"
+})
+@ActiveProfiles("test")
+class DataSourceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replica;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Deve mandar transações somente leitura para a réplica e escritas para a primária")
+    void roteamento_leituraNaReplicaEscritaNaPrimaria() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        double leiturasAntes = roteamento("replica");
+
+        Cliente cliente = clienteService.salvarCliente(new Cliente("Bia", "bia@klok.com"));
+        assertEquals(leiturasAntes, roteamento("replica"));
+
+        clienteService.listarClientes(null, null, 10);
+        assertEquals(leiturasAntes + 1, roteamento("replica"));
+        assertEquals(0, roteamento("primaria"));
+        assertTrue(replica.isReadOnly());
+        assertNotNull(cliente.getId());
+    }
+
+    @Test
+    @DisplayName("Deve publicar métricas do Hikari separadas para a primária e a réplica")
+    void metricas_porPool() throws SQLException {
+        //o pool só é criado (e registra as métricas) na primeira conexão
+        replica.getConnection().close();
+
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "primaria").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge());
+    }
+
+    private double roteamento(String destino) {
+        return meterRegistry.get("datasource.roteamento").tag("destino", destino).counter().count();
+    }
+}
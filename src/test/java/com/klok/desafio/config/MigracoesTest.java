@@ -0,0 +1,45 @@
+package com.klok.desafio.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//O contexto só sobe se o esquema das migrações bater com as entidades (ddl-auto=validate no perfil test)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:migracoes;MODE=PostgreSQL")
+@ActiveProfiles("test")
+class MigracoesTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve aplicar todas as migrações, sem nenhuma pendente")
+    void deveAplicarTodasAsMigracoes() {
+        assertEquals("5", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    @DisplayName("Deve criar os índices das consultas de itens por pedido e de pedidos por cliente e entrega")
+    void deveCriarIndicesDasConsultas() {
+        assertEquals(List.of("ID_PEDIDO", "ID"), colunasDoIndice("IDX_ITEM_PEDIDO_ID"));
+        assertEquals(List.of("ID_CLIENTE", "DATA_ENTREGA"), colunasDoIndice("IDX_PEDIDO_CLIENTE_DATA_ENTREGA"));
+        assertFalse(colunasDoIndice("IDX_NOTIFICACAO_PENDENTE").isEmpty());
+    }
+
+    private List<String> colunasDoIndice(String indice) {
+        return jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", String.class, indice);
+    }
+}
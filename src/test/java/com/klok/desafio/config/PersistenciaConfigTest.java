@@ -0,0 +1,128 @@
+package com.klok.desafio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenciaConfigTest {
+
+    private PersistenciaProperties properties;
+
+    @BeforeEach
+    void configurar() {
+        properties = new PersistenciaProperties();
+        properties.getPool().setTamanhoMaximo(20);
+        properties.getPool().setTempoEsperaConexao(Duration.ofSeconds(3));
+        properties.getPool().setDeteccaoVazamento(Duration.ofSeconds(60));
+        properties.getDriver().setPrepareThreshold(3);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o tamanho e os tempos do pool, com mínimo ocioso igual ao máximo por padrão")
+    void deveAplicarAjustesDoPool() {
+        HikariDataSource dataSource = pool("jdbc:postgresql://localhost:5432/desafio_klock");
+
+        PersistenciaConfig.ajustarPool(dataSource, properties);
+
+        assertEquals(20, dataSource.getMaximumPoolSize());
+        assertEquals(20, dataSource.getMinimumIdle());
+        assertEquals(3000, dataSource.getConnectionTimeout());
+        assertEquals(Duration.ofMinutes(30).toMillis(), dataSource.getMaxLifetime());
+        assertEquals(60000, dataSource.getLeakDetectionThreshold());
+    }
+
+    @Test
+    @DisplayName("Deve usar o mínimo ocioso configurado e o tempo de espera curto no pool da réplica")
+    void deveAjustarPoolDaReplica() {
+        properties.getPool().setMinimoOcioso(2);
+        HikariDataSource dataSource = pool("jdbc:postgresql://localhost:5433/desafio_klock");
+        dataSource.setReadOnly(true);
+
+        PersistenciaConfig.ajustarPool(dataSource, properties);
+
+        assertEquals(2, dataSource.getMinimumIdle());
+        assertEquals(2000, dataSource.getConnectionTimeout());
+    }
+
+    @Test
+    @DisplayName("Deve repassar o cache de statements e o reWriteBatchedInserts ao driver do PostgreSQL")
+    void deveAplicarPropriedadesDoDriverPostgres() {
+        HikariDataSource dataSource = pool("jdbc:postgresql://localhost:5432/desafio_klock");
+
+        PersistenciaConfig.ajustarPool(dataSource, properties);
+
+        assertEquals(3, dataSource.getDataSourceProperties().get("prepareThreshold"));
+        assertEquals(256, dataSource.getDataSourceProperties().get("preparedStatementCacheQueries"));
+        assertEquals(5, dataSource.getDataSourceProperties().get("preparedStatementCacheSizeMiB"));
+        assertEquals(true, dataSource.getDataSourceProperties().get("reWriteBatchedInserts"));
+        assertTrue(RelatorioPersistencia.descreverPool(dataSource).contains("prepareThreshold=3"));
+    }
+
+    @Test
+    @DisplayName("Não deve repassar propriedades do pgjdbc a outros drivers")
+    void naoDeveAplicarPropriedadesDoDriverEmOutroBanco() {
+        HikariDataSource dataSource = pool("jdbc:h2:mem:teste");
+
+        PersistenciaConfig.ajustarPool(dataSource, properties);
+
+        assertTrue(dataSource.getDataSourceProperties().isEmpty());
+        assertEquals(20, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    @DisplayName("Deve configurar batch, ordenação e log de SQL do Hibernate")
+    void deveAjustarHibernate() {
+        properties.getHibernate().setTamanhoBatch(30);
+        Map<String, Object> propriedades = new HashMap<>();
+        propriedades.put(AvailableSettings.SHOW_SQL, true);
+
+        new PersistenciaConfig().ajustarHibernate(properties).customize(propriedades);
+
+        assertEquals(30, propriedades.get(AvailableSettings.STATEMENT_BATCH_SIZE));
+        assertEquals(true, propriedades.get(AvailableSettings.ORDER_INSERTS));
+        assertEquals(true, propriedades.get(AvailableSettings.ORDER_UPDATES));
+        assertEquals(100, propriedades.get(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE));
+        assertEquals(false, propriedades.get(AvailableSettings.SHOW_SQL));
+        assertEquals(false, propriedades.get(AvailableSettings.FORMAT_SQL));
+        assertTrue(RelatorioPersistencia.descreverHibernate(propriedades).contains("hibernate.jdbc.batch_size=30"));
+    }
+
+    @Test
+    @DisplayName("Deve manter o cache de segundo nível desligado por padrão e ligar o JCache do Caffeine quando ativo")
+    void deveAjustarCacheSegundoNivel() {
+        Map<String, Object> desligado = new HashMap<>();
+        properties.getCache().setConsultas(true);
+
+        PersistenciaConfig.ajustarCache(desligado, properties.getCache());
+
+        assertEquals(false, desligado.get(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+        assertEquals(false, desligado.get(AvailableSettings.USE_QUERY_CACHE));
+        assertFalse(desligado.containsKey(AvailableSettings.CACHE_REGION_FACTORY));
+
+        Map<String, Object> ligado = new HashMap<>();
+        properties.getCache().setAtivo(true);
+
+        PersistenciaConfig.ajustarCache(ligado, properties.getCache());
+
+        assertEquals(true, ligado.get(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+        assertEquals(true, ligado.get(AvailableSettings.USE_QUERY_CACHE));
+        assertEquals("jcache", ligado.get(AvailableSettings.CACHE_REGION_FACTORY));
+        assertEquals("cache-segundo-nivel.conf", ligado.get(ConfigSettings.CONFIG_URI));
+        assertEquals("fail", ligado.get(ConfigSettings.MISSING_CACHE_STRATEGY));
+    }
+
+    private HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        return dataSource;
+    }
+}
@@ -0,0 +1,142 @@
+package com.klok.desafio.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceTest {
+
+    private static final String CONSULTA = "SELECT atraso";
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private DataSource primaria;
+
+    @Mock
+    private Connection conexaoReplica;
+
+    @Mock
+    private Connection conexaoPrimaria;
+
+    private MeterRegistry meterRegistry;
+    private MonitorReplica monitor;
+    private ReplicaDataSource dataSource;
+
+    @BeforeEach
+    void configurar() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new MonitorReplica(replica, meterRegistry, Duration.ofSeconds(5), CONSULTA);
+        dataSource = new ReplicaDataSource(replica, primaria, monitor, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve entregar conexão da réplica enquanto ela estiver em dia")
+    void getConnection_replicaEmDia() throws SQLException {
+        when(replica.getConnection()).thenReturn(conexaoReplica);
+
+        assertSame(conexaoReplica, dataSource.getConnection());
+
+        assertEquals(1, roteamento("replica"));
+        assertEquals(0, roteamento("primaria"));
+    }
+
+    @Test
+    @DisplayName("Deve desviar as leituras para a primária quando o atraso passar do máximo")
+    void verificar_atrasoAcimaDoMaximo() throws SQLException {
+        atrasoMedido(12.5);
+        when(primaria.getConnection()).thenReturn(conexaoPrimaria);
+
+        monitor.verificar();
+
+        assertFalse(monitor.isDisponivel());
+        assertSame(conexaoPrimaria, dataSource.getConnection());
+        assertEquals(12.5, meterRegistry.get("datasource.replica.atraso").gauge().value());
+        assertEquals(0, meterRegistry.get("datasource.replica.disponivel").gauge().value());
+        assertEquals(1, roteamento("primaria"));
+    }
+
+    @Test
+    @DisplayName("Deve voltar a usar a réplica quando o atraso cair abaixo do máximo")
+    void verificar_replicaRecuperada() throws SQLException {
+        atrasoMedido(30, 0.2);
+
+        monitor.verificar();
+        assertFalse(monitor.isDisponivel());
+
+        monitor.verificar();
+        assertTrue(monitor.isDisponivel());
+        assertEquals(1, meterRegistry.get("datasource.replica.disponivel").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve usar a primária e tirar a réplica de uso quando a conexão com a réplica falhar")
+    void getConnection_replicaForaDoAr() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primaria.getConnection()).thenReturn(conexaoPrimaria);
+
+        assertSame(conexaoPrimaria, dataSource.getConnection());
+        assertFalse(monitor.isDisponivel());
+
+        dataSource.getConnection();
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Deve repassar as credenciais ao pool escolhido pelo roteamento")
+    void getConnection_comCredenciais() throws SQLException {
+        when(replica.getConnection("leitor", "senha")).thenThrow(new SQLException("Connection refused"));
+        when(primaria.getConnection("leitor", "senha")).thenReturn(conexaoPrimaria);
+
+        assertSame(conexaoPrimaria, dataSource.getConnection("leitor", "senha"));
+
+        assertFalse(monitor.isDisponivel());
+        assertEquals(1, roteamento("primaria"));
+        assertEquals(0, roteamento("replica"));
+    }
+
+    @Test
+    @DisplayName("Deve considerar a réplica indisponível quando a verificação de atraso falhar")
+    void verificar_falhaNaConsulta() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("timeout"));
+
+        monitor.verificar();
+
+        assertFalse(monitor.isDisponivel());
+    }
+
+    private void atrasoMedido(double atraso, double... proximos) throws SQLException {
+        Statement comando = mock(Statement.class);
+        ResultSet resultado = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(conexaoReplica);
+        when(conexaoReplica.createStatement()).thenReturn(comando);
+        when(comando.executeQuery(CONSULTA)).thenReturn(resultado);
+        when(resultado.next()).thenReturn(true);
+        Double[] demais = new Double[proximos.length];
+        for (int i = 0; i < proximos.length; i++) {
+            demais[i] = proximos[i];
+        }
+        when(resultado.getDouble(1)).thenReturn(atraso, demais);
+    }
+
+    private double roteamento(String destino) {
+        return meterRegistry.get("datasource.roteamento").tag("destino", destino).counter().count();
+    }
+}
@@ -0,0 +1,145 @@
+package com.klok.desafio.services;
+
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.entities.ResumoCliente;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.repositories.NotificacaoRepository;
+import com.klok.desafio.repositories.ResumoClienteRepository;
+import com.klok.desafio.services.cliente.ClienteService;
+import com.klok.desafio.services.item.ItemService;
+import com.klok.desafio.services.pedido.PedidoService;
+import com.klok.desafio.services.produto.ProdutoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Excluir um item ou um pedido já gravado devolve o estoque ao catálogo sem passar de novo pelas etapas do pedido:
+//nada é reservado outra vez e nenhum e-mail novo entra na outbox
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:exclusoes;MODE=PostgreSQL")
+@ActiveProfiles("test")
+class ExclusoesTest {
+
+    private static final int ESTOQUE = 10;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private ResumoClienteRepository resumoClienteRepository;
+
+    private Cliente cliente;
+    private Produto caneta;
+    private Produto lapis;
+
+    @BeforeEach
+    void configurar() {
+        long sufixo = System.nanoTime();
+        cliente = clienteService.salvarCliente(new Cliente("Lia", "lia" + sufixo + "@klok.com"));
+        caneta = produtoService.salvarProduto(new Produto("Caneta " + sufixo, new BigDecimal("4.00"), ESTOQUE));
+        lapis = produtoService.salvarProduto(new Produto("Lápis " + sufixo, new BigDecimal("1.50"), ESTOQUE));
+    }
+
+    @Test
+    @DisplayName("Deve devolver só o estoque do item excluído, recalcular os totais e não gerar outro e-mail")
+    void excluirItem_devolveEstoqueSemReprocessarPedido() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(2, 3));
+        long notificacoes = notificacaoRepository.count();
+        Item itemCaneta = itemDoProduto(pedido.getId(), caneta);
+
+        itemService.excluirItem(itemCaneta.getId());
+
+        assertEquals(ESTOQUE, estoque(caneta));
+        assertEquals(ESTOQUE - 3, estoque(lapis));
+        assertEquals(notificacoes, notificacaoRepository.count());
+        Pedido atualizado = pedidoService.buscarPorId(pedido.getId());
+        assertEquals(1, atualizado.getItens().size());
+        assertEquals(new BigDecimal("4.50"), atualizado.getTotal());
+        assertEquals(new BigDecimal("4.50"), atualizado.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Deve tirar do resumo do cliente só o valor do item excluído, mantendo a quantidade de pedidos")
+    void excluirItem_atualizaResumoDoCliente() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(2, 3));
+        pedidoService.salvarPedido(pedido(1, 0));
+
+        itemService.excluirItem(itemDoProduto(pedido.getId(), caneta).getId());
+
+        ResumoCliente resumo = resumoClienteRepository.findById(cliente.getId()).orElseThrow();
+        assertEquals(2L, resumo.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("8.50").compareTo(resumo.getTotal()));
+        assertEquals(0, new BigDecimal("8.50").compareTo(resumo.getTotalComDesconto()));
+    }
+
+    @Test
+    @DisplayName("Não deve excluir o último item do pedido")
+    void excluirItem_ultimoItem() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(2, 0));
+        Item itemCaneta = itemDoProduto(pedido.getId(), caneta);
+
+        assertThrows(BusinessRuleException.class, () -> itemService.excluirItem(itemCaneta.getId()));
+
+        assertEquals(ESTOQUE - 2, estoque(caneta));
+        assertEquals(1, pedidoService.buscarPorId(pedido.getId()).getItens().size());
+    }
+
+    @Test
+    @DisplayName("Deve devolver ao catálogo o estoque de todos os itens do pedido excluído")
+    void excluirPedido_devolveEstoque() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(2, 3));
+
+        pedidoService.excluirPedido(pedido.getId());
+
+        assertEquals(ESTOQUE, estoque(caneta));
+        assertEquals(ESTOQUE, estoque(lapis));
+    }
+
+    private Pedido pedido(int canetas, int lapis) {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        pedido.getItens().add(item(caneta, canetas));
+        if (lapis > 0) {
+            pedido.getItens().add(item(this.lapis, lapis));
+        }
+        return pedido;
+    }
+
+    private static Item item(Produto produto, int quantidade) {
+        Item item = new Item();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    private Item itemDoProduto(Long pedidoId, Produto produto) {
+        return pedidoService.buscarPorId(pedidoId).getItens().stream()
+                .filter(item -> item.getNome().equals(produto.getNome()))
+                .findFirst().orElseThrow();
+    }
+
+    private int estoque(Produto produto) {
+        return produtoService.buscarPorId(produto.getId()).getEstoque();
+    }
+}
@@ -0,0 +1,234 @@
+package com.klok.desafio.services;
+
+import com.klok.desafio.dto.FiltroPedido;
+import com.klok.desafio.dto.ResultadoPedidoLote;
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.exceptions.InsufficientStockException;
+import com.klok.desafio.services.cliente.ClienteService;
+import com.klok.desafio.services.pedido.PedidoService;
+import com.klok.desafio.services.produto.ProdutoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Fronteiras de transação medidas na conexão: quantas conexões cada operação pega do pool, por quanto tempo e se
+//a conexão foi marcada como somente leitura
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transacoes;MODE=PostgreSQL")
+@ActiveProfiles("test")
+class TransacoesTest {
+
+    //orçamento folgado para uma requisição sem E-S externa; uma transação presa em SMTP estouraria o timeout de 10s
+    private static final Duration LIMITE_CONEXAO = Duration.ofSeconds(1);
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private MedidorConexoes medidor;
+
+    private Cliente cliente;
+    private Produto produto;
+
+    @BeforeEach
+    void configurar() {
+        medidor = (MedidorConexoes) dataSource;
+        //nome e e-mail são únicos e o banco é compartilhado pelos testes da classe
+        long sufixo = System.nanoTime();
+        cliente = clienteService.salvarCliente(new Cliente("Ana", "ana" + sufixo + "@klok.com"));
+        produto = produtoService.salvarProduto(new Produto("Caneta " + sufixo, new BigDecimal("2.50"), 10));
+        medidor.limpar();
+    }
+
+    @Test
+    @DisplayName("Deve listar pedidos com uma única conexão, somente leitura, para as duas consultas da página")
+    void listarPedidos_umaConexaoSomenteLeitura() {
+        pedidoService.salvarPedido(pedido(1));
+        medidor.limpar();
+
+        pedidoService.listarPedidos(new FiltroPedido(cliente.getId(), null, null, null), null, 10);
+
+        List<UsoConexao> usos = medidor.usosDaThread();
+        assertEquals(1, usos.size());
+        assertTrue(usos.get(0).somenteLeitura);
+        assertTrue(usos.get(0).duracao().compareTo(LIMITE_CONEXAO) < 0);
+    }
+
+    @Test
+    @DisplayName("Deve salvar o pedido inteiro (cliente, produtos, estoque, pedido e outbox) em uma conexão de escrita")
+    void salvarPedido_umaConexaoDeEscrita() {
+        pedidoService.salvarPedido(pedido(3));
+
+        List<UsoConexao> usos = medidor.usosDaThread();
+        assertEquals(1, usos.size());
+        assertFalse(usos.get(0).somenteLeitura);
+        assertTrue(usos.get(0).duracao().compareTo(LIMITE_CONEXAO) < 0);
+        assertEquals(7, produtoService.buscarPorId(produto.getId()).getEstoque());
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o débito de estoque quando o pedido for rejeitado")
+    void salvarPedido_rejeitadoDesfazEstoque() {
+        Pedido pedido = pedido(2);
+        Item semEstoque = new Item();
+        semEstoque.setProdutoId(produtoService.salvarProduto(new Produto("Lápis " + System.nanoTime(), BigDecimal.ONE, 0)).getId());
+        semEstoque.setQuantidade(1);
+        pedido.getItens().add(semEstoque);
+
+        assertThrows(InsufficientStockException.class, () -> pedidoService.salvarPedido(pedido));
+
+        assertEquals(10, produtoService.buscarPorId(produto.getId()).getEstoque());
+    }
+
+    @Test
+    @DisplayName("Não deve abrir transação nem pegar conexão quando o cliente vier do cache")
+    void buscarCliente_acertoNoCacheSemConexao() {
+        clienteService.buscarPorId(cliente.getId());
+        medidor.limpar();
+
+        clienteService.buscarPorId(cliente.getId());
+
+        assertTrue(medidor.usosDaThread().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Não deve pegar conexão ao repetir um pedido com a mesma Idempotency-Key")
+    void salvarPedidoIdempotente_repeticaoSemConexao() {
+        String chave = "transacoes-" + cliente.getId();
+        pedidoService.salvarPedido(pedido(1), chave);
+        medidor.limpar();
+
+        assertTrue(pedidoService.salvarPedido(pedido(1), chave).isRepetida());
+
+        assertTrue(medidor.usosDaThread().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve gravar os outros pedidos do bloco do lote quando um for rejeitado por estoque ou cliente")
+    void salvarPedidosEmLote_rejeicaoNaoDesfazOBloco() {
+        Pedido semEstoque = pedido(11);
+        Pedido semCliente = pedido(1);
+        Cliente inexistente = new Cliente();
+        inexistente.setId(Long.MAX_VALUE);
+        semCliente.setCliente(inexistente);
+
+        List<ResultadoPedidoLote> resultados =
+                pedidoService.salvarPedidosEmLote(List.of(pedido(2), semEstoque, semCliente, pedido(3)));
+
+        assertEquals(List.of(true, false, false, true), resultados.stream().map(ResultadoPedidoLote::getSucesso).toList());
+        assertEquals(5, produtoService.buscarPorId(produto.getId()).getEstoque());
+        assertEquals(2, pedidoService.listarPedidos(new FiltroPedido(cliente.getId(), null, null, null), null, 10)
+                .getConteudo().size());
+    }
+
+    private Pedido pedido(int quantidade) {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        Item item = new Item();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        pedido.getItens().add(item);
+        return pedido;
+    }
+
+    static final class UsoConexao {
+        final Thread thread = Thread.currentThread();
+        final long inicio = System.nanoTime();
+        volatile long fim;
+        volatile boolean somenteLeitura;
+
+        Duration duracao() {
+            return Duration.ofNanos(fim - inicio);
+        }
+    }
+
+    //registra cada conexão entregue pelo pool até ser devolvida (close)
+    static class MedidorConexoes extends DelegatingDataSource {
+
+        private final List<UsoConexao> usos = new CopyOnWriteArrayList<>();
+
+        MedidorConexoes(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return medir(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return medir(super.getConnection(username, password));
+        }
+
+        private Connection medir(Connection conexao) {
+            UsoConexao uso = new UsoConexao();
+            usos.add(uso);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, metodo, args) -> {
+                        if (metodo.getName().equals("setReadOnly") && Boolean.TRUE.equals(args[0])) {
+                            uso.somenteLeitura = true;
+                        } else if (metodo.getName().equals("close")) {
+                            uso.fim = System.nanoTime();
+                        }
+                        try {
+                            return metodo.invoke(conexao, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        void limpar() {
+            usos.clear();
+        }
+
+        List<UsoConexao> usosDaThread() {
+            return usos.stream().filter(uso -> uso.thread == Thread.currentThread()).toList();
+        }
+    }
+
+    @TestConfiguration
+    static class ConfiguracaoMedidor {
+
+        @Bean
+        static BeanPostProcessor medirConexoes() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nome) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof MedidorConexoes)
+                            ? new MedidorConexoes(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
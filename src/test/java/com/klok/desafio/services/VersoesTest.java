@@ -0,0 +1,146 @@
+package com.klok.desafio.services;
+
+import com.klok.desafio.dto.VersaoPedido;
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.exceptions.ResourceExceptionHandler;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.exceptions.StandardError;
+import com.klok.desafio.repositories.ClienteRepository;
+import com.klok.desafio.services.cliente.ClienteService;
+import com.klok.desafio.services.item.ItemService;
+import com.klok.desafio.services.pedido.PedidoService;
+import com.klok.desafio.services.produto.ProdutoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//As versões (@Version) que viram ETag em GET /{id}: precisam mudar sempre que o JSON do recurso muda
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:versoes;MODE=PostgreSQL")
+@ActiveProfiles("test")
+class VersoesTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Cliente cliente;
+    private Produto produto;
+
+    @BeforeEach
+    void configurar() {
+        long sufixo = System.nanoTime();
+        cliente = clienteService.salvarCliente(new Cliente("Ana", "ana" + sufixo + "@klok.com"));
+        produto = produtoService.salvarProduto(new Produto("Lápis " + sufixo, new BigDecimal("1.50"), 100));
+    }
+
+    @Test
+    @DisplayName("Deve incrementar a versão do cliente ao atualizá-lo, também na leitura pelo cache")
+    void atualizarCliente_incrementaVersao() {
+        Long antes = clienteService.buscarPorId(cliente.getId()).getVersao();
+
+        clienteService.atualizarCliente(cliente.getId(), new Cliente("Ana Maria", cliente.getEmail()));
+
+        assertEquals(antes + 1, clienteService.buscarPorId(cliente.getId()).getVersao());
+    }
+
+    @Test
+    @DisplayName("Deve ler pela consulta de versão a mesma ETag do pedido carregado")
+    void buscarVersao_igualAoPedidoCarregado() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(2));
+
+        VersaoPedido versao = pedidoService.buscarVersao(pedido.getId());
+
+        assertEquals(VersaoPedido.de(pedidoService.buscarPorId(pedido.getId())).getValor(), versao.getValor());
+    }
+
+    @Test
+    @DisplayName("Deve mudar a ETag do pedido quando os itens ou o cliente mudam")
+    void buscarVersao_mudaComItensECliente() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(2));
+        String inicial = pedidoService.buscarVersao(pedido.getId()).getValor();
+
+        pedidoService.atualizarPedido(pedido.getId(), pedido(3));
+        String comItensNovos = pedidoService.buscarVersao(pedido.getId()).getValor();
+        assertNotEquals(inicial, comItensNovos);
+
+        clienteService.atualizarCliente(cliente.getId(), new Cliente("Ana Maria", cliente.getEmail()));
+        assertNotEquals(comItensNovos, pedidoService.buscarVersao(pedido.getId()).getValor());
+    }
+
+    @Test
+    @DisplayName("Deve incrementar a versão do pedido ao excluir um item dele")
+    void excluirItem_incrementaVersaoDoPedido() {
+        Pedido pedido = pedido(1);
+        pedido.getItens().add(item(2));
+        pedido = pedidoService.salvarPedido(pedido);
+        Long itemId = pedidoService.buscarPorId(pedido.getId()).getItens().get(0).getId();
+        Long versaoPedido = pedidoService.buscarVersao(pedido.getId()).getPedido();
+
+        itemService.excluirItem(itemId);
+
+        assertEquals(versaoPedido + 1, pedidoService.buscarVersao(pedido.getId()).getPedido());
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 409 a gravação de um cliente lido antes de outra atualização")
+    void gravarVersaoAntiga_respondeConflito() {
+        Cliente lidoAntes = clienteRepository.findById(cliente.getId()).orElseThrow();
+        clienteService.atualizarCliente(cliente.getId(), new Cliente("Ana Maria", cliente.getEmail()));
+        lidoAntes.setNome("Ana Clara");
+
+        ObjectOptimisticLockingFailureException e = assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> clienteRepository.save(lidoAntes));
+
+        ResponseEntity<StandardError> resposta = new ResourceExceptionHandler()
+                .optimisticLocking(e, new MockHttpServletRequest("PUT", "/clientes/" + cliente.getId()));
+        assertEquals(HttpStatus.CONFLICT, resposta.getStatusCode());
+        assertEquals(409, resposta.getBody().getStatus());
+        assertEquals("Ana Maria", clienteService.buscarPorId(cliente.getId()).getNome());
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException ao buscar a versão de recurso inexistente")
+    void buscarVersao_inexistente() {
+        assertThrows(ResourceNotFoundException.class, () -> pedidoService.buscarVersao(Long.MAX_VALUE));
+        assertThrows(ResourceNotFoundException.class, () -> itemService.buscarVersao(Long.MAX_VALUE));
+    }
+
+    private Pedido pedido(int quantidade) {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        pedido.getItens().add(item(quantidade));
+        return pedido;
+    }
+
+    private Item item(int quantidade) {
+        Item item = new Item();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        return item;
+    }
+}
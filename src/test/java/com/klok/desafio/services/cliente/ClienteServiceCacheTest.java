@@ -0,0 +1,105 @@
+package com.klok.desafio.services.cliente;
+
+import com.klok.desafio.config.CacheConfig;
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.repositories.ClienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+//contexto mínimo: só o cache (com a configuração da aplicação) e o ClienteServiceImpl com dependências mockadas
+@SpringJUnitConfig(classes = {CacheConfig.class, ClienteServiceImpl.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.cache-names=clientes",
+        "spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=10m,recordStats"
+})
+class ClienteServiceCacheTest {
+
+    @MockitoBean
+    private ClienteRepository clienteRepository;
+
+    @MockitoBean
+    private ResumoClienteService resumoClienteService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void limparCache() {
+        cacheManager.getCache(CacheConfig.CACHE_CLIENTES).clear();
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco uma única vez para buscas repetidas do mesmo cliente")
+    void buscarPorId_deveUsarCache() {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente(1L)));
+
+        Cliente primeiro = clienteService.buscarPorId(1L);
+        Cliente segundo = clienteService.buscarPorId(1L);
+
+        assertSame(primeiro, segundo);
+        verify(clienteRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cliente no cache ao atualizar")
+    void atualizarCliente_deveInvalidarCache() {
+        Cliente cliente = cliente(1L);
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.getReferenceById(1L)).thenReturn(cliente);
+        when(clienteRepository.save(cliente)).thenReturn(cliente);
+
+        clienteService.buscarPorId(1L);
+        clienteService.atualizarCliente(1L, new Cliente("Novo nome", "novo@email.com"));
+        clienteService.buscarPorId(1L);
+
+        verify(clienteRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cliente no cache ao excluir")
+    void excluirCliente_deveInvalidarCache() throws Exception {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente(1L)));
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+
+        clienteService.buscarPorId(1L);
+        clienteService.excluirCliente(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.CACHE_CLIENTES).get(1L));
+    }
+
+    @Test
+    @DisplayName("Não deve guardar no cache um cliente inexistente")
+    void buscarPorId_naoDeveGuardarClienteInexistente() {
+        when(clienteRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> clienteService.buscarPorId(2L));
+        assertThrows(ResourceNotFoundException.class, () -> clienteService.buscarPorId(2L));
+
+        verify(clienteRepository, times(2)).findById(2L);
+    }
+
+    private Cliente cliente(Long id) {
+        Cliente cliente = new Cliente("Cliente", "cliente@email.com");
+        cliente.setId(id);
+        return cliente;
+    }
+}
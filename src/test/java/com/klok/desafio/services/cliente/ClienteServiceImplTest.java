@@ -1,5 +1,6 @@
 package com.klok.desafio.services.cliente;
 
+import com.klok.desafio.dto.Pagina;
 import com.klok.desafio.entities.Cliente;
 import com.klok.desafio.exceptions.BusinessRuleException;
 import com.klok.desafio.exceptions.DatabaseException;
@@ -9,10 +10,12 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +29,9 @@ class ClienteServiceImplTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private ResumoClienteService resumoClienteService;
+
     @InjectMocks
     private ClienteServiceImpl clienteService;
 
@@ -62,23 +68,41 @@ class ClienteServiceImplTest {
         Cliente cliente1 = new Cliente();
         Cliente cliente2 = new Cliente();
 
-        when(clienteRepository.findAll()).thenReturn(List.of(cliente1, cliente2));
+        when(clienteRepository.findBy(ArgumentMatchers.<Specification<Cliente>>any(), any())).thenReturn(List.of(cliente1, cliente2));
 
-        List<Cliente> clientes = clienteService.listarClientes();
+        Pagina<Cliente> clientes = clienteService.listarClientes(null, null, null);
 
         assertNotNull(clientes);
-        assertEquals(2, clientes.size());
-        verify(clienteRepository, times(1)).findAll();
+        assertEquals(2, clientes.getConteudo().size());
+        assertNull(clientes.getProximoCursor());
+        verify(clienteRepository, times(1)).findBy(ArgumentMatchers.<Specification<Cliente>>any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve retornar o cursor da próxima página quando houver mais clientes que o limite")
+    void listarClientes_comProximaPagina() {
+
+        Cliente cliente1 = new Cliente();
+        cliente1.setId(1L);
+        Cliente cliente2 = new Cliente();
+        cliente2.setId(2L);
+
+        when(clienteRepository.findBy(ArgumentMatchers.<Specification<Cliente>>any(), any())).thenReturn(List.of(cliente1, cliente2));
+
+        Pagina<Cliente> clientes = clienteService.listarClientes(true, null, 1);
+
+        assertEquals(List.of(cliente1), clientes.getConteudo());
+        assertEquals(1L, clientes.getProximoCursor());
     }
 
     @Test
     @DisplayName("Deve lançar BusinessRuleException quando não houver clientes cadastrados")
     void listarClientes_quandoNaoHouverClientes() {
 
-        when(clienteRepository.findAll()).thenReturn(List.of());
+        when(clienteRepository.findBy(ArgumentMatchers.<Specification<Cliente>>any(), any())).thenReturn(List.of());
 
-        assertThrows(BusinessRuleException.class, () -> clienteService.listarClientes());
-        verify(clienteRepository, times(1)).findAll();
+        assertThrows(BusinessRuleException.class, () -> clienteService.listarClientes(null, null, null));
+        verify(clienteRepository, times(1)).findBy(ArgumentMatchers.<Specification<Cliente>>any(), any());
     }
 
     @Test
@@ -86,14 +110,18 @@ class ClienteServiceImplTest {
     void salvarCliente_comSucesso() {
         Cliente cliente = new Cliente();
         cliente.setNome("Cliente Teste");
+        Cliente salvo = new Cliente();
+        salvo.setId(1L);
+        salvo.setNome("Cliente Teste");
 
-        when(clienteRepository.save(cliente)).thenReturn(cliente);
+        when(clienteRepository.save(cliente)).thenReturn(salvo);
 
         Cliente resultado = clienteService.salvarCliente(cliente);
 
         assertNotNull(resultado);
         assertEquals("Cliente Teste", resultado.getNome());
         verify(clienteRepository, times(1)).save(cliente);
+        verify(resumoClienteService, times(1)).criar(1L);
     }
 
     @Test
@@ -145,6 +173,7 @@ class ClienteServiceImplTest {
 
         assertDoesNotThrow(() -> clienteService.excluirCliente(1L));
 
+        verify(resumoClienteService, times(1)).excluir(1L);
         verify(clienteRepository, times(1)).deleteById(1L);
     }
 
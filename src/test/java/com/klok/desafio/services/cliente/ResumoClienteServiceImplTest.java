@@ -0,0 +1,198 @@
+package com.klok.desafio.services.cliente;
+
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.entities.ResumoCliente;
+import com.klok.desafio.exceptions.InsufficientStockException;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.repositories.ResumoClienteRepository;
+import com.klok.desafio.services.item.ItemService;
+import com.klok.desafio.services.pedido.PedidoService;
+import com.klok.desafio.services.produto.ProdutoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//contra o banco (H2 do perfil test): os incrementos e o recálculo da última data são UPDATEs em JPQL
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:resumo_cliente;MODE=PostgreSQL")
+@ActiveProfiles("test")
+class ResumoClienteServiceImplTest {
+
+    @Autowired
+    private ResumoClienteService resumoClienteService;
+
+    @Autowired
+    private ResumoClienteRepository resumoClienteRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cliente cliente;
+    private Produto produto;
+
+    @BeforeEach
+    void configurar() {
+        //nome e e-mail são únicos e o banco é compartilhado pelos testes da classe
+        long sufixo = System.nanoTime();
+        cliente = clienteService.salvarCliente(new Cliente("Bia", "bia" + sufixo + "@klok.com"));
+        produto = produtoService.salvarProduto(new Produto("Caderno " + sufixo, new BigDecimal("2.50"), 100));
+    }
+
+    @Test
+    @DisplayName("Deve criar o resumo zerado junto com o cliente")
+    void salvarCliente_criaResumoZerado() {
+        ResumoCliente resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+
+        assertEquals(0L, resumo.getQuantidadePedidos());
+        assertEquals(0, BigDecimal.ZERO.compareTo(resumo.getTotal()));
+        assertNull(resumo.getUltimaDataEntrega());
+    }
+
+    @Test
+    @DisplayName("Deve somar, ajustar e retirar pedidos do resumo ao salvar, atualizar e excluir")
+    void resumo_acompanhaPedidos() {
+        Pedido primeiro = pedidoService.salvarPedido(pedido(1));
+        Pedido segundo = pedidoService.salvarPedido(pedido(3));
+
+        ResumoCliente resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+        assertEquals(2L, resumo.getQuantidadePedidos());
+        assertEquals(new BigDecimal("10.00"), resumo.getTotal());
+        assertEquals(new BigDecimal("10.00"), resumo.getTotalComDesconto());
+        assertEquals(segundo.getDataEntrega(), resumo.getUltimaDataEntrega());
+
+        pedidoService.atualizarPedido(segundo.getId(), pedido(2));
+        resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+        assertEquals(2L, resumo.getQuantidadePedidos());
+        assertEquals(new BigDecimal("7.50"), resumo.getTotal());
+
+        pedidoService.excluirPedido(primeiro.getId());
+        resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+        assertEquals(1L, resumo.getQuantidadePedidos());
+        assertEquals(new BigDecimal("5.00"), resumo.getTotal());
+        assertEquals(segundo.getDataEntrega(), resumo.getUltimaDataEntrega());
+
+        pedidoService.excluirPedido(segundo.getId());
+        resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+        assertEquals(0L, resumo.getQuantidadePedidos());
+        assertEquals(0, BigDecimal.ZERO.compareTo(resumo.getTotal()));
+        assertNull(resumo.getUltimaDataEntrega());
+    }
+
+    @Test
+    @DisplayName("Deve somar os pedidos válidos do lote e ignorar o pedido rejeitado")
+    void salvarPedidosEmLote_somaSomenteValidos() {
+        Pedido semEstoque = pedido(1);
+        semEstoque.getItens().get(0).setQuantidade(1000);
+
+        pedidoService.salvarPedidosEmLote(List.of(pedido(1), semEstoque, pedido(2)));
+
+        ResumoCliente resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+        assertEquals(2L, resumo.getQuantidadePedidos());
+        assertEquals(new BigDecimal("7.50"), resumo.getTotal());
+    }
+
+    @Test
+    @DisplayName("Não deve alterar o resumo quando o pedido for rejeitado")
+    void salvarPedido_rejeitadoNaoAlteraResumo() {
+        Pedido semEstoque = pedido(1000);
+
+        assertThrows(InsufficientStockException.class, () -> pedidoService.salvarPedido(semEstoque));
+
+        assertEquals(0L, resumoClienteService.buscarPorCliente(cliente.getId()).getQuantidadePedidos());
+    }
+
+    @Test
+    @DisplayName("Deve recalcular o resumo a partir dos pedidos quando o cliente não tiver linha de resumo")
+    void salvarPedido_semResumoRecalcula() {
+        pedidoService.salvarPedido(pedido(1));
+        excluirResumo();
+
+        pedidoService.salvarPedido(pedido(2));
+
+        ResumoCliente resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+        assertEquals(2L, resumo.getQuantidadePedidos());
+        assertEquals(new BigDecimal("7.50"), resumo.getTotal());
+    }
+
+    @Test
+    @DisplayName("Não deve somar duas vezes o pedido atualizado quando o cliente não tiver linha de resumo")
+    void atualizarPedido_semResumoRecalcula() {
+        pedidoService.salvarPedido(pedido(1));
+        Pedido segundo = pedidoService.salvarPedido(pedido(3));
+        excluirResumo();
+
+        pedidoService.atualizarPedido(segundo.getId(), pedido(2));
+
+        ResumoCliente resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+        assertEquals(2L, resumo.getQuantidadePedidos());
+        assertEquals(new BigDecimal("7.50"), resumo.getTotal());
+        assertEquals(new BigDecimal("7.50"), resumo.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Não deve somar duas vezes o pedido de um item excluído quando o cliente não tiver linha de resumo")
+    void excluirItem_semResumoRecalcula() {
+        Pedido pedido = pedido(1);
+        Item segundoItem = new Item();
+        segundoItem.setProdutoId(produto.getId());
+        segundoItem.setQuantidade(3);
+        pedido.getItens().add(segundoItem);
+        pedido = pedidoService.salvarPedido(pedido);
+        excluirResumo();
+
+        itemService.excluirItem(pedidoService.buscarPorId(pedido.getId()).getItens().get(1).getId());
+
+        ResumoCliente resumo = resumoClienteService.buscarPorCliente(cliente.getId());
+        assertEquals(1L, resumo.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("2.50").compareTo(resumo.getTotal()));
+        assertEquals(0, new BigDecimal("2.50").compareTo(resumo.getTotalComDesconto()));
+    }
+
+    @Test
+    @DisplayName("Deve excluir o resumo junto com o cliente")
+    void excluirCliente_excluiResumo() throws Exception {
+        pedidoService.salvarPedido(pedido(1));
+
+        clienteService.excluirCliente(cliente.getId());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> resumoClienteService.buscarPorCliente(cliente.getId()));
+    }
+
+    private void excluirResumo() {
+        transactionTemplate.executeWithoutResult(status -> resumoClienteRepository.deleteById(cliente.getId()));
+    }
+
+    private Pedido pedido(int quantidade) {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        Item item = new Item();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        pedido.getItens().add(item);
+        return pedido;
+    }
+}
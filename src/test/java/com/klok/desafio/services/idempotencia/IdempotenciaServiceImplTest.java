@@ -0,0 +1,155 @@
+package com.klok.desafio.services.idempotencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klok.desafio.config.CacheConfig;
+import com.klok.desafio.dto.RespostaIdempotente;
+import com.klok.desafio.entities.ChaveIdempotencia;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.repositories.ChaveIdempotenciaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaServiceImplTest {
+
+    @Mock
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @InjectMocks
+    private IdempotenciaServiceImpl idempotenciaService;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.CACHE_IDEMPOTENCIA);
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(idempotenciaService, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(idempotenciaService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idempotenciaService, "validade", Duration.ofHours(24));
+    }
+
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve calcular o mesmo hash para requisições iguais e outro para requisições diferentes")
+    void calcularHash() {
+        String hash = idempotenciaService.calcularHash(Map.of("clienteId", 1));
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, idempotenciaService.calcularHash(Map.of("clienteId", 1)));
+        assertNotEquals(hash, idempotenciaService.calcularHash(Map.of("clienteId", 2)));
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio quando a chave ainda não foi usada")
+    void buscar_chaveNova() {
+        when(chaveIdempotenciaRepository.findById("chave-1")).thenReturn(Optional.empty());
+
+        assertTrue(idempotenciaService.buscar("chave-1", "hash").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve buscar a resposta no banco uma vez e atender as repetições pelo cache")
+    void buscar_deveUsarCache() {
+        when(chaveIdempotenciaRepository.findById("chave-1"))
+                .thenReturn(Optional.of(registro("chave-1", "hash", Instant.now().plusSeconds(60))));
+
+        RespostaIdempotente primeira = idempotenciaService.buscar("chave-1", "hash").orElseThrow();
+        RespostaIdempotente segunda = idempotenciaService.buscar("chave-1", "hash").orElseThrow();
+
+        assertTrue(primeira.isRepetida());
+        assertEquals(1L, segunda.getRecursoId());
+        assertEquals("{\"id\":1}", segunda.getCorpo());
+        verify(chaveIdempotenciaRepository, times(1)).findById("chave-1");
+    }
+
+    @Test
+    @DisplayName("Deve ignorar a resposta gravada depois de vencida")
+    void buscar_chaveVencida() {
+        when(chaveIdempotenciaRepository.findById("chave-1"))
+                .thenReturn(Optional.of(registro("chave-1", "hash", Instant.now().minusSeconds(1))));
+
+        assertTrue(idempotenciaService.buscar("chave-1", "hash").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException quando a chave for reutilizada com outra requisição")
+    void buscar_hashDiferente() {
+        when(chaveIdempotenciaRepository.findById("chave-1"))
+                .thenReturn(Optional.of(registro("chave-1", "hash", Instant.now().plusSeconds(60))));
+
+        assertThrows(BusinessRuleException.class, () -> idempotenciaService.buscar("chave-1", "outro-hash"));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException para chave vazia ou longa demais")
+    void buscar_chaveInvalida() {
+        assertThrows(BusinessRuleException.class, () -> idempotenciaService.buscar(" ", "hash"));
+        assertThrows(BusinessRuleException.class, () -> idempotenciaService.buscar("x".repeat(101), "hash"));
+        verifyNoInteractions(chaveIdempotenciaRepository);
+    }
+
+    @Test
+    @DisplayName("Deve liberar a chave vencida e inserir a nova com a validade configurada")
+    void reservar() {
+        idempotenciaService.reservar("chave-1", "hash");
+
+        ArgumentCaptor<ChaveIdempotencia> captor = ArgumentCaptor.forClass(ChaveIdempotencia.class);
+        verify(chaveIdempotenciaRepository).excluirSeExpirada(eq("chave-1"), any(Instant.class));
+        verify(chaveIdempotenciaRepository).saveAndFlush(captor.capture());
+        ChaveIdempotencia chave = captor.getValue();
+        assertTrue(chave.isNew());
+        assertEquals("hash", chave.getHashRequisicao());
+        assertEquals(Duration.ofHours(24), Duration.between(chave.getCriadoEm(), chave.getExpiraEm()));
+    }
+
+    @Test
+    @DisplayName("Deve gravar o corpo serializado e só publicar no cache depois do commit")
+    void concluir() {
+        ChaveIdempotencia chave = new ChaveIdempotencia("chave-1", "hash", Instant.now(), Instant.now());
+        when(chaveIdempotenciaRepository.getReferenceById("chave-1")).thenReturn(chave);
+        TransactionSynchronizationManager.initSynchronization();
+
+        RespostaIdempotente resposta = idempotenciaService.concluir("chave-1", 1L, Map.of("id", 1));
+
+        assertEquals("{\"id\":1}", chave.getCorpo());
+        assertEquals(1L, chave.getRecursoId());
+        assertFalse(resposta.isRepetida());
+        assertNull(cacheManager.getCache(CacheConfig.CACHE_IDEMPOTENCIA).get("chave-1"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNotNull(cacheManager.getCache(CacheConfig.CACHE_IDEMPOTENCIA).get("chave-1"));
+    }
+
+    private static ChaveIdempotencia registro(String chave, String hash, Instant expiraEm) {
+        ChaveIdempotencia registro = new ChaveIdempotencia(chave, hash, Instant.now(), expiraEm);
+        registro.setRecursoId(1L);
+        registro.setCorpo("{\"id\":1}");
+        return registro;
+    }
+}
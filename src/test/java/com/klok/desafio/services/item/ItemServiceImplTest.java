@@ -1,5 +1,6 @@
 package com.klok.desafio.services.item;
 
+import com.klok.desafio.dto.Pagina;
 import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
 import com.klok.desafio.exceptions.BusinessRuleException;
@@ -10,9 +11,11 @@ import com.klok.desafio.services.pedido.PedidoService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
 import java.util.Optional;
@@ -42,25 +45,34 @@ class ItemServiceImplTest {
         Item item1 = new Item();
         Item item2 = new Item();
 
-        when(itemRepository.findAll()).thenReturn(List.of(item1, item2));
+        when(itemRepository.findBy(ArgumentMatchers.<Specification<Item>>any(), any())).thenReturn(List.of(item1, item2));
 
-        List<Item> itens = itemService.listarItens();
+        Pagina<Item> itens = itemService.listarItens(null, null, null);
 
         assertNotNull(itens);
-        assertEquals(2, itens.size());
+        assertEquals(2, itens.getConteudo().size());
 
-        verify(itemRepository, times(1)).findAll();
+        verify(itemRepository, times(1)).findBy(ArgumentMatchers.<Specification<Item>>any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException para limite de página inválido")
+    void listarItens_comLimiteInvalido() {
+
+        assertThrows(BusinessRuleException.class, () -> itemService.listarItens(1L, null, 0));
+
+        verify(itemRepository, never()).findBy(ArgumentMatchers.<Specification<Item>>any(), any());
     }
 
     @Test
     @DisplayName("Deve lançar BusinessRuleException quando não houver itens cadastrados")
     void listarItens_quandoNaoHouverItens() {
 
-        when(itemRepository.findAll()).thenReturn(List.of());
+        when(itemRepository.findBy(ArgumentMatchers.<Specification<Item>>any(), any())).thenReturn(List.of());
 
-        assertThrows(BusinessRuleException.class, () -> itemService.listarItens());
+        assertThrows(BusinessRuleException.class, () -> itemService.listarItens(null, null, null));
 
-        verify(itemRepository, times(1)).findAll();
+        verify(itemRepository, times(1)).findBy(ArgumentMatchers.<Specification<Item>>any(), any());
     }
 
     @Test
@@ -120,49 +132,6 @@ class ItemServiceImplTest {
         verifyNoInteractions(itemRepository);
     }
 
-    @Test
-    @DisplayName("Deve atualizar item com sucesso")
-    void atualizarItem_comSucesso() {
-
-        Item itemAtualizado = new Item();
-        itemAtualizado.setNome("Nome Atualizado");
-
-        Item itemExistente = new Item();
-        itemExistente.setNome("Nome Original");
-
-        when(itemRepository.getReferenceById(1L)).thenReturn(itemExistente);
-        when(itemRepository.save(itemExistente)).thenReturn(itemExistente);
-
-        Item resultado = itemService.atualizarItem(1L, itemAtualizado);
-
-        assertNotNull(resultado);
-        assertEquals("Nome Atualizado", resultado.getNome());
-
-        verify(itemRepository, times(1)).getReferenceById(1L);
-        verify(itemRepository, times(1)).save(itemExistente);
-    }
-
-    @Test
-    @DisplayName("Deve permanecer o nome do item igual")
-    void atualizarItemComFalha_quandoNomeNaoMudar() {
-
-        Item itemAtualizado = new Item();
-
-        Item itemExistente = new Item();
-        itemExistente.setNome("Nome Original");
-
-        when(itemRepository.getReferenceById(1L)).thenReturn(itemExistente);
-        when(itemRepository.save(itemExistente)).thenReturn(itemExistente);
-
-        Item resultado = itemService.atualizarItem(1L, itemAtualizado);
-
-        assertNotNull(resultado);
-        assertEquals("Nome Original", resultado.getNome());
-
-        verify(itemRepository, times(1)).getReferenceById(1L);
-        verify(itemRepository, times(1)).save(itemExistente);
-    }
-
     @Test
     @DisplayName("Deve excluir item com sucesso")
     void excluirItem_comSucesso() {
@@ -176,11 +145,9 @@ class ItemServiceImplTest {
 
         itemService.excluirItem(1L);
 
-        assertTrue(pedido.getItens().isEmpty());
-        assertNull(item.getPedido());
-
         verify(itemRepository, times(1)).findById(1L);
-        verify(pedidoService, times(1)).salvarPedido(pedido);
+        verify(pedidoService, times(1)).removerItem(item);
+        verify(pedidoService, never()).salvarPedido(any(Pedido.class));
     }
 
     @Test
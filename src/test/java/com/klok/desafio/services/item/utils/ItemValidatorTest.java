@@ -56,4 +56,15 @@ class ItemValidatorTest {
         assertThrows(BusinessRuleException.class, () -> itemValidator.validarItem(item));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName( "Deve validar só a quantidade de item ainda sem preço")
+    void validarQuantidade_semPreco() {
+
+        Item item = new Item();
+        item.setQuantidade(2);
+
+        assertDoesNotThrow(() -> itemValidator.validarQuantidade(item));
+        assertThrows(BusinessRuleException.class, () -> itemValidator.validarPreco(item));
+    }
+}
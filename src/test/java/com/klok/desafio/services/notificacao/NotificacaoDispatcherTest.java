@@ -0,0 +1,106 @@
+package com.klok.desafio.services.notificacao;
+
+import com.klok.desafio.entities.Notificacao;
+import org.apache.commons.mail.EmailException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificacaoDispatcherTest {
+
+    @Mock
+    private NotificacaoOutboxService notificacaoOutboxService;
+
+    @Mock
+    private NotificacaoService notificacaoService;
+
+    @InjectMocks
+    private NotificacaoDispatcher notificacaoDispatcher;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(notificacaoDispatcher, "tamanhoLote", 2);
+        ReflectionTestUtils.setField(notificacaoDispatcher, "envioConcorrente", 2);
+        notificacaoDispatcher.iniciar();
+    }
+
+    @AfterEach
+    void encerrar() {
+        notificacaoDispatcher.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve usar threads virtuais só quando habilitadas e suportadas pela JVM")
+    void iniciar_comThreadsVirtuais() {
+        notificacaoDispatcher.encerrar();
+        ReflectionTestUtils.setField(notificacaoDispatcher, "threadsVirtuais", true);
+
+        notificacaoDispatcher.iniciar();
+
+        Object executor = ReflectionTestUtils.getField(notificacaoDispatcher, "executor");
+        if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            assertInstanceOf(VirtualThreadTaskExecutor.class, executor);
+        } else {
+            assertInstanceOf(ExecutorService.class, executor);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve enviar e confirmar as notificações reservadas")
+    void despacharPendentes_comSucesso() throws EmailException {
+        Notificacao notificacao = criarNotificacao(1L);
+        when(notificacaoOutboxService.reservarLote()).thenReturn(List.of(notificacao));
+
+        notificacaoDispatcher.despacharPendentes();
+
+        verify(notificacaoService, times(1)).enviarEmail(any(Mensagem.class));
+        verify(notificacaoOutboxService, times(1)).confirmarEnvio(1L);
+        verify(notificacaoOutboxService, never()).registrarFalha(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("Deve registrar falha sem interromper o restante do lote")
+    void despacharPendentes_quandoEnvioFalhar() throws EmailException {
+        Notificacao falha = criarNotificacao(1L);
+        falha.setDestinatario("falha@email.com");
+        Notificacao sucesso = criarNotificacao(2L);
+        when(notificacaoOutboxService.reservarLote()).thenReturn(List.of(falha, sucesso)).thenReturn(List.of());
+        doAnswer(invocacao -> {
+            Mensagem mensagem = invocacao.getArgument(0);
+            if (mensagem.getDestinatario().equals("falha@email.com")) {
+                throw new EmailException("SMTP indisponível");
+            }
+            return null;
+        }).when(notificacaoService).enviarEmail(any(Mensagem.class));
+
+        notificacaoDispatcher.despacharPendentes();
+
+        verify(notificacaoOutboxService, times(1)).registrarFalha(1L, "SMTP indisponível");
+        verify(notificacaoOutboxService, times(1)).confirmarEnvio(2L);
+        verify(notificacaoOutboxService, times(2)).reservarLote();
+    }
+
+    private Notificacao criarNotificacao(Long id) {
+        Notificacao notificacao = new Notificacao("teste@email.com", "Titulo", "Conteúdo", Instant.now());
+        notificacao.setId(id);
+        return notificacao;
+    }
+}
@@ -0,0 +1,112 @@
+package com.klok.desafio.services.notificacao;
+
+import com.klok.desafio.entities.Notificacao;
+import com.klok.desafio.entities.StatusNotificacao;
+import com.klok.desafio.repositories.NotificacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificacaoOutboxServiceImplTest {
+
+    @Mock
+    private NotificacaoRepository notificacaoRepository;
+
+    @InjectMocks
+    private NotificacaoOutboxServiceImpl notificacaoOutboxService;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(notificacaoOutboxService, "tamanhoLote", 50);
+        ReflectionTestUtils.setField(notificacaoOutboxService, "maxTentativas", 3);
+        ReflectionTestUtils.setField(notificacaoOutboxService, "backoffInicial", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(notificacaoOutboxService, "backoffMaximo", Duration.ofHours(1));
+        ReflectionTestUtils.setField(notificacaoOutboxService, "tempoReserva", Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Deve registrar a mensagem como notificação pendente")
+    void registrar_deveSalvarNotificacaoPendente() {
+        Mensagem mensagem = new Mensagem("teste@email.com", "Pedido enviado", "Conteúdo");
+
+        notificacaoOutboxService.registrar(mensagem);
+
+        ArgumentCaptor<Notificacao> captor = ArgumentCaptor.forClass(Notificacao.class);
+        verify(notificacaoRepository, times(1)).save(captor.capture());
+        Notificacao notificacao = captor.getValue();
+        assertEquals("teste@email.com", notificacao.getDestinatario());
+        assertEquals(StatusNotificacao.PENDENTE, notificacao.getStatus());
+        assertEquals(0, notificacao.getTentativas());
+        assertNotNull(notificacao.getProximaTentativa());
+    }
+
+    @Test
+    @DisplayName("Deve reservar o lote empurrando a próxima tentativa")
+    void reservarLote_deveAplicarReserva() {
+        Notificacao notificacao = new Notificacao("teste@email.com", "Titulo", "Conteúdo", Instant.now());
+        when(notificacaoRepository.buscarPendentesParaEnvio(any(Instant.class), eq(50))).thenReturn(List.of(notificacao));
+
+        List<Notificacao> lote = notificacaoOutboxService.reservarLote();
+
+        assertEquals(1, lote.size());
+        assertTrue(notificacao.getProximaTentativa().isAfter(Instant.now().plus(Duration.ofMinutes(4))));
+    }
+
+    @Test
+    @DisplayName("Deve marcar a notificação como enviada")
+    void confirmarEnvio_deveMarcarComoEnviada() {
+        Notificacao notificacao = new Notificacao("teste@email.com", "Titulo", "Conteúdo", Instant.now());
+        when(notificacaoRepository.findById(1L)).thenReturn(Optional.of(notificacao));
+
+        notificacaoOutboxService.confirmarEnvio(1L);
+
+        assertEquals(StatusNotificacao.ENVIADA, notificacao.getStatus());
+        assertNotNull(notificacao.getEnviadoEm());
+    }
+
+    @Test
+    @DisplayName("Deve reagendar com backoff exponencial ao registrar falha")
+    void registrarFalha_deveReagendarComBackoff() {
+        Notificacao notificacao = new Notificacao("teste@email.com", "Titulo", "Conteúdo", Instant.now());
+        notificacao.setTentativas(1);
+        when(notificacaoRepository.findById(1L)).thenReturn(Optional.of(notificacao));
+
+        Instant antes = Instant.now();
+        notificacaoOutboxService.registrarFalha(1L, "SMTP indisponível");
+
+        assertEquals(2, notificacao.getTentativas());
+        assertEquals(StatusNotificacao.PENDENTE, notificacao.getStatus());
+        assertEquals("SMTP indisponível", notificacao.getUltimoErro());
+        assertFalse(notificacao.getProximaTentativa().isBefore(antes.plusSeconds(20)));
+    }
+
+    @Test
+    @DisplayName("Deve marcar como falha ao atingir o máximo de tentativas")
+    void registrarFalha_deveDesistirAposMaximoDeTentativas() {
+        Notificacao notificacao = new Notificacao("teste@email.com", "Titulo", "Conteúdo", Instant.now());
+        notificacao.setTentativas(2);
+        when(notificacaoRepository.findById(1L)).thenReturn(Optional.of(notificacao));
+
+        notificacaoOutboxService.registrarFalha(1L, "SMTP indisponível");
+
+        assertEquals(3, notificacao.getTentativas());
+        assertEquals(StatusNotificacao.FALHA, notificacao.getStatus());
+    }
+}
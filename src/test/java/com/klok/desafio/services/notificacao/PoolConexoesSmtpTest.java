@@ -0,0 +1,159 @@
+package com.klok.desafio.services.notificacao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PoolConexoesSmtpTest {
+
+    private final List<Transport> abertos = new ArrayList<>();
+
+    private PoolConexoesSmtp pool;
+
+    @BeforeEach
+    void configurar() {
+        pool = criarPool(2, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a conexão aberta entre envios")
+    void enviar_deveReaproveitarConexao() throws Exception {
+        pool.enviar(criarMensagem());
+        pool.enviar(criarMensagem());
+
+        assertEquals(1, abertos.size());
+        verify(abertos.get(0), times(2)).sendMessage(any(), any(Address[].class));
+        assertEquals(1, pool.conexoesOciosas());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a conexão quando o envio falhar")
+    void enviar_deveDescartarConexaoComFalha() throws Exception {
+        pool.enviar(criarMensagem());
+        doThrow(new MessagingException("conexão perdida")).when(abertos.get(0)).sendMessage(any(), any(Address[].class));
+
+        assertThrows(MessagingException.class, () -> pool.enviar(criarMensagem()));
+
+        verify(abertos.get(0), times(1)).close();
+        assertEquals(0, pool.conexoesOciosas());
+    }
+
+    @Test
+    @DisplayName("Deve abrir nova conexão quando a ociosa estiver desconectada")
+    void enviar_deveReconectarQuandoConexaoCaiu() throws Exception {
+        pool.enviar(criarMensagem());
+        when(abertos.get(0).isConnected()).thenReturn(false);
+
+        pool.enviar(criarMensagem());
+
+        assertEquals(2, abertos.size());
+    }
+
+    @Test
+    @DisplayName("Não deve ultrapassar o limite de envios simultâneos")
+    void enviar_deveRespeitarLimiteDeConcorrencia() throws Exception {
+        AtomicInteger simultaneos = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        pool = new PoolConexoesSmtp(Session.getInstance(new Properties()), "localhost", 25, "u", "s",
+                2, Duration.ofSeconds(5), Duration.ofMinutes(1)) {
+            @Override
+            protected Transport abrirTransporte() throws MessagingException {
+                Transport transport = mock(Transport.class);
+                when(transport.isConnected()).thenReturn(true);
+                doAnswer(invocacao -> {
+                    maximo.accumulateAndGet(simultaneos.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    simultaneos.decrementAndGet();
+                    return null;
+                }).when(transport).sendMessage(any(), any(Address[].class));
+                return transport;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch concluidos = new CountDownLatch(16);
+        for (int i = 0; i < 16; i++) {
+            executor.submit(() -> {
+                try {
+                    pool.enviar(criarMensagem());
+                } catch (Exception e) {
+                    fail(e);
+                } finally {
+                    concluidos.countDown();
+                }
+            });
+        }
+
+        assertTrue(concluidos.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(maximo.get() <= 2);
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando não houver conexão livre dentro do tempo de espera")
+    void enviar_deveFalharQuandoPoolEsgotado() throws Exception {
+        pool = criarPool(1, Duration.ofMillis(50));
+        CountDownLatch enviando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        pool.enviar(criarMensagem());
+        doAnswer(invocacao -> {
+            enviando.countDown();
+            liberar.await();
+            return null;
+        }).when(abertos.get(0)).sendMessage(any(), any(Address[].class));
+
+        Thread bloqueada = new Thread(() -> {
+            try {
+                pool.enviar(criarMensagem());
+            } catch (MessagingException ignored) {
+            }
+        });
+        bloqueada.start();
+        enviando.await();
+
+        assertThrows(MessagingException.class, () -> pool.enviar(criarMensagem()));
+
+        liberar.countDown();
+        bloqueada.join();
+    }
+
+    private PoolConexoesSmtp criarPool(int tamanhoMaximo, Duration tempoEspera) {
+        return new PoolConexoesSmtp(Session.getInstance(new Properties()), "localhost", 25, "u", "s",
+                tamanhoMaximo, tempoEspera, Duration.ofMinutes(1)) {
+            @Override
+            protected Transport abrirTransporte() {
+                Transport transport = mock(Transport.class);
+                when(transport.isConnected()).thenReturn(true);
+                abertos.add(transport);
+                return transport;
+            }
+        };
+    }
+
+    private MimeMessage criarMensagem() throws MessagingException {
+        MimeMessage mensagem = pool.novaMensagem();
+        mensagem.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("teste@email.com"));
+        mensagem.setText("Conteúdo");
+        return mensagem;
+    }
+}
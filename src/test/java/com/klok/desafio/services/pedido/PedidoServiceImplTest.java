@@ -1,25 +1,53 @@
 package com.klok.desafio.services.pedido;
 
+import com.klok.desafio.dto.FiltroPedido;
+import com.klok.desafio.dto.LinhaExportacaoPedido;
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.dto.RespostaIdempotente;
+import com.klok.desafio.dto.ResultadoPedidoLote;
 import com.klok.desafio.entities.Cliente;
 import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
 import com.klok.desafio.exceptions.BusinessRuleException;
 import com.klok.desafio.exceptions.DatabaseException;
+import com.klok.desafio.exceptions.InsufficientStockException;
 import com.klok.desafio.exceptions.ResourceNotFoundException;
 import com.klok.desafio.repositories.PedidoRepository;
+import com.klok.desafio.services.cliente.ResumoClienteService;
+import com.klok.desafio.services.idempotencia.IdempotenciaService;
+import com.klok.desafio.services.pedido.exportacao.ExportadorPedidos;
+import com.klok.desafio.services.pedido.exportacao.FormatoExportacao;
+import com.klok.desafio.services.pedido.utils.CalculadoraPedidoService;
+import com.klok.desafio.services.pedido.utils.EstoqueService;
+import com.klok.desafio.services.pedido.utils.PedidoValidator;
 import com.klok.desafio.services.pedido.utils.ProcessarPedidoService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
-
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,9 +61,40 @@ class PedidoServiceImplTest {
     @Mock
     private ProcessarPedidoService processarPedidoService;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EstoqueService estoqueService;
+
+    @Mock
+    private CalculadoraPedidoService calculadoraPedidoService;
+
+    @Mock
+    private PedidoValidator pedidoValidator;
+
+    @Mock
+    private ExportadorPedidos exportadorPedidos;
+
+    @Mock
+    private IdempotenciaService idempotenciaService;
+
+    @Mock
+    private ResumoClienteService resumoClienteService;
+
     @InjectMocks
     private PedidoServiceImpl pedidoService;
 
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(pedidoService, "tamanhoMaximoLote", 5);
+        ReflectionTestUtils.setField(pedidoService, "tamanhoChunk", 2);
+        ReflectionTestUtils.setField(pedidoService, "tamanhoBlocoStream", 2);
+    }
+
     @Test
     @DisplayName("Deve buscar pedido por ID com sucesso")
     void buscarPorId_comSucesso() {
@@ -43,23 +102,23 @@ class PedidoServiceImplTest {
         Pedido pedido = new Pedido();
         pedido.setId(1L);
 
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.findComItensById(1L)).thenReturn(Optional.of(pedido));
 
         Pedido resultado = pedidoService.buscarPorId(1L);
 
         assertNotNull(resultado);
         assertEquals(1L, resultado.getId());
-        verify(pedidoRepository, times(1)).findById(1L);
+        verify(pedidoRepository, times(1)).findComItensById(1L);
     }
 
     @Test
     @DisplayName("Deve lançar ResourceNotFoundException ao buscar por ID inexistente")
     void buscarPorId_quandoNaoEcontrarPedido() {
 
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(pedidoRepository.findComItensById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> pedidoService.buscarPorId(1L));
-        verify(pedidoRepository, times(1)).findById(1L);
+        verify(pedidoRepository, times(1)).findComItensById(1L);
     }
 
     @Test
@@ -69,24 +128,134 @@ class PedidoServiceImplTest {
         Pedido pedido1 = new Pedido();
         Pedido pedido2 = new Pedido();
 
-        when(pedidoRepository.findAll()).thenReturn(List.of(pedido1, pedido2));
+        when(pedidoRepository.buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(21))).thenReturn(List.of(1L, 2L));
+        when(pedidoRepository.findByIdIn(List.of(1L, 2L), Sort.by("id"))).thenReturn(List.of(pedido1, pedido2));
 
-        List<Pedido> pedidos = pedidoService.listarPedidos();
+        Pagina<Pedido> pedidos = pedidoService.listarPedidos(new FiltroPedido(), null, null);
 
         assertNotNull(pedidos);
-        assertEquals(2, pedidos.size());
-        verify(pedidoRepository, times(1)).findAll();
+        assertEquals(2, pedidos.getConteudo().size());
+        assertNull(pedidos.getProximoCursor());
+        verify(pedidoRepository, times(1)).buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(21));
+        verify(pedidoRepository, times(1)).findByIdIn(List.of(1L, 2L), Sort.by("id"));
+    }
+
+    @Test
+    @DisplayName("Deve carregar cliente e itens da página em uma única consulta, apenas para os IDs da página")
+    void listarPedidos_deveCarregarGrafoSomenteDaPagina() {
+
+        Pedido pedido1 = new Pedido();
+        pedido1.setId(1L);
+
+        when(pedidoRepository.buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(2))).thenReturn(List.of(1L, 2L));
+        when(pedidoRepository.findByIdIn(List.of(1L), Sort.by("id"))).thenReturn(List.of(pedido1));
+
+        Pagina<Pedido> pedidos = pedidoService.listarPedidos(new FiltroPedido(), null, 1);
+
+        assertEquals(List.of(pedido1), pedidos.getConteudo());
+        assertEquals(1L, pedidos.getProximoCursor());
+        verify(pedidoRepository, times(1)).findByIdIn(anyCollection(), any(Sort.class));
+    }
+
+    @Test
+    @DisplayName("Deve transmitir todos os pedidos, bloco a bloco, até o fim da listagem")
+    void transmitirPedidos_comSucesso() {
+        Pedido pedido1 = pedidoComId(1L);
+        Pedido pedido2 = pedidoComId(2L);
+        Pedido pedido3 = pedidoComId(3L);
+
+        when(pedidoRepository.buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(3)))
+                .thenReturn(List.of(1L, 2L, 3L)).thenReturn(List.of(3L));
+        when(pedidoRepository.findByIdIn(List.of(1L, 2L), Sort.by("id"))).thenReturn(List.of(pedido1, pedido2));
+        when(pedidoRepository.findByIdIn(List.of(3L), Sort.by("id"))).thenReturn(List.of(pedido3));
+
+        StepVerifier.create(pedidoService.transmitirPedidos(new FiltroPedido(), null))
+                .expectNext(pedido1, pedido2, pedido3)
+                .verifyComplete();
+
+        verify(pedidoRepository, times(2)).buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(3));
+    }
+
+    @Test
+    @DisplayName("Deve ler o próximo bloco só quando o cliente pedir mais pedidos")
+    void transmitirPedidos_deveLerBlocosSobDemanda() {
+        Pedido pedido1 = pedidoComId(1L);
+        Pedido pedido2 = pedidoComId(2L);
+
+        when(pedidoRepository.buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(3))).thenReturn(List.of(1L, 2L, 3L));
+        when(pedidoRepository.findByIdIn(List.of(1L, 2L), Sort.by("id"))).thenReturn(List.of(pedido1, pedido2));
+
+        StepVerifier.create(pedidoService.transmitirPedidos(new FiltroPedido(), null), 1)
+                .expectNext(pedido1)
+                .thenRequest(1)
+                .expectNext(pedido2)
+                .thenCancel()
+                .verify();
+
+        verify(pedidoRepository, times(1)).buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(3));
+    }
+
+    @Test
+    @DisplayName("Deve concluir a transmissão sem erro quando não houver pedidos")
+    void transmitirPedidos_semPedidos() {
+        when(pedidoRepository.buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(3))).thenReturn(List.of());
+
+        StepVerifier.create(pedidoService.transmitirPedidos(new FiltroPedido(), 10L))
+                .verifyComplete();
+
+        verify(pedidoRepository, never()).findByIdIn(anyCollection(), any(Sort.class));
+    }
+
+    @Test
+    @DisplayName("Deve exportar as linhas do cursor e fechar o Stream ao final")
+    void exportarPedidos_fechaStream() throws IOException {
+        AtomicBoolean fechado = new AtomicBoolean();
+        Stream<LinhaExportacaoPedido> linhas = Stream.<LinhaExportacaoPedido>empty().onClose(() -> fechado.set(true));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        when(pedidoRepository.transmitirLinhasExportacao(ArgumentMatchers.<Specification<Pedido>>any())).thenReturn(linhas);
+
+        pedidoService.exportarPedidos(new FiltroPedido(), FormatoExportacao.CSV, saida);
+
+        verify(exportadorPedidos).exportar(linhas, FormatoExportacao.CSV, saida);
+        assertTrue(fechado.get());
+    }
+
+    @Test
+    @DisplayName("Deve fechar o Stream mesmo quando a escrita da exportação falha")
+    void exportarPedidos_fechaStreamQuandoEscritaFalha() throws IOException {
+        AtomicBoolean fechado = new AtomicBoolean();
+        Stream<LinhaExportacaoPedido> linhas = Stream.<LinhaExportacaoPedido>empty().onClose(() -> fechado.set(true));
+        when(pedidoRepository.transmitirLinhasExportacao(ArgumentMatchers.<Specification<Pedido>>any())).thenReturn(linhas);
+        doThrow(new IOException("Conexão encerrada pelo cliente")).when(exportadorPedidos)
+                .exportar(any(), any(), any());
+
+        assertThrows(IOException.class, () ->
+                pedidoService.exportarPedidos(new FiltroPedido(), FormatoExportacao.NDJSON, new ByteArrayOutputStream()));
+        assertTrue(fechado.get());
+    }
+
+    @Test
+    @DisplayName("Deve retornar página vazia, sem exceção, ao chegar ao fim da listagem")
+    void listarPedidos_quandoCursorNoFim() {
+
+        when(pedidoRepository.buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), eq(11))).thenReturn(List.of());
+
+        Pagina<Pedido> pedidos = pedidoService.listarPedidos(new FiltroPedido(1L, null, null, true), 50L, 10);
+
+        assertTrue(pedidos.getConteudo().isEmpty());
+        assertNull(pedidos.getProximoCursor());
+        verify(pedidoRepository, never()).findByIdIn(anyCollection(), any(Sort.class));
     }
 
     @Test
     @DisplayName("Deve lançar BusinessRuleException quando não houver pedidos cadastrados")
     void listarPedidos_quandoNaoHouverPedidos() {
 
-        when(pedidoRepository.findAll()).thenReturn(List.of());
+        when(pedidoRepository.buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), anyInt())).thenReturn(List.of());
 
-        assertThrows(BusinessRuleException.class, () -> pedidoService.listarPedidos());
+        assertThrows(BusinessRuleException.class, () -> pedidoService.listarPedidos(new FiltroPedido(), null, null));
 
-        verify(pedidoRepository, times(1)).findAll();
+        verify(pedidoRepository, times(1)).buscarIds(ArgumentMatchers.<Specification<Pedido>>any(), anyInt());
     }
 
 
@@ -103,6 +272,7 @@ class PedidoServiceImplTest {
         assertNotNull(pedidoSalvo);
         verify(pedidoRepository, times(1)).save(pedido);
         verify(processarPedidoService, times(1)).processarPedido(pedido);
+        verify(resumoClienteService, times(1)).registrarPedido(pedido);
     }
 
     @Test
@@ -111,7 +281,9 @@ class PedidoServiceImplTest {
 
         Pedido pedidoExistente = new Pedido();
         pedidoExistente.setTotal(BigDecimal.valueOf(100));
+        pedidoExistente.setTotalComDesconto(BigDecimal.valueOf(90));
         Cliente cliente = new Cliente("Cliente original", "original@gmail.com");
+        cliente.setId(7L);
         pedidoExistente.setCliente(cliente);
 
         Pedido pedidoAtualizado = new Pedido();
@@ -126,8 +298,11 @@ class PedidoServiceImplTest {
 
         assertEquals(BigDecimal.valueOf(200), resultado.getTotal());
         assertEquals("Cliente atualizado", resultado.getCliente().getNome());
+        verify(estoqueService, times(1)).devolverEstoque(any());
         verify(pedidoRepository, times(1)).getReferenceById(1L);
         verify(pedidoRepository, times(1)).save(pedidoExistente);
+        verify(resumoClienteService, times(1))
+                .substituirPedido(7L, BigDecimal.valueOf(100), BigDecimal.valueOf(90), pedidoExistente);
     }
 
     @Test
@@ -148,6 +323,7 @@ class PedidoServiceImplTest {
 
         Pedido pedidoExistente = new Pedido();
         pedidoExistente.setId(1L);
+        pedidoExistente.setCliente(new Cliente("Cliente", "cliente@gmail.com"));
 
         Item item1 = new Item();
         Item item2 = new Item();
@@ -168,39 +344,224 @@ class PedidoServiceImplTest {
     }
 
     @Test
-    @DisplayName("Deve excluir pedido com sucesso")
+    @DisplayName("Deve excluir pedido com sucesso e retirar os valores do resumo do cliente")
     void excluirPedido_comSucesso() {
 
-        when(pedidoRepository.existsById(1L)).thenReturn(true);
+        Pedido pedido = pedidoDoCliente(7L, BigDecimal.valueOf(100), BigDecimal.valueOf(90));
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
 
         assertDoesNotThrow(() -> pedidoService.excluirPedido(1L));
 
-        verify(pedidoRepository, times(1)).deleteById(1L);
+        verify(estoqueService, times(1)).devolverEstoque(pedido.getItens());
+        verify(pedidoRepository, times(1)).delete(pedido);
+        verify(pedidoRepository, times(1)).flush();
+        verify(resumoClienteService, times(1)).removerPedido(7L, BigDecimal.valueOf(100), BigDecimal.valueOf(90));
+    }
+
+    @Test
+    @DisplayName("Deve remover o item devolvendo só o estoque dele e recalculando os totais, sem reprocessar o pedido")
+    void removerItem_comSucesso() {
+
+        Pedido pedido = pedidoDoCliente(7L, BigDecimal.valueOf(100), BigDecimal.valueOf(90));
+        Item removido = new Item("Caneta", BigDecimal.TEN, 2, pedido);
+        Item mantido = new Item("Lápis", BigDecimal.ONE, 1, pedido);
+        pedido.getItens().addAll(List.of(removido, mantido));
+        when(pedidoRepository.save(pedido)).thenReturn(pedido);
+
+        pedidoService.removerItem(removido);
+
+        assertEquals(List.of(mantido), pedido.getItens());
+        assertNull(removido.getPedido());
+        verify(estoqueService, times(1)).devolverEstoque(List.of(removido));
+        verify(calculadoraPedidoService, times(1)).calcularValorTotalPedido(pedido);
+        verify(calculadoraPedidoService, times(1)).calcularValorTotalComDesconto(pedido);
+        verify(pedidoRepository, times(1)).save(pedido);
+        verify(resumoClienteService, times(1))
+                .substituirPedido(7L, BigDecimal.valueOf(100), BigDecimal.valueOf(90), pedido);
+        verifyNoInteractions(processarPedidoService);
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException ao remover o último item do pedido")
+    void removerItem_quandoUltimoItem() {
+
+        Pedido pedido = pedidoDoCliente(7L, BigDecimal.TEN, BigDecimal.TEN);
+        Item item = new Item("Caneta", BigDecimal.TEN, 1, pedido);
+        pedido.getItens().add(item);
+
+        assertThrows(BusinessRuleException.class, () -> pedidoService.removerItem(item));
+
+        assertEquals(List.of(item), pedido.getItens());
+        verifyNoInteractions(estoqueService, resumoClienteService);
+        verify(pedidoRepository, never()).save(any(Pedido.class));
     }
 
     @Test
     @DisplayName("Deve lançar ResourceNotFoundException ao excluir pedido inexistente")
     void excluirPedido_QuandoNaoEncontrar() {
 
-        when(pedidoRepository.existsById(1L)).thenReturn(false);
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> pedidoService.excluirPedido(1L));
 
-        verify(pedidoRepository, never()).deleteById(anyLong());
+        verify(pedidoRepository, never()).delete(any(Pedido.class));
+        verify(resumoClienteService, never()).removerPedido(any(), any(), any());
     }
 
     @Test
     @DisplayName("Deve lançar DatabaseException ao excluir pedido com violação de integridade")
     void excluirPedido_ComViolacaoDeIntegridade() {
 
-        when(pedidoRepository.existsById(1L)).thenReturn(true);
+        Pedido pedido = pedidoDoCliente(7L, BigDecimal.TEN, BigDecimal.TEN);
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
 
-        doThrow(new DataIntegrityViolationException("")).when(pedidoRepository).deleteById(1L);
+        doThrow(new DataIntegrityViolationException("")).when(pedidoRepository).delete(pedido);
 
         assertThrows(DatabaseException.class, () -> pedidoService.excluirPedido(1L));
 
-        verify(pedidoRepository, times(1)).existsById(1L);
-        verify(pedidoRepository, times(1)).deleteById(1L);
+        verify(pedidoRepository, times(1)).findById(1L);
+        verify(pedidoRepository, times(1)).delete(pedido);
+        verify(resumoClienteService, never()).removerPedido(any(), any(), any());
+
+    }
+
+    @Test
+    @DisplayName("Deve salvar o pedido e gravar a resposta na mesma transação da Idempotency-Key")
+    void salvarPedidoIdempotente_primeiraExecucao() {
+        executarTransacaoComResultado();
+        Pedido pedido = new Pedido();
+        RespostaIdempotente gravada = new RespostaIdempotente("hash", 1L, "{\"id\":1}", false);
+        when(idempotenciaService.calcularHash(pedido)).thenReturn("hash");
+        when(idempotenciaService.buscar("chave-1", "hash")).thenReturn(Optional.empty());
+        when(pedidoRepository.save(pedido)).thenReturn(pedidoComId(1L));
+        when(idempotenciaService.concluir(eq("chave-1"), eq(1L), any(Pedido.class))).thenReturn(gravada);
+
+        RespostaIdempotente resposta = pedidoService.salvarPedido(pedido, "chave-1");
+
+        assertSame(gravada, resposta);
+        verify(idempotenciaService).reservar("chave-1", "hash");
+        verify(processarPedidoService).processarPedido(pedido);
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta gravada sem processar o pedido de novo quando a chave se repete")
+    void salvarPedidoIdempotente_repeticao() {
+        Pedido pedido = new Pedido();
+        RespostaIdempotente gravada = new RespostaIdempotente("hash", 1L, "{\"id\":1}", true);
+        when(idempotenciaService.calcularHash(pedido)).thenReturn("hash");
+        when(idempotenciaService.buscar("chave-1", "hash")).thenReturn(Optional.of(gravada));
+
+        RespostaIdempotente resposta = pedidoService.salvarPedido(pedido, "chave-1");
+
+        assertTrue(resposta.isRepetida());
+        verifyNoInteractions(transactionTemplate, processarPedidoService);
+        verify(pedidoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta da requisição concorrente que gravou a mesma chave primeiro")
+    void salvarPedidoIdempotente_concorrente() {
+        Pedido pedido = new Pedido();
+        RespostaIdempotente gravada = new RespostaIdempotente("hash", 1L, "{\"id\":1}", true);
+        when(idempotenciaService.calcularHash(pedido)).thenReturn("hash");
+        when(idempotenciaService.buscar("chave-1", "hash"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(gravada));
+        when(transactionTemplate.execute(any())).thenThrow(new DataIntegrityViolationException("chave duplicada"));
+
+        assertSame(gravada, pedidoService.salvarPedido(pedido, "chave-1"));
+    }
 
+    @Test
+    @DisplayName("Deve relançar a violação de integridade quando não houver resposta gravada para a chave")
+    void salvarPedidoIdempotente_violacaoSemResposta() {
+        Pedido pedido = new Pedido();
+        when(idempotenciaService.calcularHash(pedido)).thenReturn("hash");
+        when(idempotenciaService.buscar("chave-1", "hash")).thenReturn(Optional.empty());
+        when(transactionTemplate.execute(any())).thenThrow(new DataIntegrityViolationException("outra restrição"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> pedidoService.salvarPedido(pedido, "chave-1"));
+    }
+
+    @Test
+    @DisplayName("Deve salvar pedidos em lote, em blocos, reportando o resultado de cada pedido")
+    void salvarPedidosEmLote_comSucessoParcial() {
+        executarTransacoes();
+        Pedido pedido1 = new Pedido();
+        pedido1.setId(1L);
+        Pedido pedido2 = new Pedido();
+        pedido2.setId(2L);
+        Pedido pedido3 = new Pedido();
+        pedido3.setId(3L);
+        lenient().doThrow(new InsufficientStockException()).when(processarPedidoService).processarPedido(pedido2);
+
+        List<ResultadoPedidoLote> resultados = pedidoService.salvarPedidosEmLote(List.of(pedido1, pedido2, pedido3));
+
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.get(0).getSucesso());
+        assertEquals(1L, resultados.get(0).getPedidoId());
+        assertFalse(resultados.get(1).getSucesso());
+        assertEquals("Estoque insuficiente para os itens do pedido!", resultados.get(1).getErro());
+        assertTrue(resultados.get(2).getSucesso());
+        verify(pedidoRepository, times(1)).saveAll(List.of(pedido1));
+        verify(pedidoRepository, times(1)).saveAll(List.of(pedido3));
+        verify(resumoClienteService, times(1)).registrarPedidos(List.of(pedido1));
+        verify(resumoClienteService, times(1)).registrarPedidos(List.of(pedido3));
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Deve reportar falha em todos os pedidos do bloco quando o banco rejeitar o bloco")
+    void salvarPedidosEmLote_quandoBlocoFalharNoBanco() {
+        executarTransacoes();
+        Pedido pedido1 = new Pedido();
+        Pedido pedido2 = new Pedido();
+        doThrow(new DataIntegrityViolationException("violação")).when(pedidoRepository).flush();
+
+        List<ResultadoPedidoLote> resultados = pedidoService.salvarPedidosEmLote(List.of(pedido1, pedido2));
+
+        assertTrue(resultados.stream().noneMatch(ResultadoPedidoLote::getSucesso));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException para lote vazio ou acima do limite")
+    void salvarPedidosEmLote_quandoLoteInvalido() {
+        assertThrows(BusinessRuleException.class, () -> pedidoService.salvarPedidosEmLote(List.of()));
+
+        List<Pedido> grande = List.of(new Pedido(), new Pedido(), new Pedido(), new Pedido(), new Pedido(), new Pedido());
+        assertThrows(BusinessRuleException.class, () -> pedidoService.salvarPedidosEmLote(grande));
+
+        verify(pedidoRepository, never()).saveAll(anyList());
+    }
+
+    private Pedido pedidoDoCliente(Long clienteId, BigDecimal total, BigDecimal totalComDesconto) {
+        Cliente cliente = new Cliente("Cliente", "cliente@gmail.com");
+        cliente.setId(clienteId);
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        pedido.setTotal(total);
+        pedido.setTotalComDesconto(totalComDesconto);
+        return pedido;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executarTransacoes() {
+        doAnswer(invocacao -> {
+            ((Consumer<TransactionStatus>) invocacao.getArgument(0)).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executarTransacaoComResultado() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocacao ->
+                ((TransactionCallback<Object>) invocacao.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    private static Pedido pedidoComId(Long id) {
+        Pedido pedido = new Pedido();
+        pedido.setId(id);
+        return pedido;
     }
-}
\ No newline at end of file
+}
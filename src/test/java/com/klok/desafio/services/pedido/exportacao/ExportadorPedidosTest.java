@@ -0,0 +1,123 @@
+package com.klok.desafio.services.pedido.exportacao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.klok.desafio.dto.LinhaExportacaoPedido;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportadorPedidosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ExportadorPedidos exportador;
+
+    @BeforeEach
+    void configurar() {
+        exportador = new ExportadorPedidos();
+        ReflectionTestUtils.setField(exportador, "objectMapper", objectMapper);
+    }
+
+    @Test
+    @DisplayName("Deve exportar um pedido por linha em NDJSON com os itens agrupados")
+    void exportar_ndjsonAgrupaItensPorPedido() throws IOException {
+        String saida = exportar(FormatoExportacao.NDJSON,
+                linha(1L, 10L, "Caneta", "2.50", 4),
+                linha(1L, 11L, "Caderno", "15.00", 1),
+                linha(2L, 12L, "Lápis", "1.00", 10));
+
+        String[] linhas = saida.split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(saida.endsWith("\n"));
+
+        JsonNode primeiro = objectMapper.readTree(linhas[0]);
+        assertEquals(1L, primeiro.get("id").asLong());
+        assertEquals(7L, primeiro.get("clienteId").asLong());
+        assertEquals("2025-06-01", primeiro.get("dataEntrega").asText());
+        assertEquals(2, primeiro.get("itens").size());
+        assertEquals("Caderno", primeiro.get("itens").get(1).get("nome").asText());
+        assertTrue(linhas[0].contains("\"preco\":15.00"));
+
+        JsonNode segundo = objectMapper.readTree(linhas[1]);
+        assertEquals(2L, segundo.get("id").asLong());
+        assertEquals(1, segundo.get("itens").size());
+    }
+
+    @Test
+    @DisplayName("Deve exportar pedido sem itens em NDJSON com a lista de itens vazia")
+    void exportar_ndjsonPedidoSemItens() throws IOException {
+        LinhaExportacaoPedido semItens = new LinhaExportacaoPedido(3L, 7L, BigDecimal.ZERO, BigDecimal.ZERO,
+                true, null, null, null, null, null, null, null);
+
+        JsonNode pedido = objectMapper.readTree(exportar(FormatoExportacao.NDJSON, semItens));
+
+        assertEquals(3L, pedido.get("id").asLong());
+        assertTrue(pedido.get("itens").isArray());
+        assertEquals(0, pedido.get("itens").size());
+    }
+
+    @Test
+    @DisplayName("Não deve escrever nada em NDJSON quando não há pedidos")
+    void exportar_ndjsonVazio() throws IOException {
+        assertEquals("", exportar(FormatoExportacao.NDJSON));
+    }
+
+    @Test
+    @DisplayName("Deve exportar um item por linha em CSV com cabeçalho")
+    void exportar_csvUmItemPorLinha() throws IOException {
+        String saida = exportar(FormatoExportacao.CSV,
+                linha(1L, 10L, "Caneta", "2.50", 4),
+                linha(2L, 12L, "Lápis", "1.00", 10));
+
+        String[] linhas = saida.split("\r\n");
+        assertEquals(3, linhas.length);
+        assertEquals(ExportadorPedidos.CABECALHO_CSV, linhas[0]);
+        assertEquals("1,7,20.00,18.00,true,2025-06-01,,10,100,Caneta,2.50,4", linhas[1]);
+        assertEquals("2,7,20.00,18.00,true,2025-06-01,,12,100,Lápis,1.00,10", linhas[2]);
+    }
+
+    @Test
+    @DisplayName("Deve escapar vírgulas, aspas e quebras de linha no CSV")
+    void exportar_csvEscapaCampos() {
+        assertEquals("simples", ExportadorPedidos.campo("simples"));
+        assertEquals("\"Caneta, azul\"", ExportadorPedidos.campo("Caneta, azul"));
+        assertEquals("\"Tela 15\"\"\"", ExportadorPedidos.campo("Tela 15\""));
+        assertEquals("\"duas\nlinhas\"", ExportadorPedidos.campo("duas\nlinhas"));
+        assertEquals("", ExportadorPedidos.campo(null));
+        assertEquals("1000", ExportadorPedidos.campo(new BigDecimal("1E+3")));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o formato sem diferenciar maiúsculas e rejeitar formato desconhecido")
+    void formatoExportacao_de() {
+        assertEquals(FormatoExportacao.CSV, FormatoExportacao.de("csv"));
+        assertEquals(FormatoExportacao.NDJSON, FormatoExportacao.de(" NDJSON "));
+        assertThrows(BusinessRuleException.class, () -> FormatoExportacao.de("xlsx"));
+        assertThrows(BusinessRuleException.class, () -> FormatoExportacao.de(null));
+    }
+
+    private String exportar(FormatoExportacao formato, LinhaExportacaoPedido... linhas) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportador.exportar(Stream.of(linhas), formato, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private LinhaExportacaoPedido linha(Long pedidoId, Long itemId, String nome, String preco, int quantidade) {
+        return new LinhaExportacaoPedido(pedidoId, 7L, new BigDecimal("20.00"), new BigDecimal("18.00"), true,
+                LocalDate.of(2025, 6, 1), null, itemId, 100L, nome, new BigDecimal(preco), quantidade);
+    }
+}
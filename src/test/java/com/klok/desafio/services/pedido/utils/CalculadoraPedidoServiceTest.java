@@ -3,28 +3,51 @@ package com.klok.desafio.services.pedido.utils;
 import com.klok.desafio.entities.Cliente;
 import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.entities.Promocao;
+import com.klok.desafio.entities.SegmentoCliente;
+import com.klok.desafio.entities.TipoPromocao;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.services.promocao.IndicePromocoes;
+import com.klok.desafio.services.promocao.MotorPromocoes;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CalculadoraPedidoServiceTest {
 
+    @Mock
+    private MotorPromocoes motorPromocoes;
+
     @InjectMocks
     private CalculadoraPedidoService calculadoraPedidoService;
 
+    //sem promoções cadastradas vale só o desconto VIP padrão de 10%
+    @BeforeEach
+    void setUp() {
+        lenient().when(motorPromocoes.indice()).thenReturn(IndicePromocoes.vazio(BigDecimal.TEN));
+    }
+
     @Test
     @DisplayName("Deve calcular corretamente com dois itens")
     void deveCalcularCorretamenteValorTotalPedidoComDoisItens() {
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 2, 10, null);
-        Item item2 = new Item("Produto B", BigDecimal.valueOf(30), 1, 5, null);
+        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 2, null);
+        Item item2 = new Item("Produto B", BigDecimal.valueOf(30), 1, null);
         Pedido pedido = new Pedido();
         pedido.getItens().addAll(List.of(item1, item2));
 
@@ -65,4 +88,269 @@ class CalculadoraPedidoServiceTest {
         assertEquals(new BigDecimal(100).setScale(2), pedido.getTotalComDesconto());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve arredondar o desconto VIP meio centavo para cima (HALF_UP)")
+    void deveArredondarDescontoHalfUp() {
+        Cliente cliente = new Cliente();
+        cliente.setVip(true);
+        Pedido pedido = new Pedido(new BigDecimal("0.05"), BigDecimal.ZERO, false, null, cliente);
+
+        calculadoraPedidoService.calcularValorTotalComDesconto(pedido);
+
+        assertEquals(new BigDecimal("0.05"), pedido.getTotalComDesconto()); // 0.045 -> 0.05
+    }
+
+    @Test
+    @DisplayName("Deve calcular exatamente preços com mais de duas casas decimais")
+    void deveCalcularExatamente_quandoPrecoTemMaisDeDuasCasas() {
+        Pedido pedido = new Pedido();
+        pedido.getItens().add(new Item("Produto A", new BigDecimal("0.005"), 3, null));
+        pedido.getItens().add(new Item("Produto B", new BigDecimal("1.10"), 1, null));
+
+        calculadoraPedidoService.calcularValorTotalPedido(pedido);
+
+        assertEquals(new BigDecimal("1.12"), pedido.getTotal()); // 1.115 -> 1.12
+    }
+
+    @Test
+    @DisplayName("Deve calcular exatamente quando o total em centavos não cabe em long")
+    void deveCalcularExatamente_quandoTotalEstouraLong() {
+        Cliente cliente = new Cliente();
+        cliente.setVip(true);
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        pedido.getItens().add(new Item("Produto A", new BigDecimal("99999999999999999.99"), Integer.MAX_VALUE, null));
+
+        calculadoraPedidoService.calcularValorTotalPedido(pedido);
+        calculadoraPedidoService.calcularValorTotalComDesconto(pedido);
+
+        BigDecimal esperado = new BigDecimal("99999999999999999.99").multiply(BigDecimal.valueOf(Integer.MAX_VALUE));
+        assertEquals(esperado.setScale(2, RoundingMode.HALF_UP), pedido.getTotal());
+        assertEquals(esperado.subtract(esperado.multiply(BigDecimal.valueOf(0.1))).setScale(2, RoundingMode.HALF_UP),
+                pedido.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Deve produzir os mesmos totais do cálculo em BigDecimal para pedidos aleatórios")
+    void deveProduzirMesmoResultadoDoCalculoEmBigDecimal() {
+        Random aleatorio = new Random(42);
+        for (int rodada = 0; rodada < 1_000; rodada++) {
+            Cliente cliente = new Cliente();
+            cliente.setVip(aleatorio.nextBoolean());
+            Pedido pedido = new Pedido();
+            pedido.setCliente(cliente);
+            int itens = 1 + aleatorio.nextInt(50);
+            for (int i = 0; i < itens; i++) {
+                BigDecimal preco = BigDecimal.valueOf(1 + aleatorio.nextInt(1_000_000), aleatorio.nextInt(3));
+                pedido.getItens().add(new Item("Produto", preco, 1 + aleatorio.nextInt(1_000), null));
+            }
+
+            calculadoraPedidoService.calcularValorTotalPedido(pedido);
+            calculadoraPedidoService.calcularValorTotalComDesconto(pedido);
+
+            BigDecimal total = pedido.getItens().stream()
+                    .map(item -> item.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal comDesconto = cliente.isVip() ? total.subtract(total.multiply(BigDecimal.valueOf(0.1))) : total;
+            assertEquals(total.setScale(2, RoundingMode.HALF_UP), pedido.getTotal());
+            assertEquals(comDesconto.setScale(2, RoundingMode.HALF_UP), pedido.getTotalComDesconto());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve descontar a linha do produto em promoção por item")
+    void deveAplicarPromocaoPorItem() {
+        Promocao promocao = promocao(TipoPromocao.ITEM, SegmentoCliente.TODOS, 20);
+        promocao.setProdutoId(1L);
+        usarPromocoes(promocao);
+        Pedido pedido = pedido(false, item(1L, "50.00", 2), item(2L, "30.00", 1));
+
+        calcular(pedido);
+
+        assertEquals(new BigDecimal("130.00"), pedido.getTotal());
+        assertEquals(new BigDecimal("110.00"), pedido.getTotalComDesconto()); // 100 * 0.8 + 30
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a promoção por quantidade só a partir da quantidade mínima")
+    void deveAplicarPromocaoPorQuantidade_somenteAcimaDoMinimo() {
+        Promocao promocao = promocao(TipoPromocao.QUANTIDADE, SegmentoCliente.TODOS, 50);
+        promocao.setProdutoId(1L);
+        promocao.setQuantidadeMinima(3);
+        usarPromocoes(promocao);
+
+        Pedido abaixo = pedido(false, item(1L, "10.00", 2));
+        Pedido acima = pedido(false, item(1L, "10.00", 3));
+        calcular(abaixo);
+        calcular(acima);
+
+        assertEquals(new BigDecimal("20.00"), abaixo.getTotalComDesconto());
+        assertEquals(new BigDecimal("15.00"), acima.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a faixa de pedido só quando o subtotal atinge o valor mínimo")
+    void deveAplicarFaixaDePedido_somenteAcimaDoValorMinimo() {
+        Promocao promocao = promocao(TipoPromocao.PEDIDO, SegmentoCliente.REGULAR, 5);
+        promocao.setValorMinimo(new BigDecimal("100.00"));
+        usarPromocoes(promocao);
+
+        Pedido abaixo = pedido(false, item(1L, "99.99", 1));
+        Pedido acima = pedido(false, item(1L, "100.00", 1));
+        calcular(abaixo);
+        calcular(acima);
+
+        assertEquals(new BigDecimal("99.99"), abaixo.getTotalComDesconto());
+        assertEquals(new BigDecimal("95.00"), acima.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o cupom informado no pedido, sem diferenciar maiúsculas")
+    void deveAplicarCupom() {
+        Promocao promocao = promocao(TipoPromocao.CUPOM, SegmentoCliente.TODOS, 15);
+        promocao.setCodigoCupom("BEMVINDO");
+        usarPromocoes(promocao);
+        Pedido pedido = pedido(false, item(1L, "200.00", 1));
+        pedido.setCupom(" bemvindo ");
+
+        calcular(pedido);
+
+        assertEquals(new BigDecimal("170.00"), pedido.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException para cupom inexistente")
+    void deveLancarExcecao_quandoCupomInvalido() {
+        Pedido pedido = pedido(false, item(1L, "200.00", 1));
+        pedido.setCupom("NAOEXISTE");
+        calculadoraPedidoService.calcularValorTotalPedido(pedido);
+
+        assertThrows(BusinessRuleException.class, () -> calculadoraPedidoService.calcularValorTotalComDesconto(pedido));
+    }
+
+    @Test
+    @DisplayName("Não deve acumular cupom e desconto VIP: vale o maior")
+    void naoDeveAcumularCupomEDescontoVip() {
+        Promocao promocao = promocao(TipoPromocao.CUPOM, SegmentoCliente.TODOS, 5);
+        promocao.setCodigoCupom("CINCO");
+        usarPromocoes(promocao);
+
+        Pedido vip = pedido(true, item(1L, "100.00", 1));
+        vip.setCupom("CINCO");
+        Pedido regular = pedido(false, item(1L, "100.00", 1));
+        regular.setCupom("CINCO");
+        calcular(vip);
+        calcular(regular);
+
+        assertEquals(new BigDecimal("90.00"), vip.getTotalComDesconto());
+        assertEquals(new BigDecimal("95.00"), regular.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar promoções fora da vigência")
+    void deveIgnorarPromocaoForaDaVigencia() {
+        Promocao promocao = promocao(TipoPromocao.PEDIDO, SegmentoCliente.TODOS, 30);
+        promocao.setFim(LocalDate.now().minusDays(1));
+        usarPromocoes(promocao);
+        Pedido pedido = pedido(false, item(1L, "100.00", 1));
+
+        calcular(pedido);
+
+        assertEquals(new BigDecimal("100.00"), pedido.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Deve calcular item a item o mesmo resultado do cálculo em duas passadas")
+    void calculoIncremental_deveCoincidirComCalculoEmDuasPassadas() {
+        Promocao item = promocao(TipoPromocao.QUANTIDADE, SegmentoCliente.TODOS, 15);
+        item.setProdutoId(3L);
+        item.setQuantidadeMinima(2);
+        Promocao faixa = promocao(TipoPromocao.PEDIDO, SegmentoCliente.REGULAR, 7);
+        faixa.setValorMinimo(new BigDecimal("500.00"));
+        usarPromocoes(item, faixa);
+
+        Random aleatorio = new Random(7);
+        for (int rodada = 0; rodada < 500; rodada++) {
+            boolean vip = aleatorio.nextBoolean();
+            Pedido incremental = pedido(vip);
+            Pedido duasPassadas = pedido(vip);
+            int itens = 1 + aleatorio.nextInt(20);
+            for (int i = 0; i < itens; i++) {
+                long produtoId = 1 + aleatorio.nextInt(5);
+                String preco = BigDecimal.valueOf(1 + aleatorio.nextInt(100_000), aleatorio.nextInt(3)).toPlainString();
+                int quantidade = 1 + aleatorio.nextInt(5);
+                incremental.getItens().add(item(produtoId, preco, quantidade));
+                duasPassadas.getItens().add(item(produtoId, preco, quantidade));
+            }
+
+            CalculoPedido calculo = calculadoraPedidoService.iniciarCalculo(incremental);
+            incremental.getItens().forEach(calculo::acumular);
+            calculo.concluir();
+            calcular(duasPassadas);
+
+            assertEquals(duasPassadas.getTotal(), incremental.getTotal());
+            assertEquals(duasPassadas.getTotalComDesconto(), incremental.getTotalComDesconto());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve informar o mesmo desconto VIP no cálculo em centavos e no cálculo exato")
+    void calculoIncremental_descontoVipIgualNosDoisCaminhos() {
+        Pedido centavos = pedido(true, item(1L, "100.01", 1));
+        Pedido exato = pedido(true, item(1L, "100.005", 1)); // 100.005 -> 100.01
+
+        CalculoPedido calculoCentavos = calculadoraPedidoService.iniciarCalculo(centavos);
+        centavos.getItens().forEach(calculoCentavos::acumular);
+        calculoCentavos.concluir();
+        CalculoPedido calculoExato = calculadoraPedidoService.iniciarCalculo(exato);
+        exato.getItens().forEach(calculoExato::acumular);
+        calculoExato.concluir();
+
+        assertEquals(new BigDecimal("10.00"), calculoCentavos.getDescontoVip());
+        assertEquals(new BigDecimal("10.00"), calculoExato.getDescontoVip());
+        assertEquals(centavos.getTotalComDesconto(), exato.getTotalComDesconto());
+    }
+
+    @Test
+    @DisplayName("Deve recusar cupom inválido ao iniciar o cálculo, antes de qualquer item")
+    void iniciarCalculo_deveLancarExcecao_quandoCupomInvalido() {
+        Pedido pedido = pedido(false);
+        pedido.setCupom("NAOEXISTE");
+
+        assertThrows(BusinessRuleException.class, () -> calculadoraPedidoService.iniciarCalculo(pedido));
+    }
+
+    private void usarPromocoes(Promocao... promocoes) {
+        when(motorPromocoes.indice()).thenReturn(IndicePromocoes.compilar(List.of(promocoes), BigDecimal.TEN,
+                LocalDate.now()));
+    }
+
+    private void calcular(Pedido pedido) {
+        calculadoraPedidoService.calcularValorTotalPedido(pedido);
+        calculadoraPedidoService.calcularValorTotalComDesconto(pedido);
+    }
+
+    private static Promocao promocao(TipoPromocao tipo, SegmentoCliente segmento, int percentual) {
+        Promocao promocao = new Promocao("Promoção", tipo, segmento, BigDecimal.valueOf(percentual));
+        promocao.setId((long) percentual);
+        return promocao;
+    }
+
+    private static Pedido pedido(boolean vip, Item... itens) {
+        Cliente cliente = new Cliente();
+        cliente.setVip(vip);
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        for (Item item : itens) {
+            pedido.getItens().add(item);
+        }
+        return pedido;
+    }
+
+    private static Item item(Long produtoId, String preco, int quantidade) {
+        Produto produto = new Produto("Produto " + produtoId, new BigDecimal(preco), 100);
+        produto.setId(produtoId);
+        return new Item(produto, quantidade, null);
+    }
+}
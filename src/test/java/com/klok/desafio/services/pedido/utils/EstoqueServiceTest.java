@@ -2,59 +2,133 @@ package com.klok.desafio.services.pedido.utils;
 
 import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.exceptions.InsufficientStockException;
+import com.klok.desafio.repositories.ProdutoRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class EstoqueServiceTest {
 
+    @Mock
+    private ProdutoRepository produtoRepository;
+
     @InjectMocks
     private EstoqueService estoqueService;
 
     @Test
-    @DisplayName("Deve retornar true para estoque suficiente para todos os itens")
-    void deveRetornarTrue_quandoEstoqueSuficiente() {
+    @DisplayName("Deve reservar o estoque quando houver saldo suficiente para todos os itens")
+    void deveReservar_quandoEstoqueSuficiente() {
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 2, 10, null);
-        Item item2 = new Item("Produto B", BigDecimal.valueOf(30), 1, 5, null);
-        Pedido pedido = new Pedido();
-        pedido.getItens().addAll(List.of(item1, item2));
+        Pedido pedido = pedidoCom(item(1L, 2), item(2L, 1));
 
-        boolean resultado = estoqueService.verificarEstoque(pedido);
+        when(produtoRepository.debitarEstoque(1L, 2)).thenReturn(1);
+        when(produtoRepository.debitarEstoque(2L, 1)).thenReturn(1);
 
-        assertTrue(resultado);
+        ReservaEstoque reserva = estoqueService.reservarEstoque(pedido);
+
+        assertNotNull(reserva);
+        assertFalse(reserva.isLiberada());
+        assertTrue(pedido.getEmEstoque());
     }
 
     @Test
-    @DisplayName("Deve retornar false para estoque insuficiente para algum dos itens")
-    void deveRetornarFalse_quandoItemSemEstoqueSuficiente() {
+    @DisplayName("Deve lançar exceção e devolver o que já foi debitado quando algum item não tiver estoque suficiente")
+    void deveLancarExcecao_quandoItemSemEstoqueSuficiente() {
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 2, 1, null); // Estoque insuficiente
-        Item item2 = new Item("Produto B", BigDecimal.valueOf(30), 1, 5, null);
-        Pedido pedido = new Pedido();
-        pedido.getItens().addAll(List.of(item1, item2));
+        Pedido pedido = pedidoCom(item(1L, 1), item(2L, 2));
 
-        boolean resultado = estoqueService.verificarEstoque(pedido);
+        when(produtoRepository.debitarEstoque(1L, 1)).thenReturn(1);
+        when(produtoRepository.debitarEstoque(2L, 2)).thenReturn(0); // Estoque insuficiente
 
-        assertFalse(resultado);
+        assertThrows(InsufficientStockException.class, () -> estoqueService.reservarEstoque(pedido));
+
+        verify(produtoRepository, times(1)).devolverEstoque(1L, 1);
+        verify(produtoRepository, never()).devolverEstoque(eq(2L), anyInt());
     }
 
     @Test
-    @DisplayName("Deve retornar true para lista sem itens")
-    void deveRetornarTrue_quandoListaDeItensVazia() {
+    @DisplayName("Deve reservar com sucesso um pedido sem itens")
+    void deveReservar_quandoListaDeItensVazia() {
         Pedido pedido = new Pedido();
-        pedido.getItens().addAll(List.of());
 
-        boolean resultado = estoqueService.verificarEstoque(pedido);
+        ReservaEstoque reserva = estoqueService.reservarEstoque(pedido);
+
+        assertNotNull(reserva);
+        assertTrue(pedido.getEmEstoque());
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve somar as linhas do mesmo produto e debitar em ordem de ID")
+    void deveSomarLinhasDoMesmoProduto_eDebitarEmOrdem() {
+        Pedido pedido = pedidoCom(item(7L, 1), item(3L, 2), item(7L, 4));
+
+        when(produtoRepository.debitarEstoque(anyLong(), anyInt())).thenReturn(1);
+
+        estoqueService.reservarEstoque(pedido);
+
+        InOrder ordem = inOrder(produtoRepository);
+        ordem.verify(produtoRepository).debitarEstoque(3L, 2);
+        ordem.verify(produtoRepository).debitarEstoque(7L, 5);
+        verifyNoMoreInteractions(produtoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve devolver o estoque uma única vez ao liberar a reserva")
+    void liberar_deveSerIdempotente() {
+        Pedido pedido = pedidoCom(item(1L, 2));
+
+        when(produtoRepository.debitarEstoque(1L, 2)).thenReturn(1);
+
+        ReservaEstoque reserva = estoqueService.reservarEstoque(pedido);
+        reserva.liberar();
+        reserva.liberar();
+
+        assertTrue(reserva.isLiberada());
+        verify(produtoRepository, times(1)).devolverEstoque(1L, 2);
+    }
+
+    @Test
+    @DisplayName("Deve devolver ao catálogo o estoque dos itens informados")
+    void devolverEstoque_deveSomarPorProduto() {
+        estoqueService.devolverEstoque(List.of(item(1L, 2), item(1L, 3), item(2L, 1)));
+
+        verify(produtoRepository, times(1)).devolverEstoque(1L, 5);
+        verify(produtoRepository, times(1)).devolverEstoque(2L, 1);
+    }
 
-        assertTrue(resultado);
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException para item sem produto")
+    void deveLancarExcecao_quandoItemSemProduto() {
+        Item item = new Item();
+        item.setQuantidade(1);
+
+        assertThrows(BusinessRuleException.class, () -> estoqueService.reservarEstoque(pedidoCom(item)));
+        verifyNoInteractions(produtoRepository);
+    }
+
+    private Item item(Long produtoId, int quantidade) {
+        Item item = new Item();
+        item.setProdutoId(produtoId);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    private Pedido pedidoCom(Item... itens) {
+        Pedido pedido = new Pedido();
+        pedido.getItens().addAll(List.of(itens));
+        return pedido;
     }
-}
\ No newline at end of file
+}
@@ -152,7 +152,6 @@ class PedidoValidatorTest {
         pedido.setCliente(cliente);
 
         Item item1 = new Item();
-        item1.setEstoque(5);
         pedido.getItens().addAll(List.of(item1));
 
         pedido.setTotal(BigDecimal.TEN);
@@ -161,4 +160,17 @@ class PedidoValidatorTest {
 
         assertDoesNotThrow(() -> pedidoValidator.validarPedido(pedido));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve validar o cabeçalho do pedido sem validar os itens")
+    void validarCabecalho_naoDeveValidarItens() {
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        pedido.getItens().add(new Item());
+
+        assertDoesNotThrow(() -> pedidoValidator.validarCabecalho(pedido));
+        verifyNoInteractions(itemValidator);
+    }
+}
@@ -3,24 +3,38 @@ package com.klok.desafio.services.pedido.utils;
 import com.klok.desafio.entities.Cliente;
 import com.klok.desafio.entities.Item;
 import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.exceptions.BusinessRuleException;
 import com.klok.desafio.exceptions.InsufficientStockException;
 import com.klok.desafio.exceptions.NotificacaoException;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.services.cliente.ClienteService;
+import com.klok.desafio.services.item.utils.ItemValidator;
 import com.klok.desafio.services.notificacao.Mensagem;
-import com.klok.desafio.services.notificacao.NotificacaoService;
-import org.apache.commons.mail.EmailException;
+import com.klok.desafio.services.notificacao.NotificacaoOutboxService;
+import com.klok.desafio.services.pedido.etapas.*;
+import com.klok.desafio.services.produto.ProdutoService;
+import com.klok.desafio.services.promocao.IndicePromocoes;
+import com.klok.desafio.services.promocao.MotorPromocoes;
+import com.klok.desafio.services.relatorio.AcumuladorVendas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+//As etapas são as reais; só os serviços que acessam banco, cache ou outbox são mocks
 @ExtendWith(MockitoExtension.class)
 class ProcessarPedidoServiceTest {
 
@@ -28,148 +42,323 @@ class ProcessarPedidoServiceTest {
     private ProcessarPedidoService processarPedidoService;
 
     @Mock
-    private CalculadoraPedidoService calculadoraPedidoService;
+    private EstoqueService estoqueService;
 
     @Mock
-    private EstoqueService estoqueService;
+    private NotificacaoOutboxService notificacaoOutboxService;
 
     @Mock
-    private PedidoValidator pedidoValidator;
+    private ProdutoService produtoService;
 
     @Mock
-    private NotificacaoService notificacaoService;
+    private ClienteService clienteService;
 
-    @Test
-    @DisplayName("Deve processar todo o pedido com sucesso")
-    void deveProcessarPedidoComSucesso() throws EmailException {
+    @Mock
+    private MotorPromocoes motorPromocoes;
 
-        Cliente cliente = new Cliente();
-        cliente.setEmail("teste@email.com");
+    @Mock
+    private AcumuladorVendas acumuladorVendas;
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 2, 10, null);
-        Pedido pedido = new Pedido(BigDecimal.valueOf(0), BigDecimal.valueOf(0), false, null, cliente);
-        pedido.getItens().add(item1);
+    @Spy
+    private PedidoValidator pedidoValidator = new PedidoValidator();
 
-        when(estoqueService.verificarEstoque(pedido)).thenReturn(true);
+    @Spy
+    private ItemValidator itemValidator = new ItemValidator();
 
-        assertDoesNotThrow(() -> processarPedidoService.processarPedido(pedido));
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CalculadoraPedidoService calculadoraPedidoService;
+
+    @InjectMocks
+    private ValidacaoEtapa validacaoEtapa;
+
+    @InjectMocks
+    private ClienteEtapa clienteEtapa;
+
+    @InjectMocks
+    private ProdutosEtapa produtosEtapa;
+
+    @InjectMocks
+    private CalculoEtapa calculoEtapa;
+
+    @InjectMocks
+    private EstoqueEtapa estoqueEtapa;
 
-        verify(calculadoraPedidoService, times(1)).calcularValorTotalPedido(pedido);
-        verify(calculadoraPedidoService, times(1)).calcularValorTotalComDesconto(pedido);
-        verify(estoqueService, times(1)).verificarEstoque(pedido);
-        verify(pedidoValidator, times(1)).validarPedido(pedido);
-        verify(notificacaoService, times(1)).enviarEmail(any(Mensagem.class));
+    @InjectMocks
+    private NotificacaoEtapa notificacaoEtapa;
 
+    @InjectMocks
+    private VendasEtapa vendasEtapa;
+
+    private final Map<Long, Produto> catalogo = new HashMap<>();
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(calculoEtapa, "calculadoraPedidoService", calculadoraPedidoService);
+        ReflectionTestUtils.setField(processarPedidoService, "etapas", List.of(validacaoEtapa, clienteEtapa,
+                produtosEtapa, calculoEtapa, estoqueEtapa, notificacaoEtapa, vendasEtapa));
+
+        lenient().when(motorPromocoes.indice()).thenReturn(IndicePromocoes.vazio(BigDecimal.TEN));
+        lenient().when(clienteService.buscarPorId(1L)).thenReturn(cliente(false));
+        lenient().when(produtoService.buscarPorIds(any())).thenAnswer(invocacao -> {
+            Map<Long, Produto> encontrados = new HashMap<>();
+            for (Long id : invocacao.<Collection<Long>>getArgument(0)) {
+                if (catalogo.containsKey(id)) {
+                    encontrados.put(id, catalogo.get(id));
+                }
+            }
+            return encontrados;
+        });
     }
 
     @Test
-    @DisplayName("Deve lançar exceção para casos de estoque insuficiente")
-    void deveLancarExcecao_quandoEstoqueInsuficiente() throws EmailException {
+    @DisplayName("Deve processar todo o pedido com sucesso")
+    void deveProcessarPedidoComSucesso() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 2), itemDoCatalogo(2L, "Produto B", "30.00", 1));
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenAnswer(invocacao -> reservar(pedido));
 
-        Cliente cliente = new Cliente();
-        cliente.setEmail("teste@email.com");
+        assertDoesNotThrow(() -> processarPedidoService.processarPedido(pedido));
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 2, 1, null);
-        Pedido pedido = new Pedido(BigDecimal.valueOf(0), BigDecimal.valueOf(0), false, null, cliente);
-        pedido.getItens().add((item1));
+        assertEquals(new BigDecimal("130.00"), pedido.getTotal());
+        assertEquals(new BigDecimal("130.00"), pedido.getTotalComDesconto());
+        assertEquals(LocalDate.now().plusDays(3), pedido.getDataEntrega());
+        verify(produtoService, times(1)).buscarPorIds(any());
+        verify(notificacaoOutboxService, times(1)).registrar(any(Mensagem.class));
+        verify(acumuladorVendas).registrarVenda(pedido, new BigDecimal("0.00"));
+    }
 
-        when(estoqueService.verificarEstoque(pedido)).thenReturn(false);
+    @Test
+    @DisplayName("Deve lançar exceção para casos de estoque insuficiente")
+    void deveLancarExcecao_quandoEstoqueInsuficiente() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 2));
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenThrow(new InsufficientStockException());
 
         assertThrows(InsufficientStockException.class, () -> processarPedidoService.processarPedido(pedido));
-        verify(estoqueService, times(1)).verificarEstoque(pedido);
-        verify(notificacaoService, never()).enviarEmail(any());
+
+        assertNull(pedido.getDataEntrega());
+        verify(notificacaoOutboxService, never()).registrar(any());
+        verify(acumuladorVendas).registrarFaltaEstoque();
+        verify(acumuladorVendas, never()).registrarVenda(any(), any());
     }
 
     @Test
-    @DisplayName("Deve definir a data de entrega corretamente")
-    void deveDefinirDataEntrega_quandoPedidoEmEstoque() {
-        Cliente cliente = new Cliente();
-        cliente.setEmail("teste@email.com");
+    @DisplayName("Deve somar as linhas do mesmo produto na passada pelos itens e reservar em ordem de ID")
+    void deveAgruparQuantidadesParaReserva() {
+        Pedido pedido = pedido(itemDoCatalogo(2L, "Produto B", "30.00", 1), itemDoCatalogo(1L, "Produto A", "50.00", 2),
+                itemDoCatalogo(2L, "Produto B", "30.00", 4));
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenAnswer(invocacao -> reservar(pedido));
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 1, 10, null);
-        Pedido pedido = new Pedido(BigDecimal.valueOf(0), BigDecimal.valueOf(0), true, null, cliente);
-        pedido.getItens().add((item1));
+        processarPedidoService.processarPedido(pedido);
 
-        when(estoqueService.verificarEstoque(pedido)).thenReturn(true);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<SortedMap<Long, Integer>> captor = ArgumentCaptor.forClass(SortedMap.class);
+        verify(estoqueService).reservarEstoque(eq(pedido), captor.capture());
+        assertEquals(List.of(Map.entry(1L, 2), Map.entry(2L, 5)), List.copyOf(captor.getValue().entrySet()));
+        assertTrue(pedido.getEmEstoque());
+    }
 
-        assertDoesNotThrow(() -> processarPedidoService.processarPedido(pedido));
+    @Test
+    @DisplayName("Deve liberar a reserva quando o pedido for rejeitado depois de reservar o estoque")
+    void deveLiberarReserva_quandoEtapaPosteriorFalhar() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 1));
+        ReservaEstoque reserva = mock(ReservaEstoque.class);
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenAnswer(invocacao -> {
+            pedido.setEmEstoque(true);
+            return reserva;
+        });
+        doThrow(RuntimeException.class).when(notificacaoOutboxService).registrar(any(Mensagem.class));
 
-        assertNotNull(pedido.getDataEntrega());
-        assertEquals(LocalDate.now().plusDays(3), pedido.getDataEntrega());
+        assertThrows(NotificacaoException.class, () -> processarPedidoService.processarPedido(pedido));
+
+        verify(reserva, times(1)).liberar();
     }
 
     @Test
-    @DisplayName("Deve definir a data como null para pedidos sem estoque")
-    void naoDeveDefinirDataEntrega_quandoPedidoNaoEstiverEmEstoque() {
+    @DisplayName("Deve lançar exceção quando falhar o agendamento do email para cliente")
+    void deveLancarNotificacaoException_quandoFalharAgendamentoEmail() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 1));
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenAnswer(invocacao -> reservar(pedido));
+        doThrow(RuntimeException.class).when(notificacaoOutboxService).registrar(any(Mensagem.class));
 
-        Cliente cliente = new Cliente();
-        cliente.setEmail("teste@email.com");
+        assertThrows(NotificacaoException.class, () -> processarPedidoService.processarPedido(pedido));
+        verify(notificacaoOutboxService, times(1)).registrar(any(Mensagem.class));
+    }
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 1, 10, null);
-        Pedido pedido = new Pedido(BigDecimal.valueOf(0), BigDecimal.valueOf(0), true, null, cliente);
-        pedido.getItens().add((item1));
+    @Test
+    @DisplayName("Deve usar nome e preço do catálogo, ignorando os valores enviados no item")
+    void deveUsarNomeEPrecoDoCatalogo() {
+        Item item = itemDoCatalogo(1L, "Produto A", "50.00", 1);
+        item.setNome("Outro nome");
+        item.setPreco(BigDecimal.ONE);
+        Pedido pedido = pedido(item);
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenAnswer(invocacao -> reservar(pedido));
 
-        when(estoqueService.verificarEstoque(pedido)).thenReturn(false);
+        processarPedidoService.processarPedido(pedido);
 
-        assertThrows(InsufficientStockException.class,() -> processarPedidoService.processarPedido(pedido));
+        assertEquals("Produto A", item.getNome());
+        assertEquals(new BigDecimal("50.00"), item.getPreco());
+        assertSame(catalogo.get(1L), item.getProduto());
+    }
 
-        assertNull(pedido.getDataEntrega());
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException quando o item referenciar um produto inexistente")
+    void deveLancarExcecao_quandoProdutoNaoExistir() {
+        Item item = new Item();
+        item.setProdutoId(99L);
+        item.setQuantidade(1);
+        Pedido pedido = pedido(item);
+
+        assertThrows(BusinessRuleException.class, () -> processarPedidoService.processarPedido(pedido));
+        verifyNoInteractions(estoqueService, notificacaoOutboxService);
     }
 
     @Test
-    @DisplayName("Deve atualizar o estoque dos itens corretamente")
-    void deveAtualizarEstoqueDosItens() {
+    @DisplayName("Deve rejeitar pedido sem itens antes de consultar cliente e produtos")
+    void deveRejeitarPedidoSemItens_antesDeConsultarBanco() {
+        Pedido pedido = pedido();
 
-        Cliente cliente = new Cliente();
-        cliente.setEmail("teste@email.com");
+        assertThrows(BusinessRuleException.class, () -> processarPedidoService.processarPedido(pedido));
+        verifyNoInteractions(clienteService, produtoService, estoqueService);
+    }
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 2, 10, null);
-        Item item2 = new Item("Produto B", BigDecimal.valueOf(30), 1, 5, null);
-        Pedido pedido = new Pedido();
-        pedido.setCliente(cliente);
-        pedido.getItens().addAll(List.of(item1, item2));
+    @Test
+    @DisplayName("Deve rejeitar item com quantidade inválida sem calcular nem reservar estoque")
+    void deveRejeitarQuantidadeInvalida_antesDeReservar() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 1), itemDoCatalogo(2L, "Produto B", "30.00", 0));
+
+        assertThrows(BusinessRuleException.class, () -> processarPedidoService.processarPedido(pedido));
 
-        when(estoqueService.verificarEstoque(pedido)).thenReturn(true);
+        assertNull(pedido.getTotal());
+        verifyNoInteractions(estoqueService, notificacaoOutboxService);
+    }
+
+    @Test
+    @DisplayName("Deve usar o cliente do cadastro, e não o enviado no payload, para desconto e e-mail")
+    void deveResolverClientePeloCadastro() {
+        Cliente cadastrado = cliente(true);
+        when(clienteService.buscarPorId(1L)).thenReturn(cadastrado);
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 2));
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenAnswer(invocacao -> reservar(pedido));
 
         processarPedidoService.processarPedido(pedido);
 
-        assertEquals(8, item1.getEstoque());
-        assertEquals(4, item2.getEstoque());
+        assertSame(cadastrado, pedido.getCliente());
+        assertEquals(new BigDecimal("90.00"), pedido.getTotalComDesconto());
+        ArgumentCaptor<Mensagem> captor = ArgumentCaptor.forClass(Mensagem.class);
+        verify(notificacaoOutboxService).registrar(captor.capture());
+        assertEquals("cliente@email.com", captor.getValue().getDestinatario());
+        verify(acumuladorVendas).registrarVenda(pedido, new BigDecimal("10.00"));
     }
 
     @Test
-    @DisplayName("Deve enviar o email para o cliente corretamente")
-    void deveEnviarEmailComSucesso() throws EmailException {
-        Cliente cliente = new Cliente();
-        cliente.setEmail("teste@email.com");
+    @DisplayName("Não deve registrar de novo nas vendas o pedido já gravado que for alterado")
+    void naoDeveRegistrarVenda_quandoPedidoJaGravado() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 1));
+        pedido.setId(7L);
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenAnswer(invocacao -> reservar(pedido));
+
+        processarPedidoService.processarPedido(pedido);
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 1, 10, null);
-        Pedido pedido = new Pedido(BigDecimal.valueOf(0), BigDecimal.valueOf(0), true, null, cliente);
-        pedido.getItens().add((item1));
+        verify(acumuladorVendas, never()).registrarVenda(any(), any());
+    }
 
-        when(estoqueService.verificarEstoque(pedido)).thenReturn(true);
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException quando o cliente do pedido não existir")
+    void deveLancarExcecao_quandoClienteNaoExistir() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 1));
+        pedido.getCliente().setId(99L);
+        when(clienteService.buscarPorId(99L)).thenThrow(new ResourceNotFoundException(99L));
+
+        assertThrows(BusinessRuleException.class, () -> processarPedidoService.processarPedido(pedido));
+        verifyNoInteractions(produtoService, estoqueService);
+    }
 
-        assertDoesNotThrow(() -> processarPedidoService.processarPedido(pedido));
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException para cupom inválido sem reservar estoque")
+    void deveLancarExcecao_quandoCupomInvalido() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 1));
+        pedido.setCupom("NAOEXISTE");
 
-        verify(notificacaoService, times(1)).enviarEmail(any(Mensagem.class));
+        assertThrows(BusinessRuleException.class, () -> processarPedidoService.processarPedido(pedido));
+        verifyNoInteractions(estoqueService);
     }
 
     @Test
-    @DisplayName("Deve lançar exceção quando falhar o envio de email para cliente")
-    void deveLancarNotificacaoException_quandoFalharEnvioEmail() throws EmailException {
+    @DisplayName("Deve registrar o tempo de cada etapa, da passada pelos itens e do pedido como sucesso")
+    void deveRegistrarMetricas_quandoPedidoProcessado() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 1));
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenAnswer(invocacao -> reservar(pedido));
 
-        Cliente cliente = new Cliente();
-        cliente.setEmail("teste@email.com");
+        processarPedidoService.processarPedido(pedido);
 
-        Item item1 = new Item("Produto A", BigDecimal.valueOf(50), 1, 10, null);
-        Pedido pedido = new Pedido(BigDecimal.valueOf(0), BigDecimal.valueOf(0), true, null, cliente);
-        pedido.getItens().add((item1));
+        for (String etapa : List.of("validacao", "cliente", "produtos", "calculo", "estoque", "email", "itens")) {
+            assertEquals(1, meterRegistry.get(ProcessarPedidoService.METRICA_ETAPA)
+                    .tag("etapa", etapa).tag("resultado", "sucesso").timer().count(), etapa);
+        }
+        assertEquals(1, meterRegistry.get(ProcessarPedidoService.METRICA_PEDIDO)
+                .tag("resultado", "sucesso").timer().count());
+    }
 
-        when(estoqueService.verificarEstoque(pedido)).thenReturn(true);
+    @Test
+    @DisplayName("Deve registrar a falha com o tipo da exceção na etapa que falhou")
+    void deveRegistrarMetricas_quandoEstoqueInsuficiente() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 1));
+        when(estoqueService.reservarEstoque(eq(pedido), any())).thenThrow(new InsufficientStockException());
 
-        doThrow(RuntimeException.class).when(notificacaoService).enviarEmail(any(Mensagem.class));
+        assertThrows(InsufficientStockException.class, () -> processarPedidoService.processarPedido(pedido));
 
-        assertThrows(NotificacaoException.class, () -> processarPedidoService.processarPedido(pedido));
-        verify(notificacaoService, times(1)).enviarEmail(any(Mensagem.class));
+        assertEquals(1, meterRegistry.get(ProcessarPedidoService.METRICA_ETAPA).tag("etapa", "estoque")
+                .tag("excecao", "InsufficientStockException").timer().count());
+        assertEquals(1, meterRegistry.get(ProcessarPedidoService.METRICA_ETAPA).tag("etapa", "calculo")
+                .tag("resultado", "sucesso").timer().count());
+        assertEquals(1, meterRegistry.get(ProcessarPedidoService.METRICA_PEDIDO).tag("resultado", "falha")
+                .tag("excecao", "InsufficientStockException").timer().count());
+        assertNull(meterRegistry.find(ProcessarPedidoService.METRICA_ETAPA).tag("etapa", "email").timer());
+    }
+
+    @Test
+    @DisplayName("Deve registrar a falha na passada pelos itens quando um item for inválido")
+    void deveRegistrarMetricas_quandoItemInvalido() {
+        Pedido pedido = pedido(itemDoCatalogo(1L, "Produto A", "50.00", 0));
+
+        assertThrows(BusinessRuleException.class, () -> processarPedidoService.processarPedido(pedido));
+
+        assertEquals(1, meterRegistry.get(ProcessarPedidoService.METRICA_ETAPA).tag("etapa", "itens")
+                .tag("excecao", "BusinessRuleException").timer().count());
+        assertNull(meterRegistry.find(ProcessarPedidoService.METRICA_ETAPA).tag("etapa", "validacao").timer());
+    }
+
+    private static Cliente cliente(boolean vip) {
+        Cliente cliente = new Cliente("Cliente", "cliente@email.com");
+        cliente.setId(1L);
+        cliente.setVip(vip);
+        return cliente;
+    }
+
+    //o payload traz só a referência ao cliente; os dados vêm do ClienteService
+    private static Pedido pedido(Item... itens) {
+        Cliente referencia = new Cliente();
+        referencia.setId(1L);
+        Pedido pedido = new Pedido();
+        pedido.setCliente(referencia);
+        pedido.getItens().addAll(Arrays.asList(itens));
+        return pedido;
+    }
+
+    private Item itemDoCatalogo(Long id, String nome, String preco, int quantidade) {
+        Produto produto = new Produto(nome, new BigDecimal(preco), 100);
+        produto.setId(id);
+        catalogo.put(id, produto);
+        Item item = new Item();
+        item.setProdutoId(id);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    private ReservaEstoque reservar(Pedido pedido) {
+        pedido.setEmEstoque(true);
+        return mock(ReservaEstoque.class);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package com.klok.desafio.services.produto;
+
+import com.klok.desafio.dto.Pagina;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.exceptions.DatabaseException;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.repositories.ProdutoRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProdutoServiceImplTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @InjectMocks
+    private ProdutoServiceImpl produtoService;
+
+    @Test
+    @DisplayName("Deve buscar produto por ID com sucesso")
+    void buscarPorId_comSucesso() {
+        Produto produto = produto(1L);
+
+        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
+
+        assertEquals(produto, produtoService.buscarPorId(1L));
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException ao buscar produto inexistente por ID")
+    void buscarPorId_quandoNaoEncontrar() {
+        when(produtoRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> produtoService.buscarPorId(1L));
+    }
+
+    @Test
+    @DisplayName("Deve buscar vários produtos numa única consulta, indexados por ID")
+    void buscarPorIds_comSucesso() {
+        Produto produto1 = produto(1L);
+        Produto produto2 = produto(2L);
+
+        when(produtoRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(produto1, produto2));
+
+        Map<Long, Produto> produtos = produtoService.buscarPorIds(Set.of(1L, 2L));
+
+        assertEquals(produto1, produtos.get(1L));
+        assertEquals(produto2, produtos.get(2L));
+        verify(produtoRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o banco ao buscar uma lista vazia de IDs")
+    void buscarPorIds_quandoVazio() {
+        assertTrue(produtoService.buscarPorIds(Set.of()).isEmpty());
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve retornar o cursor da próxima página quando houver mais produtos que o limite")
+    void listarProdutos_comProximaPagina() {
+        Produto produto1 = produto(1L);
+        Produto produto2 = produto(2L);
+
+        when(produtoRepository.findBy(ArgumentMatchers.<Specification<Produto>>any(), any())).thenReturn(List.of(produto1, produto2));
+
+        Pagina<Produto> produtos = produtoService.listarProdutos(true, null, 1);
+
+        assertEquals(List.of(produto1), produtos.getConteudo());
+        assertEquals(1L, produtos.getProximoCursor());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException quando não houver produtos cadastrados")
+    void listarProdutos_quandoNaoHouverProdutos() {
+        when(produtoRepository.findBy(ArgumentMatchers.<Specification<Produto>>any(), any())).thenReturn(List.of());
+
+        assertThrows(BusinessRuleException.class, () -> produtoService.listarProdutos(null, null, null));
+    }
+
+    @Test
+    @DisplayName("Deve salvar um produto válido com sucesso")
+    void salvarProduto_comSucesso() {
+        Produto produto = new Produto("Produto A", BigDecimal.TEN, 5);
+
+        when(produtoRepository.save(produto)).thenReturn(produto);
+
+        assertEquals(produto, produtoService.salvarProduto(produto));
+        verify(produtoRepository, times(1)).save(produto);
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException ao salvar produto com preço ou estoque inválido")
+    void salvarProduto_quandoInvalido() {
+        assertThrows(BusinessRuleException.class,
+                () -> produtoService.salvarProduto(new Produto("Produto A", BigDecimal.ZERO, 5)));
+        assertThrows(BusinessRuleException.class,
+                () -> produtoService.salvarProduto(new Produto("Produto A", BigDecimal.TEN, -1)));
+        verify(produtoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar produto com sucesso")
+    void atualizarProduto_comSucesso() {
+        Produto produtoExistente = produto(1L);
+        Produto produtoAtualizado = new Produto("Produto Atualizado", BigDecimal.valueOf(20), 3);
+
+        when(produtoRepository.getReferenceById(1L)).thenReturn(produtoExistente);
+        when(produtoRepository.save(produtoExistente)).thenReturn(produtoExistente);
+
+        Produto resultado = produtoService.atualizarProduto(1L, produtoAtualizado);
+
+        assertEquals("Produto Atualizado", resultado.getNome());
+        assertEquals(BigDecimal.valueOf(20), resultado.getPreco());
+        assertEquals(3, resultado.getEstoque());
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException ao tentar atualizar produto inexistente")
+    void atualizarProduto_quandoNaoEncontrar() {
+        when(produtoRepository.getReferenceById(1L)).thenThrow(EntityNotFoundException.class);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> produtoService.atualizarProduto(1L, new Produto("Produto A", BigDecimal.TEN, 5)));
+        verify(produtoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar DatabaseException ao excluir produto referenciado por itens")
+    void excluirProduto_quandoReferenciado() {
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+        doThrow(new DataIntegrityViolationException("Erro de integridade referencial")).when(produtoRepository).deleteById(1L);
+
+        assertThrows(DatabaseException.class, () -> produtoService.excluirProduto(1L));
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException ao tentar excluir produto inexistente")
+    void excluirProduto_quandoNaoEncontrar() {
+        when(produtoRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> produtoService.excluirProduto(1L));
+        verify(produtoRepository, never()).deleteById(anyLong());
+    }
+
+    private Produto produto(Long id) {
+        Produto produto = new Produto("Produto " + id, BigDecimal.TEN, 10);
+        produto.setId(id);
+        return produto;
+    }
+}
@@ -0,0 +1,88 @@
+package com.klok.desafio.services.promocao;
+
+import com.klok.desafio.entities.Promocao;
+import com.klok.desafio.entities.SegmentoCliente;
+import com.klok.desafio.entities.TipoPromocao;
+import com.klok.desafio.repositories.PromocaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MotorPromocoesTest {
+
+    @Mock
+    private PromocaoRepository promocaoRepository;
+
+    @InjectMocks
+    private MotorPromocoes motorPromocoes;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(motorPromocoes, "descontoVip", BigDecimal.TEN);
+        motorPromocoes.iniciar();
+    }
+
+    @Test
+    @DisplayName("Deve iniciar só com o desconto VIP configurado")
+    void deveIniciarSomenteComDescontoVip() {
+        IndicePromocoes indice = motorPromocoes.indice();
+
+        assertEquals(0, indice.getTotalPromocoes());
+        assertEquals(0, new BigDecimal("10").compareTo(indice.melhorFaixaPedido(SegmentoCliente.VIP, 1L).percentual()));
+        assertNull(indice.melhorFaixaPedido(SegmentoCliente.REGULAR, 1L));
+        verifyNoInteractions(promocaoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve trocar o índice ao recarregar, considerando só promoções vigentes")
+    void deveTrocarIndiceAoRecarregar() {
+        Promocao vigente = promocao(1L, "VALE20");
+        Promocao futura = promocao(2L, "FUTURO");
+        futura.setInicio(LocalDate.now().plusDays(1));
+        Promocao encerrada = promocao(3L, "PASSADO");
+        encerrada.setFim(LocalDate.now().minusDays(1));
+        when(promocaoRepository.findByAtivaTrue()).thenReturn(List.of(vigente, futura, encerrada));
+        IndicePromocoes anterior = motorPromocoes.indice();
+
+        motorPromocoes.recarregar();
+
+        IndicePromocoes atual = motorPromocoes.indice();
+        assertNotSame(anterior, atual);
+        assertEquals(1, atual.getTotalPromocoes());
+        assertTrue(atual.cupom(SegmentoCliente.REGULAR, "vale20").isPresent());
+        assertTrue(atual.cupom(SegmentoCliente.VIP, "VALE20").isPresent());
+        assertTrue(atual.cupom(SegmentoCliente.REGULAR, "FUTURO").isEmpty());
+        assertTrue(atual.cupom(SegmentoCliente.REGULAR, "PASSADO").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar na hora quando não há transação ativa")
+    void deveRecarregarImediatamente_semTransacao() {
+        when(promocaoRepository.findByAtivaTrue()).thenReturn(List.of());
+
+        motorPromocoes.recarregarAposCommit();
+
+        verify(promocaoRepository).findByAtivaTrue();
+    }
+
+    private static Promocao promocao(Long id, String cupom) {
+        Promocao promocao = new Promocao("Cupom " + cupom, TipoPromocao.CUPOM, SegmentoCliente.TODOS,
+                BigDecimal.valueOf(20));
+        promocao.setId(id);
+        promocao.setCodigoCupom(cupom);
+        return promocao;
+    }
+}
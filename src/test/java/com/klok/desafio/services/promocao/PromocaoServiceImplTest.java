@@ -0,0 +1,156 @@
+package com.klok.desafio.services.promocao;
+
+import com.klok.desafio.entities.Promocao;
+import com.klok.desafio.entities.SegmentoCliente;
+import com.klok.desafio.entities.TipoPromocao;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.exceptions.ResourceNotFoundException;
+import com.klok.desafio.repositories.PromocaoRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PromocaoServiceImplTest {
+
+    @Mock
+    private PromocaoRepository promocaoRepository;
+
+    @Mock
+    private MotorPromocoes motorPromocoes;
+
+    @InjectMocks
+    private PromocaoServiceImpl promocaoService;
+
+    @Test
+    @DisplayName("Deve buscar promoção por ID com sucesso")
+    void buscarPorId_comSucesso() {
+        Promocao promocao = pedido(10);
+        when(promocaoRepository.findById(1L)).thenReturn(Optional.of(promocao));
+
+        assertEquals(promocao, promocaoService.buscarPorId(1L));
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException ao buscar promoção inexistente por ID")
+    void buscarPorId_quandoNaoEncontrar() {
+        when(promocaoRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> promocaoService.buscarPorId(1L));
+    }
+
+    @Test
+    @DisplayName("Deve salvar promoção com os padrões e recarregar o motor após o commit")
+    void salvarPromocao_comSucesso() {
+        Promocao promocao = pedido(10);
+        promocao.setSegmento(null);
+        promocao.setAtiva(null);
+        when(promocaoRepository.save(promocao)).thenReturn(promocao);
+
+        Promocao salva = promocaoService.salvarPromocao(promocao);
+
+        assertEquals(SegmentoCliente.TODOS, salva.getSegmento());
+        assertTrue(salva.getAtiva());
+        verify(motorPromocoes).recarregarAposCommit();
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException ao salvar promoção nula")
+    void salvarPromocao_nula() {
+        assertThrows(BusinessRuleException.class, () -> promocaoService.salvarPromocao(null));
+        verifyNoInteractions(promocaoRepository, motorPromocoes);
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException para percentual fora do intervalo")
+    void salvarPromocao_percentualInvalido() {
+        assertThrows(BusinessRuleException.class, () -> promocaoService.salvarPromocao(pedido(0)));
+        assertThrows(BusinessRuleException.class, () -> promocaoService.salvarPromocao(pedido(101)));
+        verifyNoInteractions(promocaoRepository, motorPromocoes);
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException quando o fim é anterior ao início")
+    void salvarPromocao_vigenciaInvalida() {
+        Promocao promocao = pedido(10);
+        promocao.setInicio(LocalDate.now());
+        promocao.setFim(LocalDate.now().minusDays(1));
+
+        assertThrows(BusinessRuleException.class, () -> promocaoService.salvarPromocao(promocao));
+    }
+
+    @Test
+    @DisplayName("Deve exigir os campos de cada tipo de promoção")
+    void salvarPromocao_camposPorTipo() {
+        Promocao item = new Promocao("Item", TipoPromocao.ITEM, SegmentoCliente.TODOS, BigDecimal.TEN);
+        Promocao quantidade = new Promocao("Quantidade", TipoPromocao.QUANTIDADE, SegmentoCliente.TODOS, BigDecimal.TEN);
+        quantidade.setProdutoId(1L);
+        Promocao cupom = new Promocao("Cupom", TipoPromocao.CUPOM, SegmentoCliente.TODOS, BigDecimal.TEN);
+
+        assertThrows(BusinessRuleException.class, () -> promocaoService.salvarPromocao(item));
+        assertThrows(BusinessRuleException.class, () -> promocaoService.salvarPromocao(quantidade));
+        assertThrows(BusinessRuleException.class, () -> promocaoService.salvarPromocao(cupom));
+        verifyNoInteractions(promocaoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar promoção e recarregar o motor")
+    void atualizarPromocao_comSucesso() {
+        Promocao existente = pedido(10);
+        Promocao atualizada = pedido(25);
+        when(promocaoRepository.getReferenceById(1L)).thenReturn(existente);
+        when(promocaoRepository.save(existente)).thenReturn(existente);
+
+        Promocao resultado = promocaoService.atualizarPromocao(1L, atualizada);
+
+        assertEquals(BigDecimal.valueOf(25), resultado.getPercentual());
+        verify(motorPromocoes).recarregarAposCommit();
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException ao atualizar promoção inexistente")
+    void atualizarPromocao_quandoNaoEncontrar() {
+        when(promocaoRepository.getReferenceById(1L)).thenThrow(EntityNotFoundException.class);
+
+        assertThrows(ResourceNotFoundException.class, () -> promocaoService.atualizarPromocao(1L, pedido(10)));
+        verifyNoInteractions(motorPromocoes);
+    }
+
+    @Test
+    @DisplayName("Deve excluir promoção e recarregar o motor")
+    void excluirPromocao_comSucesso() {
+        when(promocaoRepository.existsById(1L)).thenReturn(true);
+
+        promocaoService.excluirPromocao(1L);
+
+        verify(promocaoRepository).deleteById(1L);
+        verify(motorPromocoes).recarregarAposCommit();
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException ao excluir promoção inexistente")
+    void excluirPromocao_quandoNaoEncontrar() {
+        when(promocaoRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> promocaoService.excluirPromocao(1L));
+        verify(promocaoRepository, never()).deleteById(any());
+    }
+
+    private static Promocao pedido(int percentual) {
+        Promocao promocao = new Promocao("Faixa", TipoPromocao.PEDIDO, SegmentoCliente.TODOS,
+                BigDecimal.valueOf(percentual));
+        promocao.setId(1L);
+        return promocao;
+    }
+}
@@ -0,0 +1,180 @@
+package com.klok.desafio.services.relatorio;
+
+import com.klok.desafio.dto.ItemVendido;
+import com.klok.desafio.dto.VendasDia;
+import com.klok.desafio.entities.Cliente;
+import com.klok.desafio.entities.Item;
+import com.klok.desafio.entities.Pedido;
+import com.klok.desafio.entities.Produto;
+import com.klok.desafio.entities.VendaHora;
+import com.klok.desafio.exceptions.BusinessRuleException;
+import com.klok.desafio.exceptions.InsufficientStockException;
+import com.klok.desafio.services.cliente.ClienteService;
+import com.klok.desafio.services.pedido.PedidoService;
+import com.klok.desafio.services.produto.ProdutoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//contra o banco (H2 do perfil test), com o ConsolidadorVendas chamado pelo teste no lugar do agendamento. O banco
+//é compartilhado pelos testes da classe, então cada teste compara com o dia antes dos seus pedidos
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:relatorio;MODE=PostgreSQL")
+@ActiveProfiles("test")
+class RelatorioServiceImplTest {
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private ConsolidadorVendas consolidadorVendas;
+
+    @Autowired
+    private AcumuladorVendas acumuladorVendas;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    private Cliente cliente;
+    private Cliente clienteVip;
+    private Produto produto;
+    private LocalDate hoje;
+    private VendasDia antes;
+
+    @BeforeEach
+    void configurar() {
+        long sufixo = System.nanoTime();
+        cliente = clienteService.salvarCliente(new Cliente("Bia", "bia" + sufixo + "@klok.com"));
+        Cliente vip = new Cliente("Rui", "rui" + sufixo + "@klok.com");
+        vip.setVip(true);
+        clienteVip = clienteService.salvarCliente(vip);
+        produto = produtoService.salvarProduto(new Produto("Caderno " + sufixo, new BigDecimal("2.50"), 100));
+
+        consolidadorVendas.consolidar();
+        hoje = LocalDate.now();
+        antes = relatorioService.vendasPorDia(hoje, hoje).get(0);
+    }
+
+    @Test
+    @DisplayName("Deve consolidar receita, desconto VIP e unidades dos pedidos gravados")
+    void consolidar_somaPedidosGravados() {
+        pedidoService.salvarPedido(pedido(cliente, 2));
+        pedidoService.salvarPedido(pedido(clienteVip, 4));
+
+        consolidadorVendas.consolidar();
+
+        VendasDia depois = relatorioService.vendasPorDia(hoje, hoje).get(0);
+        assertEquals(2L, depois.getQuantidadePedidos() - antes.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("15.00").compareTo(depois.getValorBruto().subtract(antes.getValorBruto())));
+        assertEquals(0, new BigDecimal("14.00").compareTo(depois.getValorLiquido().subtract(antes.getValorLiquido())));
+        assertEquals(0, new BigDecimal("1.00").compareTo(depois.getDescontoVip().subtract(antes.getDescontoVip())));
+
+        ItemVendido item = itemVendido();
+        assertEquals(6L, item.getQuantidade());
+        assertEquals(0, new BigDecimal("15.00").compareTo(item.getValor()));
+    }
+
+    @Test
+    @DisplayName("Deve contar a falta de estoque sem somar o pedido rejeitado")
+    void consolidar_contaFaltaDeEstoque() {
+        assertThrows(InsufficientStockException.class, () -> pedidoService.salvarPedido(pedido(cliente, 1000)));
+        pedidoService.salvarPedidosEmLote(List.of(pedido(cliente, 1), pedido(cliente, 1000)));
+
+        consolidadorVendas.consolidar();
+
+        VendasDia depois = relatorioService.vendasPorDia(hoje, hoje).get(0);
+        assertEquals(2L, depois.getFaltasEstoque() - antes.getFaltasEstoque());
+        assertEquals(1L, depois.getQuantidadePedidos() - antes.getQuantidadePedidos());
+        assertEquals(1L, itemVendido().getQuantidade());
+    }
+
+    @Test
+    @DisplayName("Não deve contar de novo o pedido alterado nem descontar o pedido excluído")
+    void consolidar_ignoraAlteracaoEExclusao() {
+        Pedido pedido = pedidoService.salvarPedido(pedido(cliente, 2));
+        pedidoService.atualizarPedido(pedido.getId(), pedido(cliente, 3));
+        pedidoService.excluirPedido(pedido.getId());
+
+        consolidadorVendas.consolidar();
+
+        VendasDia depois = relatorioService.vendasPorDia(hoje, hoje).get(0);
+        assertEquals(1L, depois.getQuantidadePedidos() - antes.getQuantidadePedidos());
+        assertEquals(2L, itemVendido().getQuantidade());
+    }
+
+    @Test
+    @DisplayName("Deve somar às linhas já consolidadas e listar a hora da venda")
+    void consolidar_incrementaLinhasExistentes() {
+        pedidoService.salvarPedido(pedido(cliente, 1));
+        consolidadorVendas.consolidar();
+        pedidoService.salvarPedido(pedido(cliente, 1));
+        consolidadorVendas.consolidar();
+
+        assertEquals(2L, itemVendido().getQuantidade());
+        LocalDateTime hora = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        List<VendaHora> horas = relatorioService.vendasPorHora(hoje);
+        assertTrue(horas.stream().anyMatch(venda -> venda.getHora().equals(hora)));
+    }
+
+    @Test
+    @DisplayName("Deve devolver ao acumulador as vendas que não puderam ser gravadas")
+    void devolver_mantemVendasParaProximaConsolidacao() {
+        pedidoService.salvarPedido(pedido(cliente, 3));
+        LancamentosVendas drenados = acumuladorVendas.drenar();
+        assertFalse(drenados.isVazio());
+        assertTrue(acumuladorVendas.drenar().isVazio());
+
+        acumuladorVendas.devolver(drenados);
+        consolidadorVendas.consolidar();
+
+        assertEquals(3L, itemVendido().getQuantidade());
+    }
+
+    @Test
+    @DisplayName("Deve devolver um dia por data do período, inclusive os dias sem venda")
+    void vendasPorDia_incluiDiasSemVenda() {
+        List<VendasDia> dias = relatorioService.vendasPorDia(hoje.minusDays(2), hoje);
+
+        assertEquals(List.of(hoje.minusDays(2), hoje.minusDays(1), hoje), dias.stream().map(VendasDia::getDia).toList());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BusinessRuleException para período invertido ou longo demais")
+    void vendasPorDia_periodoInvalido() {
+        assertThrows(BusinessRuleException.class, () -> relatorioService.vendasPorDia(hoje, hoje.minusDays(1)));
+        assertThrows(BusinessRuleException.class, () -> relatorioService.vendasPorDia(hoje.minusDays(400), hoje));
+    }
+
+    //o nome do produto é único por teste, então o item só tem as vendas do teste que o criou
+    private ItemVendido itemVendido() {
+        return relatorioService.itensMaisVendidos(hoje, hoje, 100).stream()
+                .filter(item -> item.getNome().equals(produto.getNome()))
+                .findFirst().orElseThrow();
+    }
+
+    private Pedido pedido(Cliente dono, int quantidade) {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(dono);
+        Item item = new Item();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(quantidade);
+        pedido.getItens().add(item);
+        return pedido;
+    }
+}
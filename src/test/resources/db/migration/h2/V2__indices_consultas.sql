@@ -0,0 +1,13 @@
+-- Versão H2 da V2 de db/migration/postgresql (sem CONCURRENTLY e sem índice parcial)
+
+create index if not exists idx_item_pedido_id on tb_item (id_pedido, id);
+create index if not exists idx_item_produto_id on tb_item (id_produto);
+
+create index if not exists idx_pedido_cliente_data_entrega on tb_pedido (id_cliente, data_entrega);
+create index if not exists idx_pedido_cliente_id on tb_pedido (id_cliente, id);
+create index if not exists idx_pedido_data_entrega_id on tb_pedido (data_entrega, id);
+
+create index if not exists idx_notificacao_pendente on tb_notificacao (status, proxima_tentativa, id);
+
+create index if not exists idx_promocao_ativa on tb_promocao (ativa);
+create index if not exists idx_chave_idempotencia_expira_em on tb_chave_idempotencia (expira_em);